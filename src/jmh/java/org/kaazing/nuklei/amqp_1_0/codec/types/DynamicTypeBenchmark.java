@@ -0,0 +1,125 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.types;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+
+/*
+ * Table driven kind and limit lookups while walking the fields of Attach and Transfer bodies, compared with
+ * the switch over every format code that DynamicType used before
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class DynamicTypeBenchmark {
+
+    private MutableDirectBuffer attach;
+    private MutableDirectBuffer transfer;
+    private DynamicType dynamic;
+    private CompositeType composite;
+
+    @Setup
+    public void init() {
+        attach = EncodedBodies.attach();
+        transfer = EncodedBodies.transfer();
+        dynamic = new DynamicType();
+        composite = new CompositeType();
+    }
+
+    @Benchmark
+    public int limitAttachFields() {
+        return limitFields(attach, EncodedBodies.ATTACH_FIELDS);
+    }
+
+    @Benchmark
+    public int limitTransferFields() {
+        return limitFields(transfer, EncodedBodies.TRANSFER_FIELDS);
+    }
+
+    @Benchmark
+    public int kindAttachFields() {
+        int offset = composite.wrap(attach, 0).offsetAt(0);
+        int kinds = 0;
+        for (int i = 0; i < EncodedBodies.ATTACH_FIELDS; i++) {
+            kinds += dynamic.wrap(attach, offset).kind().ordinal();
+            offset = dynamic.limit();
+        }
+        return kinds;
+    }
+
+    @Benchmark
+    public int limitAttachFieldsBySwitch() {
+        return limitFieldsBySwitch(attach, EncodedBodies.ATTACH_FIELDS);
+    }
+
+    @Benchmark
+    public int limitTransferFieldsBySwitch() {
+        return limitFieldsBySwitch(transfer, EncodedBodies.TRANSFER_FIELDS);
+    }
+
+    @Benchmark
+    public int kindAttachFieldsBySwitch() {
+        int offset = composite.wrap(attach, 0).offsetAt(0);
+        int kinds = 0;
+        for (int i = 0; i < EncodedBodies.ATTACH_FIELDS; i++) {
+            kinds += SwitchDecoder.kind(attach, offset).ordinal();
+            offset = SwitchDecoder.limit(attach, offset);
+        }
+        return kinds;
+    }
+
+    @Benchmark
+    public int offsetAtLastAttachField() {
+        return composite.wrap(attach, 0).offsetAt(EncodedBodies.ATTACH_FIELDS - 1);
+    }
+
+    @Benchmark
+    public int offsetAtLastTransferField() {
+        return composite.wrap(transfer, 0).offsetAt(EncodedBodies.TRANSFER_FIELDS - 1);
+    }
+
+    private int limitFields(MutableDirectBuffer buffer, int count) {
+        int offset = composite.wrap(buffer, 0).offsetAt(0);
+        for (int i = 0; i < count; i++) {
+            offset = dynamic.wrap(buffer, offset).limit();
+        }
+        return offset;
+    }
+
+    private int limitFieldsBySwitch(MutableDirectBuffer buffer, int count) {
+        int offset = composite.wrap(buffer, 0).offsetAt(0);
+        for (int i = 0; i < count; i++) {
+            offset = SwitchDecoder.limit(buffer, offset);
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.types;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.kaazing.nuklei.Flyweight.uint8Get;
+import static org.kaazing.nuklei.FlyweightBE.int32Get;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+
+/*
+ * Bulk skipping of map and list elements compared with skipping one element per call, and with the
+ * per element table lookup that DynamicType.limit() used before word reads
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class DynamicTypeSkipBenchmark {
+
+    private static final int DESCRIBED = 0x00;
+
+    @Param({ "8", "24", "48" })
+    public int entries;
+
+    private MutableDirectBuffer annotations;
+    private MutableDirectBuffer attach;
+    private int annotationsOffset;
+    private int attachOffset;
+    private MapType map;
+
+    @Setup
+    public void init() {
+        annotations = EncodedBodies.annotations(entries);
+        attach = EncodedBodies.attach();
+        map = new MapType();
+        annotationsOffset = map.wrap(annotations, 0).offsetAt(0);
+        attachOffset = new CompositeType().wrap(attach, 0).offsetAt(0);
+    }
+
+    @Benchmark
+    public int skipAnnotationsInBulk() {
+        return DynamicType.skip(annotations, annotationsOffset, entries * 2);
+    }
+
+    @Benchmark
+    public int skipAnnotationsOneByOne() {
+        return skipOneByOne(annotations, annotationsOffset, entries * 2);
+    }
+
+    @Benchmark
+    public int skipAttachInBulk() {
+        return DynamicType.skip(attach, attachOffset, EncodedBodies.ATTACH_FIELDS);
+    }
+
+    @Benchmark
+    public int skipAttachOneByOne() {
+        return skipOneByOne(attach, attachOffset, EncodedBodies.ATTACH_FIELDS);
+    }
+
+    @Benchmark
+    public int skipAnnotationsPerElement() {
+        return skipPerElement(annotations, annotationsOffset, entries * 2);
+    }
+
+    @Benchmark
+    public int skipAttachPerElement() {
+        return skipPerElement(attach, attachOffset, EncodedBodies.ATTACH_FIELDS);
+    }
+
+    @Benchmark
+    public int offsetAtLastAnnotation() {
+        return map.wrap(annotations, 0).offsetAt(entries - 1);
+    }
+
+    private static int skipOneByOne(MutableDirectBuffer buffer, int offset, int count) {
+        for (int i = 0; i < count; i++) {
+            offset = DynamicType.skip(buffer, offset, 1);
+        }
+        return offset;
+    }
+
+    private static int skipPerElement(MutableDirectBuffer buffer, int offset, int count) {
+        for (int i = 0; i < count; i++) {
+            offset = limit(buffer, offset);
+        }
+        return offset;
+    }
+
+    /*
+     * Limit of one element from its format code alone, without reading ahead, as before skip
+     */
+    private static int limit(MutableDirectBuffer buffer, int offset) {
+        int formatCode = uint8Get(buffer, offset);
+        if (formatCode == DESCRIBED) {
+            return limit(buffer, limit(buffer, offset + 1));
+        }
+
+        switch (DynamicType.lengthWidth(formatCode)) {
+        case 0:
+            return offset + 1 + DynamicType.fixedWidth(formatCode);
+        case 1:
+            return offset + 2 + uint8Get(buffer, offset + 1);
+        case 4:
+            return offset + 5 + int32Get(buffer, offset + 1);
+        default:
+            throw new IllegalArgumentException();
+        }
+    }
+}
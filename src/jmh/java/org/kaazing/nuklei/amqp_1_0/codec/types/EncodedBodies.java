@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.types;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.nio.ByteBuffer;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+/*
+ * Performative and section bodies as typically sent by AMQP 1.0 clients, encoded once per benchmark
+ */
+final class EncodedBodies {
+
+    static final int ATTACH_FIELDS = 12;
+    static final int TRANSFER_FIELDS = 6;
+
+    private EncodedBodies() {
+    }
+
+    static MutableDirectBuffer attach() {
+        // @formatter:off
+        return list(
+            str8("link-0123456789"),
+            "5201",
+            "42",
+            "5002",
+            "5000",
+            "005328" + list8(str8("queue/orders"), "43", sym8("session-end"), "43", "42"),
+            "005329" + list8(str8("queue/orders")),
+            "40",
+            "42",
+            "43",
+            "800000000000100000",
+            "40");
+        // @formatter:on
+    }
+
+    static MutableDirectBuffer transfer() {
+        return list("5201", "43", "a00400000001", "43", "41", "42");
+    }
+
+    /*
+     * Message annotations with small values, keys alternating over short string, uint and boolean values
+     */
+    static MutableDirectBuffer annotations(int entries) {
+        String[] elements = new String[entries * 2];
+        for (int i = 0; i < entries; i++) {
+            elements[2 * i] = sym8(String.format("x-opt-key-%02d", i));
+            switch (i % 3) {
+            case 0:
+                elements[2 * i + 1] = str8("value-" + i);
+                break;
+            case 1:
+                elements[2 * i + 1] = String.format("52%02x", i);
+                break;
+            default:
+                elements[2 * i + 1] = "41";
+                break;
+            }
+        }
+        return map(elements);
+    }
+
+    private static MutableDirectBuffer list(String... elements) {
+        return wrap(compound("c0", "d0", elements));
+    }
+
+    private static MutableDirectBuffer map(String... elements) {
+        return wrap(compound("c1", "d1", elements));
+    }
+
+    private static String list8(String... elements) {
+        return compound("c0", "d0", elements);
+    }
+
+    private static String compound(String formatCode8, String formatCode32, String... elements) {
+        StringBuilder content = new StringBuilder();
+        for (String element : elements) {
+            content.append(element);
+        }
+        int size = 1 + content.length() / 2;
+        if (size <= 0xff && elements.length <= 0xff) {
+            return String.format("%s%02x%02x%s", formatCode8, size, elements.length, content);
+        }
+        return String.format("%s%08x%08x%s", formatCode32, size + 3, elements.length, content);
+    }
+
+    private static String str8(String value) {
+        return String.format("a1%02x%s", value.length(), hex(value));
+    }
+
+    private static String sym8(String value) {
+        return String.format("a3%02x%s", value.length(), hex(value));
+    }
+
+    private static String hex(String value) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : value.getBytes(US_ASCII)) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static MutableDirectBuffer wrap(String hex) {
+        MutableDirectBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(hex.length() / 2));
+        for (int i = 0; i < buffer.capacity(); i++) {
+            buffer.putByte(i, (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16));
+        }
+        return buffer;
+    }
+}
@@ -19,20 +19,27 @@ import static org.kaazing.nuklei.net.TcpManagerTypeId.EOF;
 import static org.kaazing.nuklei.net.TcpManagerTypeId.NEW_CONNECTION;
 import static org.kaazing.nuklei.net.TcpManagerTypeId.RECEIVED_DATA;
 
+import org.kaazing.nuklei.amqp_1_0.codec.transport.DecoderContext;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Frame;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.FrameValidator;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Header;
 import org.kaazing.nuklei.amqp_1_0.connection.Connection;
 import org.kaazing.nuklei.amqp_1_0.connection.ConnectionHandler;
+import org.kaazing.nuklei.amqp_1_0.sender.SenderFactory;
 import org.kaazing.nuklei.function.AlignedMikro;
 
 import uk.co.real_logic.agrona.MutableDirectBuffer;
 
 public class AmqpMikro<C, S, L> implements AlignedMikro<Connection<C, S, L>> {
 
+    private final SenderFactory senderFactory;
     private final ConnectionHandler<C, S, L> connectionHandler;
+    private final DecoderContext context;
 
-    protected AmqpMikro(ConnectionHandler<C, S, L> connectionHandler) {
+    protected AmqpMikro(SenderFactory senderFactory, ConnectionHandler<C, S, L> connectionHandler) {
+        this.senderFactory = senderFactory;
         this.connectionHandler = connectionHandler;
+        this.context = new DecoderContext();
     }
 
     @Override
@@ -51,7 +58,7 @@ public class AmqpMikro<C, S, L> implements AlignedMikro<Connection<C, S, L>> {
                 switch (connection.state) {
                 case START:
                 case HEADER_SENT:
-                    Header header = Header.LOCAL_REF.get().wrap(buffer, offset);
+                    Header header = context.header.wrap(buffer, offset);
                     offset = header.limit();
                     connectionHandler.handleHeader(connection, header);
                     break;
@@ -59,17 +66,33 @@ public class AmqpMikro<C, S, L> implements AlignedMikro<Connection<C, S, L>> {
                     offset = limit;
                     break;
                 default:
-                    Frame frame = Frame.LOCAL_REF.get().wrap(buffer, offset);
-                    offset = frame.limit();
-                    connectionHandler.handleFrame(connection, frame);
+                    Frame frame = context.frame.wrap(buffer, offset);
+                    if (!FrameValidator.isValid(frame, limit)) {
+                        connectionHandler.handleDecodeError(connection);
+                        offset = limit;
+                        break;
+                    }
+                    if (frame.getLength() > connection.localMaxFrameSize) {
+                        connectionHandler.handleFramingError(connection);
+                        offset = limit;
+                        break;
+                    }
+                    offset += (int) frame.getLength();
+                    if (!frame.isEmpty()) {
+                        connectionHandler.handleFrame(connection, frame, context);
+                    }
                     break;
                 }
             }
             break;
         case EOF:
+            // nothing more can be written to this connection
             connectionHandler.destroy(connection);
-            break;
+            return;
         }
+
+        // frames sent while handling this message are written together, including frames for other connections
+        senderFactory.flush();
     }
 
 }
\ No newline at end of file
@@ -21,14 +21,19 @@ import static org.kaazing.nuklei.net.TcpManagerTypeId.NEW_CONNECTION;
 import static org.kaazing.nuklei.net.TcpManagerTypeId.RECEIVED_DATA;
 import static uk.co.real_logic.agrona.BitUtil.SIZE_OF_INT;
 
-import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.kaazing.nuklei.amqp_1_0.codec.definitions.ErrorCondition;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Header;
 import org.kaazing.nuklei.amqp_1_0.connection.Connection;
 import org.kaazing.nuklei.amqp_1_0.connection.ConnectionFactory;
 import org.kaazing.nuklei.amqp_1_0.connection.ConnectionHandler;
+import org.kaazing.nuklei.amqp_1_0.connection.ReassemblyBufferPool;
+import org.kaazing.nuklei.amqp_1_0.sender.BufferedTcpSenderFactory;
 import org.kaazing.nuklei.amqp_1_0.sender.Sender;
 import org.kaazing.nuklei.amqp_1_0.sender.SenderFactory;
+import org.kaazing.nuklei.amqp_1_0.sender.TcpResponder;
 import org.kaazing.nuklei.function.AlignedMikro.StorageSupplier;
 import org.kaazing.nuklei.function.Mikro;
 import org.kaazing.nuklei.function.StatefulMikro;
@@ -36,53 +41,138 @@ import org.kaazing.nuklei.net.TcpManagerHeadersDecoder;
 
 import uk.co.real_logic.agrona.MutableDirectBuffer;
 import uk.co.real_logic.agrona.collections.Long2ObjectHashMap;
-import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
 
 public class AmqpMikroFactory<C, S, L> {
 
+    // reassembly buffers start large enough for the header and any frame sent before open
+    private static final int MIN_REASSEMBLY_CAPACITY = 1024;
+    private static final int MAX_REASSEMBLY_CAPACITY = 1 << 20;
+    private static final long MAX_RETAINED_REASSEMBLY_BYTES = 64L << 20;
+
+    // each connection buffers up to four of its largest outbound frames
+    private static final int SEND_CAPACITY = 1 << 16;
+    private static final int MAX_SEND_FRAME_LENGTH = SEND_CAPACITY >> 2;
+
+    private final List<SenderFactory> senderFactories = new ArrayList<>();
+
+    /*
+     * Buffers outbound frames per connection, written by id through responder
+     */
+    public Mikro newMikro(
+            TcpResponder responder,
+            ConnectionFactory<C, S, L> connectionFactory,
+            ConnectionHandler<C, S, L> connectionHandler) {
+
+        BufferedTcpSenderFactory senderFactory = new BufferedTcpSenderFactory(responder, SEND_CAPACITY, MAX_SEND_FRAME_LENGTH);
+        senderFactories.add(senderFactory);
+
+        return newMikro(senderFactory, connectionFactory, connectionHandler);
+    }
+
     public Mikro newMikro(
             SenderFactory senderFactory,
             ConnectionFactory<C, S, L> connectionFactory,
             ConnectionHandler<C, S, L> connectionHandler) {
 
-        AmqpMikro<C, S, L> mikro = new AmqpMikro<>(connectionHandler);
+        AmqpMikro<C, S, L> mikro = new AmqpMikro<>(senderFactory, connectionHandler);
+
+        ReassemblyBufferPool reassemblyPool =
+                new ReassemblyBufferPool(MIN_REASSEMBLY_CAPACITY, MAX_REASSEMBLY_CAPACITY, MAX_RETAINED_REASSEMBLY_BYTES);
 
         StorageSupplier<Connection<C, S, L>> storage = (connection) -> (connection != null) ? connection.reassemblyBuffer : null;
 
-        StatefulMikro<Connection<C, S, L>> stateful = 
-                mikro.alignedBy(storage, AmqpMikroFactory::alignLength);
+        StatefulMikro<Connection<C, S, L>> stateful = mikro.alignedBy(storage,
+                (connection, header, typeId, buffer, offset, length) ->
+                    alignLength(reassemblyPool, connection, typeId, buffer, offset, length));
 
-        AmqpConnectionState connectionState = new AmqpConnectionState(connectionFactory, senderFactory);
+        AmqpConnectionState connectionState = new AmqpConnectionState(connectionFactory, senderFactory, reassemblyPool);
 
         return stateful.statefulBy(connectionState::lifecycle);
     }
 
-    private static <C, S, L> int alignLength(Connection<C, S, L> connection, Object header, int typeId, MutableDirectBuffer buffer, int offset, int length)  {
+    /*
+     * Retries frames that could not yet be written by Mikros created with a TcpResponder, returning the
+     * number of connections still holding unwritten frames. Each Mikro already flushes after every message,
+     * so calling this from the owning duty cycle drains back pressured connections that have gone quiet.
+     */
+    public int flush() {
+        int pending = 0;
+        for (int i = 0; i < senderFactories.size(); i++) {
+            pending += senderFactories.get(i).flush();
+        }
+        return pending;
+    }
+
+    private static <C, S, L> int alignLength(
+            ReassemblyBufferPool reassemblyPool,
+            Connection<C, S, L> connection,
+            int typeId,
+            MutableDirectBuffer buffer,
+            int offset,
+            int length)  {
+
         switch (typeId) {
         case RECEIVED_DATA:
             switch (connection.state) {
             case START:
             case HEADER_SENT:
                 if (length >= Header.SIZEOF_HEADER + SIZE_OF_INT) {
-                    return Header.SIZEOF_HEADER + int32Get(buffer, offset + Header.SIZEOF_HEADER);
+                    int frameLength = int32Get(buffer, offset + Header.SIZEOF_HEADER);
+                    return reserve(reassemblyPool, connection, buffer, Header.SIZEOF_HEADER, frameLength, length);
                 }
                 return Header.SIZEOF_HEADER;
+            case DISCARDING:
+                return length;
             default:
-                return int32Get(buffer, offset);
+                return reserve(reassemblyPool, connection, buffer, 0, int32Get(buffer, offset), length);
             }
         default:
             return length;
         }
     }
 
+    /*
+     * Rejects frames larger than the max-frame-size we advertised before they are reassembled, then grows
+     * the reassembly buffer only when a frame larger than the buffer is partially received. A grown buffer
+     * is returned to the pool once a later frame arrives outside it, so the large frame has completed.
+     */
+    private static <C, S, L> int reserve(
+            ReassemblyBufferPool reassemblyPool,
+            Connection<C, S, L> connection,
+            MutableDirectBuffer buffer,
+            int headerLength,
+            int frameLength,
+            int length) {
+
+        int alignedLength = headerLength + frameLength;
+        if (frameLength < 0 || frameLength > connection.localMaxFrameSize || alignedLength > reassemblyPool.maxCapacity()) {
+            connection.stateMachine.error(connection, ErrorCondition.FRAMING_ERROR);
+            return length;
+        }
+
+        if (buffer != connection.reassemblyBuffer && connection.reassemblyBuffer.capacity() > reassemblyPool.minCapacity()) {
+            connection.reassemblyBuffer = reassemblyPool.shrink(connection.reassemblyBuffer);
+        }
+
+        if (alignedLength > length && alignedLength > connection.reassemblyBuffer.capacity()) {
+            connection.reassemblyBuffer = reassemblyPool.grow(connection.reassemblyBuffer, alignedLength);
+        }
+        return alignedLength;
+    }
+
     private final class AmqpConnectionState {
         private final ConnectionFactory<C, S, L> connectionFactory;
         private final SenderFactory senderFactory;
+        private final ReassemblyBufferPool reassemblyPool;
         private final Long2ObjectHashMap<Connection<C, S, L>> statesByConnectionID;
 
-        public AmqpConnectionState(ConnectionFactory<C, S, L> connectionFactory, SenderFactory senderFactory) {
+        public AmqpConnectionState(
+                ConnectionFactory<C, S, L> connectionFactory,
+                SenderFactory senderFactory,
+                ReassemblyBufferPool reassemblyPool) {
             this.connectionFactory = connectionFactory;
             this.senderFactory = senderFactory;
+            this.reassemblyPool = reassemblyPool;
             this.statesByConnectionID = new Long2ObjectHashMap<>();
         }
 
@@ -91,9 +181,10 @@ public class AmqpMikroFactory<C, S, L> {
             switch (typeId) {
             case NEW_CONNECTION:
                 long newConnectionID = tcpHeaders.connectionId();
-                MutableDirectBuffer reassemblyBuffer = new UnsafeBuffer(ByteBuffer.allocate(8192));
+                MutableDirectBuffer reassemblyBuffer = reassemblyPool.acquire(MIN_REASSEMBLY_CAPACITY);
                 Sender newSender = senderFactory.newSender(headers);
                 Connection<C, S, L> newConnection = connectionFactory.newConnection(newSender, reassemblyBuffer);
+                newConnection.maxFrameSizeLimit = reassemblyPool.maxCapacity();
                 statesByConnectionID.put(newConnectionID, newConnection);
                 return newConnection;
             case RECEIVED_DATA:
@@ -101,7 +192,11 @@ public class AmqpMikroFactory<C, S, L> {
                 return statesByConnectionID.get(connectionID);
             case EOF:
                 long oldConnectionID = tcpHeaders.connectionId();
-                return statesByConnectionID.remove(oldConnectionID);
+                Connection<C, S, L> oldConnection = statesByConnectionID.remove(oldConnectionID);
+                if (oldConnection != null) {
+                    reassemblyPool.release(oldConnection.reassemblyBuffer);
+                }
+                return oldConnection;
             default:
                 return null;
             }
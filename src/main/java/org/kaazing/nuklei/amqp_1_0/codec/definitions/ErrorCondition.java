@@ -0,0 +1,80 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.definitions;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import org.kaazing.nuklei.amqp_1_0.codec.types.SymbolTable;
+import org.kaazing.nuklei.function.DirectBufferAccessor;
+import org.kaazing.nuklei.function.MutableDirectBufferMutator;
+
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+
+/*
+ * See AMQP 1.0 specification, section 2.8.15 "AMQP Error" and section 2.8.16 "Connection Error"
+ */
+public enum ErrorCondition {
+    INTERNAL_ERROR("amqp:internal-error"),
+    NOT_FOUND("amqp:not-found"),
+    UNAUTHORIZED_ACCESS("amqp:unauthorized-access"),
+    DECODE_ERROR("amqp:decode-error"),
+    RESOURCE_LIMIT_EXCEEDED("amqp:resource-limit-exceeded"),
+    NOT_ALLOWED("amqp:not-allowed"),
+    INVALID_FIELD("amqp:invalid-field"),
+    NOT_IMPLEMENTED("amqp:not-implemented"),
+    RESOURCE_LOCKED("amqp:resource-locked"),
+    PRECONDITION_FAILED("amqp:precondition-failed"),
+    RESOURCE_DELETED("amqp:resource-deleted"),
+    ILLEGAL_STATE("amqp:illegal-state"),
+    FRAME_SIZE_TOO_SMALL("amqp:frame-size-too-small"),
+    CONNECTION_FORCED("amqp:connection:forced"),
+    FRAMING_ERROR("amqp:connection:framing-error"),
+    REDIRECT("amqp:connection:redirect");
+
+    private static final ErrorCondition[] VALUES = values();
+
+    private static final SymbolTable SYMBOLS = new SymbolTable(VALUES.length);
+
+    static {
+        for (ErrorCondition value : VALUES) {
+            SYMBOLS.register(value.symbol, value.ordinal());
+        }
+    }
+
+    public static final DirectBufferAccessor<ErrorCondition> READ = (DirectBuffer buffer, int offset, int size) -> {
+        int id = SYMBOLS.lookup(buffer, offset, size);
+        return (id != SymbolTable.NOT_FOUND) ? VALUES[id] : null;
+    };
+
+    public static final MutableDirectBufferMutator<ErrorCondition> WRITE = new MutableDirectBufferMutator<ErrorCondition>() {
+
+        @Override
+        public int mutate(org.kaazing.nuklei.function.MutableDirectBufferMutator.Mutation mutation, MutableDirectBuffer buffer, ErrorCondition condition) {
+            int length = condition.symbol.length;
+            int offset = mutation.maxOffset(length);
+            buffer.putBytes(offset, condition.symbol);
+            return length;
+        }
+    };
+
+    private final byte[] symbol;
+
+    private ErrorCondition(String symbol) {
+        this.symbol = symbol.getBytes(US_ASCII);
+    }
+
+}
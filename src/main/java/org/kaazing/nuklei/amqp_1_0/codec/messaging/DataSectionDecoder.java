@@ -0,0 +1,203 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.messaging;
+
+import static org.kaazing.nuklei.Flyweight.uint8Get;
+import static org.kaazing.nuklei.FlyweightBE.int64Get;
+import static org.kaazing.nuklei.FlyweightBE.uint32Get;
+
+import org.kaazing.nuklei.amqp_1_0.codec.types.DynamicType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.SymbolTable;
+
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+/*
+ * Incremental decoder for message sections arriving in arbitrary slices, such as the payloads of
+ * successive transfer frames, reporting the bytes of each data section as they arrive and skipping
+ * other sections, so that memory is bounded by the slice size rather than the message size.
+ */
+public final class DataSectionDecoder {
+
+    private static final int DATA_CODE = 0x75;
+    private static final String DATA_SYMBOL = "amqp:data:binary";
+    private static final SymbolTable DATA_SYMBOLS = new SymbolTable(1).register(DATA_SYMBOL, 0);
+
+    private static final int DESCRIBED = 0x00;
+    private static final int DESCRIPTOR_SMALL_ULONG = 0x53;
+    private static final int DESCRIPTOR_ULONG = 0x80;
+    private static final int DESCRIPTOR_SYMBOL_8 = 0xa3;
+    private static final int WIDTH_KIND_1_BINARY = 0xa0;
+    private static final int WIDTH_KIND_4_BINARY = 0xb0;
+
+    // described format code and sym8 descriptor, for the section and a described value, then value format code and 4 byte length
+    private static final int MAX_HEADER_LENGTH = 2 * (1 + 2 + 255) + 1 + 4;
+
+    @FunctionalInterface
+    public interface DataConsumer {
+
+        void accept(DirectBuffer buffer, int offset, int length, boolean last);
+    }
+
+    private final DataConsumer consumer;
+    private final MutableDirectBuffer header;
+
+    private int headerLength;
+    private int valueOffset;
+    private long remaining;
+    private boolean inBody;
+    private boolean data;
+
+    public DataSectionDecoder(DataConsumer consumer) {
+        this.consumer = consumer;
+        this.header = new UnsafeBuffer(new byte[MAX_HEADER_LENGTH]);
+    }
+
+    public DataSectionDecoder reset() {
+        headerLength = 0;
+        remaining = 0L;
+        inBody = false;
+        data = false;
+        return this;
+    }
+
+    /*
+     * Returns true when all sections decoded so far are complete
+     */
+    public boolean isSectionBoundary() {
+        return !inBody && headerLength == 0;
+    }
+
+    public void decode(DirectBuffer buffer, int offset, int length) {
+        int limit = offset + length;
+        while (offset < limit) {
+            if (inBody) {
+                int bodyLength = (int) Math.min(remaining, limit - offset);
+                remaining -= bodyLength;
+                inBody = remaining != 0L;
+                if (data) {
+                    consumer.accept(buffer, offset, bodyLength, !inBody);
+                }
+                offset += bodyLength;
+            }
+            else {
+                header.putByte(headerLength++, buffer.getByte(offset++));
+                if (headerLength == headerLimit()) {
+                    beginBody();
+                }
+            }
+        }
+    }
+
+    /*
+     * Returns the header length once enough of the header is known, or -1 when more bytes are needed.
+     * The header is the section descriptor, the descriptors of a described section value, if any, then
+     * the value format code and length, so described values are skipped like any other value.
+     */
+    private int headerLimit() {
+        if (uint8Get(header, 0) != DESCRIBED) {
+            throw new IllegalArgumentException();
+        }
+
+        int constructorOffset = 0;
+        while (uint8Get(header, constructorOffset) == DESCRIBED) {
+            constructorOffset = descriptorLimit(constructorOffset + 1);
+            if (constructorOffset == -1 || headerLength <= constructorOffset) {
+                return -1;
+            }
+        }
+
+        valueOffset = constructorOffset;
+        int lengthWidth = DynamicType.lengthWidth(uint8Get(header, valueOffset));
+        if (lengthWidth == -1) {
+            throw new IllegalArgumentException();
+        }
+
+        return valueOffset + 1 + lengthWidth;
+    }
+
+    /*
+     * Returns the limit of the descriptor at offset, or -1 when more bytes are needed to find it
+     */
+    private int descriptorLimit(int offset) {
+        if (headerLength <= offset) {
+            return -1;
+        }
+
+        int formatCode = uint8Get(header, offset);
+        int lengthWidth = DynamicType.lengthWidth(formatCode);
+        int limit;
+        switch (lengthWidth) {
+        case 0:
+            limit = offset + 1 + DynamicType.fixedWidth(formatCode);
+            break;
+        case 1:
+        case 4:
+            if (headerLength <= offset + lengthWidth) {
+                return -1;
+            }
+            long length = (lengthWidth == 1) ? uint8Get(header, offset + 1) : uint32Get(header, offset + 1);
+            limit = (int) Math.min(offset + 1 + lengthWidth + length, MAX_HEADER_LENGTH);
+            break;
+        default:
+            throw new IllegalArgumentException();
+        }
+
+        // descriptors must leave room for the value format code and length
+        if (limit > MAX_HEADER_LENGTH - 1 - 4) {
+            throw new IllegalArgumentException();
+        }
+
+        return limit;
+    }
+
+    private void beginBody() {
+        int formatCode = uint8Get(header, valueOffset);
+        switch (DynamicType.lengthWidth(formatCode)) {
+        case 0:
+            remaining = DynamicType.fixedWidth(formatCode);
+            break;
+        case 1:
+            remaining = uint8Get(header, valueOffset + 1);
+            break;
+        default:
+            remaining = uint32Get(header, valueOffset + 1);
+            break;
+        }
+
+        data = isDataDescriptor() && (formatCode == WIDTH_KIND_1_BINARY || formatCode == WIDTH_KIND_4_BINARY);
+        headerLength = 0;
+        inBody = remaining != 0L;
+
+        if (data && !inBody) {
+            consumer.accept(header, 0, 0, true);
+        }
+    }
+
+    private boolean isDataDescriptor() {
+        switch (uint8Get(header, 1)) {
+        case DESCRIPTOR_SMALL_ULONG:
+            return uint8Get(header, 2) == DATA_CODE;
+        case DESCRIPTOR_ULONG:
+            return int64Get(header, 2) == DATA_CODE;
+        case DESCRIPTOR_SYMBOL_8:
+            return DATA_SYMBOLS.lookup(header, 3, uint8Get(header, 2)) == 0;
+        default:
+            return false;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.kaazing.nuklei.amqp_1_0.codec.messaging;
 
 import static java.nio.charset.StandardCharsets.US_ASCII;
 
+import org.kaazing.nuklei.amqp_1_0.codec.types.SymbolTable;
 import org.kaazing.nuklei.function.DirectBufferAccessor;
 import org.kaazing.nuklei.function.MutableDirectBufferMutator;
 
@@ -29,17 +30,15 @@ import uk.co.real_logic.agrona.MutableDirectBuffer;
 public enum DistributionMode {
     MOVE, COPY;
 
+    private static final SymbolTable SYMBOLS = new SymbolTable(2)
+            .register("move", MOVE.ordinal())
+            .register("copy", COPY.ordinal());
+
+    private static final DistributionMode[] VALUES = values();
+
     public static final DirectBufferAccessor<DistributionMode> READ = (DirectBuffer buffer, int offset, int size) -> {
-        switch (buffer.getByte(offset)) {
-        case 'm':
-            // TODO: verify "move" matches entirely 
-            return DistributionMode.MOVE;
-        case 'c':
-            // TODO: verify "copy" matches entirely 
-            return DistributionMode.COPY;
-        default:
-            return null;
-        }
+        int id = SYMBOLS.lookup(buffer, offset, size);
+        return (id != SymbolTable.NOT_FOUND) ? VALUES[id] : null;
     };
 
     private static final byte[] MOVE_BYTES = "move".getBytes(US_ASCII);
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.messaging;
+
+import java.util.function.Consumer;
+
+import org.kaazing.nuklei.Flyweight;
+import org.kaazing.nuklei.amqp_1_0.codec.types.BooleanType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.CompositeType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.UByteType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.UIntType;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+
+/*
+ * See AMQP 1.0 specification, section 3.2.1 "Header"
+ */
+public final class MessageHeader extends CompositeType {
+
+    private static final int INDEX_DURABLE = 0;
+    private static final int INDEX_PRIORITY = 1;
+    private static final int INDEX_TTL = 2;
+    private static final int INDEX_FIRST_ACQUIRER = 3;
+    private static final int INDEX_DELIVERY_COUNT = 4;
+
+    private static final int DEFAULT_PRIORITY = 4;
+
+    private final BooleanType durable;
+    private final UByteType priority;
+    private final UIntType ttl;
+    private final BooleanType firstAcquirer;
+    private final UIntType deliveryCount;
+
+    public MessageHeader() {
+        durable = new BooleanType().watch(fieldChanged(INDEX_DURABLE));
+        priority = new UByteType().watch(fieldChanged(INDEX_PRIORITY));
+        ttl = new UIntType().watch(fieldChanged(INDEX_TTL));
+        firstAcquirer = new BooleanType().watch(fieldChanged(INDEX_FIRST_ACQUIRER));
+        deliveryCount = new UIntType().watch(fieldChanged(INDEX_DELIVERY_COUNT));
+    }
+
+    @Override
+    public MessageHeader watch(Consumer<Flyweight> observer) {
+        super.watch(observer);
+        return this;
+    }
+
+    @Override
+    public MessageHeader wrap(MutableDirectBuffer buffer, int offset) {
+        super.wrap(buffer, offset);
+        return this;
+    }
+
+    @Override
+    public MessageHeader maxLength(int value) {
+        super.maxLength(value);
+        return this;
+    }
+
+    @Override
+    public MessageHeader maxCount(int value) {
+        super.maxCount(value);
+        return this;
+    }
+
+    @Override
+    public MessageHeader compact() {
+        super.compact();
+        return this;
+    }
+
+    public MessageHeader setDurable(boolean value) {
+        durable().set(value);
+        return this;
+    }
+
+    public boolean getDurable() {
+        return isPresent(INDEX_DURABLE) && durable().get();
+    }
+
+    public MessageHeader setPriority(int value) {
+        priority().set(value);
+        return this;
+    }
+
+    public int getPriority() {
+        return isPresent(INDEX_PRIORITY) ? priority().get() : DEFAULT_PRIORITY;
+    }
+
+    public MessageHeader setTtl(long value) {
+        ttl().set(value);
+        return this;
+    }
+
+    public boolean hasTtl() {
+        return isPresent(INDEX_TTL);
+    }
+
+    public long getTtl() {
+        return ttl().get();
+    }
+
+    public MessageHeader setFirstAcquirer(boolean value) {
+        firstAcquirer().set(value);
+        return this;
+    }
+
+    public boolean getFirstAcquirer() {
+        return isPresent(INDEX_FIRST_ACQUIRER) && firstAcquirer().get();
+    }
+
+    public MessageHeader setDeliveryCount(long value) {
+        deliveryCount().set(value);
+        return this;
+    }
+
+    public long getDeliveryCount() {
+        return isPresent(INDEX_DELIVERY_COUNT) ? deliveryCount().get() : 0L;
+    }
+
+    private BooleanType durable() {
+        return durable.wrap(buffer(), offsetAt(INDEX_DURABLE));
+    }
+
+    private UByteType priority() {
+        return priority.wrap(buffer(), offsetAt(INDEX_PRIORITY));
+    }
+
+    private UIntType ttl() {
+        return ttl.wrap(buffer(), offsetAt(INDEX_TTL));
+    }
+
+    private BooleanType firstAcquirer() {
+        return firstAcquirer.wrap(buffer(), offsetAt(INDEX_FIRST_ACQUIRER));
+    }
+
+    private UIntType deliveryCount() {
+        return deliveryCount.wrap(buffer(), offsetAt(INDEX_DELIVERY_COUNT));
+    }
+}
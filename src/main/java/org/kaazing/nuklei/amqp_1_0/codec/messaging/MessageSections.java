@@ -0,0 +1,162 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.messaging;
+
+import java.util.Arrays;
+
+import org.kaazing.nuklei.amqp_1_0.codec.types.MapType;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+
+/*
+ * Index of the sections of an encoded message, see AMQP 1.0 specification, section 3.2 "Message Format".
+ *
+ * Sections are located lazily by skipping over each section once, and only as far as needed to find the
+ * requested section, so section bodies are never read unless asked for.
+ */
+public final class MessageSections {
+
+    private static final Section[] SECTIONS = Section.values();
+    private static final int MAX_INDEXED_PROPERTIES = 32;
+
+    private final Section.Described section;
+    private final ApplicationProperties applicationProperties;
+    private final int[] offsets;
+    private final int[] limits;
+
+    private MutableDirectBuffer buffer;
+    private int limit;
+    private int scanOffset;
+    private int scanOrdinal;
+    private boolean applicationPropertiesWrapped;
+
+    public MessageSections() {
+        this.section = new Section.Described();
+        this.applicationProperties = new ApplicationProperties();
+        this.applicationProperties.keyIndex(new MapType.KeyIndex(MAX_INDEXED_PROPERTIES));
+        this.offsets = new int[SECTIONS.length];
+        this.limits = new int[SECTIONS.length];
+    }
+
+    public MessageSections wrap(MutableDirectBuffer buffer, int offset, int limit) {
+        this.buffer = buffer;
+        this.limit = limit;
+        this.scanOffset = offset;
+        this.scanOrdinal = -1;
+        this.applicationPropertiesWrapped = false;
+        Arrays.fill(offsets, -1);
+        Arrays.fill(limits, -1);
+        return this;
+    }
+
+    public boolean has(Section value) {
+        return offset(value) != -1;
+    }
+
+    /*
+     * Returns the offset of the first section of this kind, or -1 when absent
+     */
+    public int offset(Section value) {
+        int ordinal = value.ordinal();
+        scanTo(ordinal);
+        return offsets[ordinal];
+    }
+
+    /*
+     * Returns the limit of the last consecutive section of this kind, such as repeated data sections, or -1 when absent
+     */
+    public int limit(Section value) {
+        int ordinal = value.ordinal();
+        scanTo(ordinal);
+        return limits[ordinal];
+    }
+
+    /*
+     * Returns the first section of this kind, or null when absent
+     */
+    public Section.Described section(Section value) {
+        int offset = offset(value);
+        return (offset != -1) ? section.wrap(buffer, offset) : null;
+    }
+
+    public MessageHeader header() {
+        Section.Described described = section(Section.HEADER);
+        return (described != null) ? described.getHeader() : null;
+    }
+
+    public Annotations deliveryAnnotations() {
+        Section.Described described = section(Section.DELIVERY_ANNOTATIONS);
+        return (described != null) ? described.getAnnotations() : null;
+    }
+
+    public Annotations messageAnnotations() {
+        Section.Described described = section(Section.MESSAGE_ANNOTATIONS);
+        return (described != null) ? described.getAnnotations() : null;
+    }
+
+    public Properties properties() {
+        Section.Described described = section(Section.PROPERTIES);
+        return (described != null) ? described.getProperties() : null;
+    }
+
+    /*
+     * Application properties are wrapped once per message, so that the key index is built at most once
+     * regardless of how many lookups are made
+     */
+    public ApplicationProperties applicationProperties() {
+        if (!applicationPropertiesWrapped) {
+            Section.Described described = section(Section.APPLICATION_PROPERTIES);
+            if (described == null) {
+                return null;
+            }
+            applicationProperties.wrap(buffer, described.valueOffset());
+            applicationPropertiesWrapped = true;
+        }
+        return applicationProperties;
+    }
+
+    public Annotations footer() {
+        Section.Described described = section(Section.FOOTER);
+        return (described != null) ? described.getAnnotations() : null;
+    }
+
+    private void scanTo(int ordinal) {
+        while (scanOffset < limit && (scanOrdinal < ordinal || (scanOrdinal == ordinal && isRepeatable(ordinal)))) {
+            Section value = section.wrap(buffer, scanOffset).getSection();
+            if (value == null) {
+                throw new IllegalStateException();
+            }
+
+            int sectionOrdinal = value.ordinal();
+            int sectionLimit = section.limit();
+            if (sectionLimit > limit) {
+                throw new IllegalStateException();
+            }
+
+            if (offsets[sectionOrdinal] == -1) {
+                offsets[sectionOrdinal] = scanOffset;
+            }
+            limits[sectionOrdinal] = sectionLimit;
+
+            scanOrdinal = sectionOrdinal;
+            scanOffset = sectionLimit;
+        }
+    }
+
+    private static boolean isRepeatable(int ordinal) {
+        return ordinal == Section.DATA.ordinal() || ordinal == Section.AMQP_SEQUENCE.ordinal();
+    }
+}
@@ -0,0 +1,1091 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.messaging;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.kaazing.nuklei.Flyweight.int8Get;
+import static org.kaazing.nuklei.Flyweight.uint8Get;
+import static org.kaazing.nuklei.FlyweightBE.doubleGet;
+import static org.kaazing.nuklei.FlyweightBE.floatGet;
+import static org.kaazing.nuklei.FlyweightBE.int16Get;
+import static org.kaazing.nuklei.FlyweightBE.int32Get;
+import static org.kaazing.nuklei.FlyweightBE.int64Get;
+import static org.kaazing.nuklei.FlyweightBE.uint16Get;
+import static org.kaazing.nuklei.FlyweightBE.uint32Get;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.kaazing.nuklei.amqp_1_0.codec.types.DynamicType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.MapType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.StringType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.SymbolTable;
+import org.kaazing.nuklei.amqp_1_0.codec.types.SymbolType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.ULongType;
+import org.kaazing.nuklei.function.DirectBufferAccessor;
+
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+/*
+ * JMS style message selector, compiled once and then evaluated in place against the message header,
+ * properties and application-properties sections without decoding the message.
+ *
+ * Supports comparison operators, AND, OR, NOT, parentheses, IS [NOT] NULL, [NOT] IN, [NOT] LIKE and
+ * [NOT] BETWEEN over application property identifiers, JMSDeliveryMode, JMSPriority, JMSMessageID, JMSTimestamp,
+ * JMSCorrelationID, JMSType, and string, numeric and boolean literals.  Arithmetic expressions are not supported.
+ *
+ * A compiled selector evaluates into reused scratch values, so it is not thread safe, compile one per thread.
+ */
+public final class MessageSelector {
+
+    public static final long SELECTOR_FILTER_CODE = 0x0000468c00000004L;
+    public static final String SELECTOR_FILTER_SYMBOL = "apache.org:selector-filter:string";
+
+    private static final SymbolTable SELECTOR_FILTER_SYMBOLS = new SymbolTable(1).register(SELECTOR_FILTER_SYMBOL, 0);
+
+    private static final int FALSE = 0;
+    private static final int TRUE = 1;
+    private static final int UNKNOWN = 2;
+
+    private static final int EQ = 0;
+    private static final int NE = 1;
+    private static final int LT = 2;
+    private static final int LE = 3;
+    private static final int GT = 4;
+    private static final int GE = 5;
+
+    private static final int DEFAULT_PRIORITY = 4;
+
+    private final Predicate predicate;
+
+    private MessageSelector(Predicate predicate) {
+        this.predicate = predicate;
+    }
+
+    public static MessageSelector compile(String selector) {
+        return new MessageSelector(new Parser(selector).parse());
+    }
+
+    public boolean matches(MessageSections sections) {
+        return predicate.test(sections) == TRUE;
+    }
+
+    /*
+     * Returns the selector from a filter set, matching the selector filter by descriptor code or symbol,
+     * or null when the filter set has no selector filter
+     */
+    public static <T> T getSelector(MapType filterSet, DirectBufferAccessor<T> accessor) {
+        DynamicType entry = new DynamicType();
+        ULongType code = new ULongType();
+        SymbolType symbol = new SymbolType();
+        StringType value = new StringType();
+
+        for (int index = filterSet.count() >> 1; index > 0; index--) {
+            int keyOffset = filterSet.offsetAt((filterSet.count() >> 1) - index);
+            int valueOffset = entry.wrap(filterSet.buffer(), keyOffset).limit();
+            if (uint8Get(filterSet.buffer(), valueOffset) != 0x00) {
+                continue;
+            }
+
+            int descriptorOffset = valueOffset + 1;
+            boolean selectorFilter;
+            switch (uint8Get(filterSet.buffer(), descriptorOffset)) {
+            case 0x53:
+            case 0x80:
+                selectorFilter = code.wrap(filterSet.buffer(), descriptorOffset).get() == SELECTOR_FILTER_CODE;
+                break;
+            case 0xa3:
+            case 0xb3:
+                selectorFilter = symbol.wrap(filterSet.buffer(), descriptorOffset).getId(SELECTOR_FILTER_SYMBOLS) == 0;
+                break;
+            default:
+                selectorFilter = false;
+                break;
+            }
+
+            if (selectorFilter) {
+                int stringOffset = entry.wrap(filterSet.buffer(), descriptorOffset).limit();
+                return value.wrap(filterSet.buffer(), stringOffset).get(accessor);
+            }
+        }
+
+        return null;
+    }
+
+    private static final class Value {
+
+        private static final int NULL = 0;
+        private static final int LONG = 1;
+        private static final int DOUBLE = 2;
+        private static final int BOOLEAN = 3;
+        private static final int STRING = 4;
+
+        private int type;
+        private long longValue;
+        private boolean unsignedValue;
+        private double doubleValue;
+        private boolean booleanValue;
+        private DirectBuffer bytes;
+        private int bytesOffset;
+        private int bytesLength;
+
+        void setNull() {
+            type = NULL;
+        }
+
+        void setLong(long value) {
+            type = LONG;
+            longValue = value;
+            unsignedValue = false;
+        }
+
+        /*
+         * Sets an unsigned 64-bit value, values above Long.MAX_VALUE are held as negative longValue
+         */
+        void setULong(long value) {
+            type = LONG;
+            longValue = value;
+            unsignedValue = true;
+        }
+
+        void setDouble(double value) {
+            type = DOUBLE;
+            doubleValue = value;
+        }
+
+        void setBoolean(boolean value) {
+            type = BOOLEAN;
+            booleanValue = value;
+        }
+
+        void setString(DirectBuffer buffer, int offset, int length) {
+            type = STRING;
+            bytes = buffer;
+            bytesOffset = offset;
+            bytesLength = length;
+        }
+
+        void set(Value value) {
+            type = value.type;
+            longValue = value.longValue;
+            unsignedValue = value.unsignedValue;
+            doubleValue = value.doubleValue;
+            booleanValue = value.booleanValue;
+            bytes = value.bytes;
+            bytesOffset = value.bytesOffset;
+            bytesLength = value.bytesLength;
+        }
+
+        boolean isNumeric() {
+            return type == LONG || type == DOUBLE;
+        }
+
+        boolean isAboveLongRange() {
+            return type == LONG && unsignedValue && longValue < 0L;
+        }
+
+        double asDouble() {
+            if (isAboveLongRange()) {
+                return (longValue >>> 1) * 2.0 + (longValue & 1L);
+            }
+            return (type == LONG) ? longValue : doubleValue;
+        }
+
+        int compareLong(Value value) {
+            boolean above = isAboveLongRange();
+            boolean valueAbove = value.isAboveLongRange();
+            if (above || valueAbove) {
+                return (above && valueAbove) ? Long.compareUnsigned(longValue, value.longValue) : (above ? 1 : -1);
+            }
+            return Long.compare(longValue, value.longValue);
+        }
+
+        boolean bytesEqual(Value value) {
+            if (bytesLength != value.bytesLength) {
+                return false;
+            }
+            for (int i = 0; i < bytesLength; i++) {
+                if (bytes.getByte(bytesOffset + i) != value.bytes.getByte(value.bytesOffset + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /*
+         * Decodes a primitive AMQP value, other kinds of value are treated as null
+         */
+        void decode(DirectBuffer buffer, int offset) {
+            switch (uint8Get(buffer, offset)) {
+            case 0x41:
+                setBoolean(true);
+                break;
+            case 0x42:
+                setBoolean(false);
+                break;
+            case 0x56:
+                setBoolean(uint8Get(buffer, offset + 1) != 0);
+                break;
+            case 0x43:
+            case 0x44:
+                setLong(0L);
+                break;
+            case 0x50:
+            case 0x52:
+            case 0x53:
+                setLong(uint8Get(buffer, offset + 1));
+                break;
+            case 0x51:
+            case 0x54:
+            case 0x55:
+                setLong(int8Get(buffer, offset + 1));
+                break;
+            case 0x60:
+                setLong(uint16Get(buffer, offset + 1));
+                break;
+            case 0x61:
+                setLong(int16Get(buffer, offset + 1));
+                break;
+            case 0x70:
+                setLong(uint32Get(buffer, offset + 1));
+                break;
+            case 0x71:
+                setLong(int32Get(buffer, offset + 1));
+                break;
+            case 0x80:
+                setULong(int64Get(buffer, offset + 1));
+                break;
+            case 0x81:
+                setLong(int64Get(buffer, offset + 1));
+                break;
+            case 0x72:
+                setDouble(floatGet(buffer, offset + 1));
+                break;
+            case 0x82:
+                setDouble(doubleGet(buffer, offset + 1));
+                break;
+            case 0xa1:
+            case 0xa3:
+                setString(buffer, offset + 2, uint8Get(buffer, offset + 1));
+                break;
+            case 0xb1:
+            case 0xb3:
+                setString(buffer, offset + 5, int32Get(buffer, offset + 1));
+                break;
+            default:
+                setNull();
+                break;
+            }
+        }
+    }
+
+    private abstract static class Operand {
+
+        abstract void evaluate(MessageSections sections, Value value);
+    }
+
+    private static final class Literal extends Operand {
+
+        private final Value literal;
+
+        Literal(Value literal) {
+            this.literal = literal;
+        }
+
+        @Override
+        void evaluate(MessageSections sections, Value value) {
+            value.set(literal);
+        }
+    }
+
+    private static final class ApplicationProperty extends Operand {
+
+        private final byte[] name;
+
+        ApplicationProperty(byte[] name) {
+            this.name = name;
+        }
+
+        @Override
+        void evaluate(MessageSections sections, Value value) {
+            ApplicationProperties applicationProperties = sections.applicationProperties();
+            int valueOffset = (applicationProperties != null) ? applicationProperties.valueOffset(name) : -1;
+            if (valueOffset != -1) {
+                value.decode(applicationProperties.buffer(), valueOffset);
+            }
+            else {
+                value.setNull();
+            }
+        }
+    }
+
+    private static final class DeliveryMode extends Operand {
+
+        private static final DirectBuffer PERSISTENT = new UnsafeBuffer("PERSISTENT".getBytes(UTF_8));
+        private static final DirectBuffer NON_PERSISTENT = new UnsafeBuffer("NON_PERSISTENT".getBytes(UTF_8));
+
+        @Override
+        void evaluate(MessageSections sections, Value value) {
+            MessageHeader header = sections.header();
+            if (header != null && header.getDurable()) {
+                value.setString(PERSISTENT, 0, PERSISTENT.capacity());
+            }
+            else {
+                value.setString(NON_PERSISTENT, 0, NON_PERSISTENT.capacity());
+            }
+        }
+    }
+
+    private static final class Priority extends Operand {
+
+        @Override
+        void evaluate(MessageSections sections, Value value) {
+            MessageHeader header = sections.header();
+            value.setLong((header != null) ? header.getPriority() : DEFAULT_PRIORITY);
+        }
+    }
+
+    private static final class Timestamp extends Operand {
+
+        @Override
+        void evaluate(MessageSections sections, Value value) {
+            Properties properties = sections.properties();
+            value.setLong((properties != null) ? properties.getCreationTime() : 0L);
+        }
+    }
+
+    private static final class MessageId extends Operand {
+
+        @Override
+        void evaluate(MessageSections sections, Value value) {
+            Properties properties = sections.properties();
+            DynamicType messageId = (properties != null) ? properties.getMessageId() : null;
+            if (messageId != null) {
+                value.decode(messageId.buffer(), messageId.offset());
+            }
+            else {
+                value.setNull();
+            }
+        }
+    }
+
+    private static final class CorrelationId extends Operand {
+
+        @Override
+        void evaluate(MessageSections sections, Value value) {
+            Properties properties = sections.properties();
+            DynamicType correlationId = (properties != null) ? properties.getCorrelationId() : null;
+            if (correlationId != null) {
+                value.decode(correlationId.buffer(), correlationId.offset());
+            }
+            else {
+                value.setNull();
+            }
+        }
+    }
+
+    private static final class Subject extends Operand {
+
+        @Override
+        void evaluate(MessageSections sections, Value value) {
+            Properties properties = sections.properties();
+            StringType subject = (properties != null) ? properties.getSubject() : null;
+            if (subject != null) {
+                value.decode(subject.buffer(), subject.offset());
+            }
+            else {
+                value.setNull();
+            }
+        }
+    }
+
+    private abstract static class Predicate {
+
+        abstract int test(MessageSections sections);
+    }
+
+    private static final class Or extends Predicate {
+
+        private final Predicate left;
+        private final Predicate right;
+
+        Or(Predicate left, Predicate right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int test(MessageSections sections) {
+            int leftResult = left.test(sections);
+            if (leftResult == TRUE) {
+                return TRUE;
+            }
+            int rightResult = right.test(sections);
+            if (rightResult == TRUE) {
+                return TRUE;
+            }
+            return (leftResult == UNKNOWN || rightResult == UNKNOWN) ? UNKNOWN : FALSE;
+        }
+    }
+
+    private static final class And extends Predicate {
+
+        private final Predicate left;
+        private final Predicate right;
+
+        And(Predicate left, Predicate right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int test(MessageSections sections) {
+            int leftResult = left.test(sections);
+            if (leftResult == FALSE) {
+                return FALSE;
+            }
+            int rightResult = right.test(sections);
+            if (rightResult == FALSE) {
+                return FALSE;
+            }
+            return (leftResult == UNKNOWN || rightResult == UNKNOWN) ? UNKNOWN : TRUE;
+        }
+    }
+
+    private static final class Not extends Predicate {
+
+        private final Predicate predicate;
+
+        Not(Predicate predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        int test(MessageSections sections) {
+            return not(predicate.test(sections));
+        }
+    }
+
+    private static final class Comparison extends Predicate {
+
+        private final int operator;
+        private final Operand left;
+        private final Operand right;
+        private final Value leftValue;
+        private final Value rightValue;
+
+        Comparison(int operator, Operand left, Operand right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+            this.leftValue = new Value();
+            this.rightValue = new Value();
+        }
+
+        @Override
+        int test(MessageSections sections) {
+            left.evaluate(sections, leftValue);
+            right.evaluate(sections, rightValue);
+            return compare(operator, leftValue, rightValue);
+        }
+    }
+
+    private static final class Between extends Predicate {
+
+        private final Operand operand;
+        private final Operand lower;
+        private final Operand upper;
+        private final boolean negated;
+        private final Value value;
+        private final Value lowerValue;
+        private final Value upperValue;
+
+        Between(Operand operand, Operand lower, Operand upper, boolean negated) {
+            this.operand = operand;
+            this.lower = lower;
+            this.upper = upper;
+            this.negated = negated;
+            this.value = new Value();
+            this.lowerValue = new Value();
+            this.upperValue = new Value();
+        }
+
+        @Override
+        int test(MessageSections sections) {
+            operand.evaluate(sections, value);
+            lower.evaluate(sections, lowerValue);
+            upper.evaluate(sections, upperValue);
+
+            int lowerResult = compare(GE, value, lowerValue);
+            int upperResult = compare(LE, value, upperValue);
+            int result;
+            if (lowerResult == FALSE || upperResult == FALSE) {
+                result = FALSE;
+            }
+            else if (lowerResult == UNKNOWN || upperResult == UNKNOWN) {
+                result = UNKNOWN;
+            }
+            else {
+                result = TRUE;
+            }
+            return negated ? not(result) : result;
+        }
+    }
+
+    private static final class IsNull extends Predicate {
+
+        private final Operand operand;
+        private final boolean negated;
+        private final Value value;
+
+        IsNull(Operand operand, boolean negated) {
+            this.operand = operand;
+            this.negated = negated;
+            this.value = new Value();
+        }
+
+        @Override
+        int test(MessageSections sections) {
+            operand.evaluate(sections, value);
+            return ((value.type == Value.NULL) != negated) ? TRUE : FALSE;
+        }
+    }
+
+    private static final class In extends Predicate {
+
+        private final Operand operand;
+        private final Value[] values;
+        private final boolean negated;
+        private final Value value;
+
+        In(Operand operand, Value[] values, boolean negated) {
+            this.operand = operand;
+            this.values = values;
+            this.negated = negated;
+            this.value = new Value();
+        }
+
+        @Override
+        int test(MessageSections sections) {
+            operand.evaluate(sections, value);
+            if (value.type != Value.STRING) {
+                return UNKNOWN;
+            }
+            boolean found = false;
+            for (int i = 0; i < values.length && !found; i++) {
+                found = value.bytesEqual(values[i]);
+            }
+            return (found != negated) ? TRUE : FALSE;
+        }
+    }
+
+    private static final class Like extends Predicate {
+
+        private static final int ANY_ONE = -1;
+        private static final int ANY_MANY = -2;
+
+        private final Operand operand;
+        private final int[] pattern;
+        private final boolean negated;
+        private final Value value;
+
+        Like(Operand operand, int[] pattern, boolean negated) {
+            this.operand = operand;
+            this.pattern = pattern;
+            this.negated = negated;
+            this.value = new Value();
+        }
+
+        @Override
+        int test(MessageSections sections) {
+            operand.evaluate(sections, value);
+            if (value.type != Value.STRING) {
+                return UNKNOWN;
+            }
+            return (matches(value.bytes, value.bytesOffset, value.bytesLength) != negated) ? TRUE : FALSE;
+        }
+
+        /*
+         * Wildcard match over UTF-8 bytes, backtracking to the most recent '%' on mismatch
+         */
+        private boolean matches(DirectBuffer buffer, int offset, int length) {
+            int index = 0;
+            int patternIndex = 0;
+            int anyManyIndex = -1;
+            int anyManyMatched = 0;
+
+            while (index < length) {
+                int patternByte = (patternIndex < pattern.length) ? pattern[patternIndex] : Integer.MIN_VALUE;
+                if (patternByte == ANY_ONE) {
+                    index = nextChar(buffer, offset, length, index);
+                    patternIndex++;
+                }
+                else if (patternByte >= 0 && patternByte == uint8Get(buffer, offset + index)) {
+                    index++;
+                    patternIndex++;
+                }
+                else if (patternByte == ANY_MANY) {
+                    anyManyIndex = patternIndex++;
+                    anyManyMatched = index;
+                }
+                else if (anyManyIndex != -1) {
+                    patternIndex = anyManyIndex + 1;
+                    anyManyMatched = nextChar(buffer, offset, length, anyManyMatched);
+                    index = anyManyMatched;
+                }
+                else {
+                    return false;
+                }
+            }
+
+            while (patternIndex < pattern.length && pattern[patternIndex] == ANY_MANY) {
+                patternIndex++;
+            }
+
+            return patternIndex == pattern.length;
+        }
+
+        private static int nextChar(DirectBuffer buffer, int offset, int length, int index) {
+            index++;
+            while (index < length && (uint8Get(buffer, offset + index) & 0xc0) == 0x80) {
+                index++;
+            }
+            return index;
+        }
+    }
+
+    private static final class BooleanTest extends Predicate {
+
+        private final Operand operand;
+        private final Value value;
+
+        BooleanTest(Operand operand) {
+            this.operand = operand;
+            this.value = new Value();
+        }
+
+        @Override
+        int test(MessageSections sections) {
+            operand.evaluate(sections, value);
+            if (value.type != Value.BOOLEAN) {
+                return UNKNOWN;
+            }
+            return value.booleanValue ? TRUE : FALSE;
+        }
+    }
+
+    private static int not(int result) {
+        switch (result) {
+        case TRUE:
+            return FALSE;
+        case FALSE:
+            return TRUE;
+        default:
+            return UNKNOWN;
+        }
+    }
+
+    private static int compare(int operator, Value left, Value right) {
+        if (left.type == Value.NULL || right.type == Value.NULL) {
+            return UNKNOWN;
+        }
+
+        if (left.isNumeric() && right.isNumeric()) {
+            int comparison = (left.type == Value.LONG && right.type == Value.LONG)
+                    ? left.compareLong(right)
+                    : Double.compare(left.asDouble(), right.asDouble());
+            boolean result;
+            switch (operator) {
+            case EQ:
+                result = comparison == 0;
+                break;
+            case NE:
+                result = comparison != 0;
+                break;
+            case LT:
+                result = comparison < 0;
+                break;
+            case LE:
+                result = comparison <= 0;
+                break;
+            case GT:
+                result = comparison > 0;
+                break;
+            case GE:
+                result = comparison >= 0;
+                break;
+            default:
+                throw new IllegalStateException();
+            }
+            return result ? TRUE : FALSE;
+        }
+
+        if (left.type == right.type && (operator == EQ || operator == NE)) {
+            boolean equal = (left.type == Value.STRING) ? left.bytesEqual(right) : left.booleanValue == right.booleanValue;
+            return (equal == (operator == EQ)) ? TRUE : FALSE;
+        }
+
+        return UNKNOWN;
+    }
+
+    private static final class Parser {
+
+        private final String selector;
+        private int position;
+
+        Parser(String selector) {
+            this.selector = selector;
+        }
+
+        Predicate parse() {
+            Predicate predicate = parseOr();
+            skipWhitespace();
+            if (position != selector.length()) {
+                throw unexpected();
+            }
+            return predicate;
+        }
+
+        private Predicate parseOr() {
+            Predicate predicate = parseAnd();
+            while (acceptKeyword("OR")) {
+                predicate = new Or(predicate, parseAnd());
+            }
+            return predicate;
+        }
+
+        private Predicate parseAnd() {
+            Predicate predicate = parseNot();
+            while (acceptKeyword("AND")) {
+                predicate = new And(predicate, parseNot());
+            }
+            return predicate;
+        }
+
+        private Predicate parseNot() {
+            if (acceptKeyword("NOT")) {
+                return new Not(parseNot());
+            }
+            return parsePredicate();
+        }
+
+        private Predicate parsePredicate() {
+            if (accept("(")) {
+                Predicate predicate = parseOr();
+                expect(")");
+                return predicate;
+            }
+
+            Operand operand = parseOperand();
+
+            if (acceptKeyword("IS")) {
+                boolean negated = acceptKeyword("NOT");
+                expectKeyword("NULL");
+                return new IsNull(operand, negated);
+            }
+
+            boolean negated = acceptKeyword("NOT");
+            if (acceptKeyword("IN")) {
+                return new In(operand, parseStringList(), negated);
+            }
+            if (acceptKeyword("LIKE")) {
+                String pattern = parseString();
+                int escape = -1;
+                if (acceptKeyword("ESCAPE")) {
+                    String escapeString = parseString();
+                    if (escapeString.length() != 1) {
+                        throw unexpected();
+                    }
+                    if (escapeString.charAt(0) > 0x7f) {
+                        throw new IllegalArgumentException("Unsupported escape character: " + escapeString);
+                    }
+                    escape = escapeString.charAt(0);
+                }
+                return new Like(operand, compilePattern(pattern, escape), negated);
+            }
+            if (acceptKeyword("BETWEEN")) {
+                Operand lower = parseOperand();
+                expectKeyword("AND");
+                Operand upper = parseOperand();
+                return new Between(operand, lower, upper, negated);
+            }
+            if (negated) {
+                throw unexpected();
+            }
+
+            int operator = acceptOperator();
+            if (operator != -1) {
+                return new Comparison(operator, operand, parseOperand());
+            }
+
+            return new BooleanTest(operand);
+        }
+
+        private Operand parseOperand() {
+            skipWhitespace();
+            if (position == selector.length()) {
+                throw unexpected();
+            }
+
+            char ch = selector.charAt(position);
+            if (ch == '\'') {
+                Value value = new Value();
+                byte[] bytes = parseString().getBytes(UTF_8);
+                value.setString(new UnsafeBuffer(bytes), 0, bytes.length);
+                return new Literal(value);
+            }
+            if (Character.isDigit(ch) || ch == '.' || ch == '-' || ch == '+') {
+                return new Literal(parseNumber());
+            }
+            if (Character.isJavaIdentifierStart(ch)) {
+                String identifier = parseIdentifier();
+                switch (identifier.toUpperCase(Locale.ROOT)) {
+                case "TRUE":
+                    return newBooleanLiteral(true);
+                case "FALSE":
+                    return newBooleanLiteral(false);
+                case "JMSDELIVERYMODE":
+                    return new DeliveryMode();
+                case "JMSPRIORITY":
+                    return new Priority();
+                case "JMSMESSAGEID":
+                    return new MessageId();
+                case "JMSTIMESTAMP":
+                    return new Timestamp();
+                case "JMSCORRELATIONID":
+                    return new CorrelationId();
+                case "JMSTYPE":
+                    return new Subject();
+                default:
+                    if (identifier.startsWith("JMS") || isKeyword(identifier)) {
+                        throw new IllegalArgumentException("Unsupported identifier: " + identifier);
+                    }
+                    return new ApplicationProperty(identifier.getBytes(UTF_8));
+                }
+            }
+
+            throw unexpected();
+        }
+
+        private Value[] parseStringList() {
+            List<Value> values = new ArrayList<>();
+            expect("(");
+            do {
+                Value value = new Value();
+                byte[] bytes = parseString().getBytes(UTF_8);
+                value.setString(new UnsafeBuffer(bytes), 0, bytes.length);
+                values.add(value);
+            } while (accept(","));
+            expect(")");
+            return values.toArray(new Value[values.size()]);
+        }
+
+        private String parseString() {
+            skipWhitespace();
+            if (position == selector.length() || selector.charAt(position) != '\'') {
+                throw unexpected();
+            }
+
+            StringBuilder string = new StringBuilder();
+            position++;
+            while (true) {
+                if (position == selector.length()) {
+                    throw unexpected();
+                }
+                char ch = selector.charAt(position++);
+                if (ch == '\'') {
+                    if (position < selector.length() && selector.charAt(position) == '\'') {
+                        string.append('\'');
+                        position++;
+                    }
+                    else {
+                        return string.toString();
+                    }
+                }
+                else {
+                    string.append(ch);
+                }
+            }
+        }
+
+        private Value parseNumber() {
+            int start = position;
+            if (selector.charAt(position) == '-' || selector.charAt(position) == '+') {
+                position++;
+            }
+            boolean decimal = false;
+            while (position < selector.length()) {
+                char ch = selector.charAt(position);
+                if (Character.isDigit(ch)) {
+                    position++;
+                }
+                else if (ch == '.' || ch == 'e' || ch == 'E') {
+                    decimal = true;
+                    position++;
+                    if (ch != '.' && position < selector.length() &&
+                            (selector.charAt(position) == '-' || selector.charAt(position) == '+')) {
+                        position++;
+                    }
+                }
+                else {
+                    break;
+                }
+            }
+
+            String number = selector.substring(start, position);
+            if (position < selector.length() && !decimal &&
+                    (selector.charAt(position) == 'l' || selector.charAt(position) == 'L')) {
+                position++;
+            }
+
+            Value value = new Value();
+            try {
+                if (decimal) {
+                    value.setDouble(Double.parseDouble(number));
+                }
+                else {
+                    value.setLong(Long.parseLong(number));
+                }
+            }
+            catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number: " + number, e);
+            }
+            return value;
+        }
+
+        private String parseIdentifier() {
+            int start = position;
+            position++;
+            while (position < selector.length() && Character.isJavaIdentifierPart(selector.charAt(position))) {
+                position++;
+            }
+            return selector.substring(start, position);
+        }
+
+        private int acceptOperator() {
+            if (accept("<>")) {
+                return NE;
+            }
+            if (accept("<=")) {
+                return LE;
+            }
+            if (accept(">=")) {
+                return GE;
+            }
+            if (accept("=")) {
+                return EQ;
+            }
+            if (accept("<")) {
+                return LT;
+            }
+            if (accept(">")) {
+                return GT;
+            }
+            return -1;
+        }
+
+        private boolean accept(String token) {
+            skipWhitespace();
+            if (selector.startsWith(token, position)) {
+                position += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw unexpected();
+            }
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            skipWhitespace();
+            int limit = position + keyword.length();
+            if (selector.regionMatches(true, position, keyword, 0, keyword.length()) &&
+                    (limit == selector.length() || !Character.isJavaIdentifierPart(selector.charAt(limit)))) {
+                position = limit;
+                return true;
+            }
+            return false;
+        }
+
+        private void expectKeyword(String keyword) {
+            if (!acceptKeyword(keyword)) {
+                throw unexpected();
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < selector.length() && Character.isWhitespace(selector.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException unexpected() {
+            return new IllegalArgumentException("Unexpected input at position " + position + ": " + selector);
+        }
+
+        private static boolean isKeyword(String identifier) {
+            switch (identifier.toUpperCase(Locale.ROOT)) {
+            case "AND":
+            case "OR":
+            case "NOT":
+            case "IS":
+            case "NULL":
+            case "IN":
+            case "LIKE":
+            case "BETWEEN":
+            case "ESCAPE":
+                return true;
+            default:
+                return false;
+            }
+        }
+
+        private static Literal newBooleanLiteral(boolean value) {
+            Value literal = new Value();
+            literal.setBoolean(value);
+            return new Literal(literal);
+        }
+
+        private static int[] compilePattern(String pattern, int escape) {
+            byte[] bytes = pattern.getBytes(UTF_8);
+            int[] compiled = new int[bytes.length];
+            int length = 0;
+            for (int i = 0; i < bytes.length; i++) {
+                int patternByte = bytes[i] & 0xff;
+                if (patternByte == escape && i + 1 < bytes.length) {
+                    compiled[length++] = bytes[++i] & 0xff;
+                }
+                else if (patternByte == '%') {
+                    compiled[length++] = Like.ANY_MANY;
+                }
+                else if (patternByte == '_') {
+                    compiled[length++] = Like.ANY_ONE;
+                }
+                else {
+                    compiled[length++] = patternByte;
+                }
+            }
+            int[] trimmed = new int[length];
+            System.arraycopy(compiled, 0, trimmed, 0, length);
+            return trimmed;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.util.function.ToLongFunction;
 
 import org.kaazing.nuklei.Flyweight;
 import org.kaazing.nuklei.amqp_1_0.codec.types.CompositeType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.SymbolTable;
 
 import uk.co.real_logic.agrona.MutableDirectBuffer;
 
@@ -31,6 +32,38 @@ public enum Performative {
 
     OPEN, BEGIN, ATTACH, FLOW, TRANSFER, DISPOSITION, DETACH, END, CLOSE;
 
+    private static final Performative[] VALUES = values();
+    private static final int MIN_CODE = 0x10;
+
+    /*
+     * Symbolic descriptors, registered by ordinal
+     */
+    public static final SymbolTable SYMBOLS = new SymbolTable(VALUES.length)
+            .register("amqp:open:list", OPEN.ordinal())
+            .register("amqp:begin:list", BEGIN.ordinal())
+            .register("amqp:attach:list", ATTACH.ordinal())
+            .register("amqp:flow:list", FLOW.ordinal())
+            .register("amqp:transfer:list", TRANSFER.ordinal())
+            .register("amqp:disposition:list", DISPOSITION.ordinal())
+            .register("amqp:detach:list", DETACH.ordinal())
+            .register("amqp:end:list", END.ordinal())
+            .register("amqp:close:list", CLOSE.ordinal());
+
+    /*
+     * Returns the performative for a numeric descriptor code, or null if not a performative
+     */
+    public static Performative fromCode(long code) {
+        long index = code - MIN_CODE;
+        return (index >= 0 && index < VALUES.length) ? VALUES[(int) index] : null;
+    }
+
+    /*
+     * Returns the performative for a symbol id from SYMBOLS, or null if not found
+     */
+    public static Performative fromSymbolId(int symbolId) {
+        return (symbolId >= 0 && symbolId < VALUES.length) ? VALUES[symbolId] : null;
+    }
+
     public static final LongFunction<Performative> READ = new LongFunction<Performative>() {
 
         @Override
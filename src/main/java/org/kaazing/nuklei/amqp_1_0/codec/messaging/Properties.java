@@ -0,0 +1,184 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.messaging;
+
+import java.util.function.Consumer;
+
+import org.kaazing.nuklei.Flyweight;
+import org.kaazing.nuklei.amqp_1_0.codec.types.BinaryType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.CompositeType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.DynamicType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.StringType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.SymbolType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.TimestampType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.UIntType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.UuidType;
+import org.kaazing.nuklei.function.DirectBufferAccessor;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+
+/*
+ * See AMQP 1.0 specification, section 3.2.4 "Properties"
+ *
+ * Decoded in place, absent or null fields read as null, or zero for numeric fields.
+ */
+public final class Properties extends CompositeType {
+
+    private static final int INDEX_MESSAGE_ID = 0;
+    private static final int INDEX_USER_ID = 1;
+    private static final int INDEX_TO = 2;
+    private static final int INDEX_SUBJECT = 3;
+    private static final int INDEX_REPLY_TO = 4;
+    private static final int INDEX_CORRELATION_ID = 5;
+    private static final int INDEX_CONTENT_TYPE = 6;
+    private static final int INDEX_CONTENT_ENCODING = 7;
+    private static final int INDEX_ABSOLUTE_EXPIRY_TIME = 8;
+    private static final int INDEX_CREATION_TIME = 9;
+    private static final int INDEX_GROUP_ID = 10;
+    private static final int INDEX_GROUP_SEQUENCE = 11;
+    private static final int INDEX_REPLY_TO_GROUP_ID = 12;
+
+    private static final int UUID_FORMAT_CODE = 0x98;
+
+    private final DynamicType messageId;
+    private final BinaryType userId;
+    private final StringType to;
+    private final StringType subject;
+    private final StringType replyTo;
+    private final DynamicType correlationId;
+    private final SymbolType contentType;
+    private final SymbolType contentEncoding;
+    private final TimestampType absoluteExpiryTime;
+    private final TimestampType creationTime;
+    private final StringType groupId;
+    private final UIntType groupSequence;
+    private final StringType replyToGroupId;
+    private final UuidType messageIdUuid;
+    private final UuidType correlationIdUuid;
+
+    public Properties() {
+        messageId = new DynamicType();
+        userId = new BinaryType();
+        to = new StringType();
+        subject = new StringType();
+        replyTo = new StringType();
+        correlationId = new DynamicType();
+        contentType = new SymbolType();
+        contentEncoding = new SymbolType();
+        absoluteExpiryTime = new TimestampType();
+        creationTime = new TimestampType();
+        groupId = new StringType();
+        groupSequence = new UIntType();
+        replyToGroupId = new StringType();
+        messageIdUuid = new UuidType();
+        correlationIdUuid = new UuidType();
+    }
+
+    @Override
+    public Properties watch(Consumer<Flyweight> observer) {
+        super.watch(observer);
+        return this;
+    }
+
+    @Override
+    public Properties wrap(MutableDirectBuffer buffer, int offset) {
+        super.wrap(buffer, offset);
+        return this;
+    }
+
+    /*
+     * Message id may be ulong, uuid, binary or string, inspect kind() before decoding
+     */
+    public DynamicType getMessageId() {
+        return isPresent(INDEX_MESSAGE_ID) ? messageId.wrap(buffer(), offsetAt(INDEX_MESSAGE_ID)) : null;
+    }
+
+    /*
+     * Returns the message id when encoded as a uuid, or null otherwise
+     */
+    public UuidType getMessageIdUuid() {
+        return uuid(messageIdUuid, INDEX_MESSAGE_ID);
+    }
+
+    public <T> T getUserId(DirectBufferAccessor<T> accessor) {
+        return isPresent(INDEX_USER_ID) ? userId.wrap(buffer(), offsetAt(INDEX_USER_ID)).get(accessor) : null;
+    }
+
+    public StringType getTo() {
+        return string(to, INDEX_TO);
+    }
+
+    public StringType getSubject() {
+        return string(subject, INDEX_SUBJECT);
+    }
+
+    public StringType getReplyTo() {
+        return string(replyTo, INDEX_REPLY_TO);
+    }
+
+    public DynamicType getCorrelationId() {
+        return isPresent(INDEX_CORRELATION_ID) ? correlationId.wrap(buffer(), offsetAt(INDEX_CORRELATION_ID)) : null;
+    }
+
+    public UuidType getCorrelationIdUuid() {
+        return uuid(correlationIdUuid, INDEX_CORRELATION_ID);
+    }
+
+    public SymbolType getContentType() {
+        return symbol(contentType, INDEX_CONTENT_TYPE);
+    }
+
+    public SymbolType getContentEncoding() {
+        return symbol(contentEncoding, INDEX_CONTENT_ENCODING);
+    }
+
+    public long getAbsoluteExpiryTime() {
+        return timestamp(absoluteExpiryTime, INDEX_ABSOLUTE_EXPIRY_TIME);
+    }
+
+    public long getCreationTime() {
+        return timestamp(creationTime, INDEX_CREATION_TIME);
+    }
+
+    public StringType getGroupId() {
+        return string(groupId, INDEX_GROUP_ID);
+    }
+
+    public long getGroupSequence() {
+        return isPresent(INDEX_GROUP_SEQUENCE) ? groupSequence.wrap(buffer(), offsetAt(INDEX_GROUP_SEQUENCE)).get() : 0L;
+    }
+
+    public StringType getReplyToGroupId() {
+        return string(replyToGroupId, INDEX_REPLY_TO_GROUP_ID);
+    }
+
+    private StringType string(StringType field, int index) {
+        return isPresent(index) ? field.wrap(buffer(), offsetAt(index)) : null;
+    }
+
+    private SymbolType symbol(SymbolType field, int index) {
+        return isPresent(index) ? field.wrap(buffer(), offsetAt(index)) : null;
+    }
+
+    private UuidType uuid(UuidType field, int index) {
+        return (isPresent(index) && uint8Get(buffer(), offsetAt(index)) == UUID_FORMAT_CODE)
+                ? field.wrap(buffer(), offsetAt(index)) : null;
+    }
+
+    private long timestamp(TimestampType field, int index) {
+        return isPresent(index) ? field.wrap(buffer(), offsetAt(index)).get() : 0L;
+    }
+}
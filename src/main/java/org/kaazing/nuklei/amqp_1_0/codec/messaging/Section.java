@@ -0,0 +1,238 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.messaging;
+
+import static org.kaazing.nuklei.Flyweight.uint8Get;
+
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+import org.kaazing.nuklei.Flyweight;
+import org.kaazing.nuklei.amqp_1_0.codec.types.BinaryType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.DynamicType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.ListType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.SymbolTable;
+import org.kaazing.nuklei.amqp_1_0.codec.types.SymbolType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.Type;
+import org.kaazing.nuklei.amqp_1_0.codec.types.ULongType;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+
+/*
+ * See AMQP 1.0 specification, section 3.2 "Message Format"
+ */
+public enum Section {
+
+    HEADER, DELIVERY_ANNOTATIONS, MESSAGE_ANNOTATIONS, PROPERTIES, APPLICATION_PROPERTIES,
+    DATA, AMQP_SEQUENCE, AMQP_VALUE, FOOTER;
+
+    private static final Section[] VALUES = values();
+
+    /*
+     * Symbolic descriptors, registered by ordinal
+     */
+    public static final SymbolTable SYMBOLS = new SymbolTable(VALUES.length)
+            .register("amqp:header:list", HEADER.ordinal())
+            .register("amqp:delivery-annotations:map", DELIVERY_ANNOTATIONS.ordinal())
+            .register("amqp:message-annotations:map", MESSAGE_ANNOTATIONS.ordinal())
+            .register("amqp:properties:list", PROPERTIES.ordinal())
+            .register("amqp:application-properties:map", APPLICATION_PROPERTIES.ordinal())
+            .register("amqp:data:binary", DATA.ordinal())
+            .register("amqp:amqp-sequence:list", AMQP_SEQUENCE.ordinal())
+            .register("amqp:amqp-value:*", AMQP_VALUE.ordinal())
+            .register("amqp:footer:map", FOOTER.ordinal());
+
+    /*
+     * Returns the section for a symbol id from SYMBOLS, or null if not found
+     */
+    public static Section fromSymbolId(int symbolId) {
+        return (symbolId >= 0 && symbolId < VALUES.length) ? VALUES[symbolId] : null;
+    }
+
+    public static final LongFunction<Section> READ = new LongFunction<Section>() {
+
+        @Override
+        public Section apply(long value) {
+            switch ((int) value) {
+            case 0x70:
+                return HEADER;
+            case 0x71:
+                return DELIVERY_ANNOTATIONS;
+            case 0x72:
+                return MESSAGE_ANNOTATIONS;
+            case 0x73:
+                return PROPERTIES;
+            case 0x74:
+                return APPLICATION_PROPERTIES;
+            case 0x75:
+                return DATA;
+            case 0x76:
+                return AMQP_SEQUENCE;
+            case 0x77:
+                return AMQP_VALUE;
+            case 0x78:
+                return FOOTER;
+            default:
+                return null;
+            }
+        }
+    };
+
+    public static final ToLongFunction<Section> WRITE = new ToLongFunction<Section>() {
+
+        @Override
+        public long applyAsLong(Section value) {
+            switch (value) {
+            case HEADER:
+                return 0x70;
+            case DELIVERY_ANNOTATIONS:
+                return 0x71;
+            case MESSAGE_ANNOTATIONS:
+                return 0x72;
+            case PROPERTIES:
+                return 0x73;
+            case APPLICATION_PROPERTIES:
+                return 0x74;
+            case DATA:
+                return 0x75;
+            case AMQP_SEQUENCE:
+                return 0x76;
+            case AMQP_VALUE:
+                return 0x77;
+            case FOOTER:
+                return 0x78;
+            default:
+                throw new IllegalStateException();
+            }
+        }
+
+    };
+
+    /*
+     * A described message section, wrapped in place over the encoded message.
+     */
+    public static final class Described extends Type {
+
+        private static final short WIDTH_KIND_1_SYMBOL = 0xa3;
+        private static final short WIDTH_KIND_4_SYMBOL = 0xb3;
+
+        private final ULongType.Descriptor descriptor;
+        private final SymbolType.Descriptor symbolicDescriptor;
+        private final DynamicType value;
+        private final MessageHeader header;
+        private final Annotations annotations;
+        private final Properties properties;
+        private final ApplicationProperties applicationProperties;
+        private final BinaryType data;
+        private final ListType amqpSequence;
+
+        public Described() {
+            descriptor = new ULongType.Descriptor();
+            symbolicDescriptor = new SymbolType.Descriptor();
+            value = new DynamicType();
+            header = new MessageHeader();
+            annotations = new Annotations();
+            properties = new Properties();
+            applicationProperties = new ApplicationProperties();
+            data = new BinaryType();
+            amqpSequence = new ListType();
+        }
+
+        @Override
+        public Kind kind() {
+            return Kind.DESCRIBED;
+        }
+
+        @Override
+        public Described watch(Consumer<Flyweight> notifier) {
+            super.watch(notifier);
+            return this;
+        }
+
+        @Override
+        public Described wrap(MutableDirectBuffer buffer, int offset) {
+            super.wrap(buffer, offset);
+            return this;
+        }
+
+        public Described setSection(Section value) {
+            descriptor().set(WRITE, value);
+            return this;
+        }
+
+        /*
+         * Resolves numeric and symbolic descriptors alike, returning null for descriptors of other sections
+         */
+        public Section getSection() {
+            switch (uint8Get(buffer(), offset() + 1)) {
+            case WIDTH_KIND_1_SYMBOL:
+            case WIDTH_KIND_4_SYMBOL:
+                return fromSymbolId(symbolicDescriptor.wrap(buffer(), offset()).getId(SYMBOLS));
+            default:
+                return descriptor().get(READ);
+            }
+        }
+
+        public int valueOffset() {
+            return descriptor().limit();
+        }
+
+        /*
+         * Delivery annotations, message annotations and footer sections
+         */
+        public Annotations getAnnotations() {
+            return annotations.wrap(buffer(), valueOffset());
+        }
+
+        public MessageHeader getHeader() {
+            return header.wrap(buffer(), valueOffset());
+        }
+
+        public Properties getProperties() {
+            return properties.wrap(buffer(), valueOffset());
+        }
+
+        public ApplicationProperties getApplicationProperties() {
+            return applicationProperties.wrap(buffer(), valueOffset());
+        }
+
+        public BinaryType getData() {
+            return data.wrap(buffer(), valueOffset());
+        }
+
+        public ListType getAmqpSequence() {
+            return amqpSequence.wrap(buffer(), valueOffset());
+        }
+
+        public DynamicType getAmqpValue() {
+            return value();
+        }
+
+        @Override
+        public int limit() {
+            return value().limit();
+        }
+
+        private ULongType.Descriptor descriptor() {
+            return descriptor.wrap(buffer(), offset());
+        }
+
+        private DynamicType value() {
+            return value.wrap(buffer(), descriptor().limit());
+        }
+    }
+}
@@ -20,7 +20,7 @@ import java.util.function.Consumer;
 import org.kaazing.nuklei.Flyweight;
 import org.kaazing.nuklei.amqp_1_0.codec.types.ArrayType;
 import org.kaazing.nuklei.amqp_1_0.codec.types.BooleanType;
-import org.kaazing.nuklei.amqp_1_0.codec.types.ListType;
+import org.kaazing.nuklei.amqp_1_0.codec.types.CompositeType;
 import org.kaazing.nuklei.amqp_1_0.codec.types.StringType;
 import org.kaazing.nuklei.amqp_1_0.codec.types.SymbolType;
 import org.kaazing.nuklei.amqp_1_0.codec.types.UIntType;
@@ -32,7 +32,19 @@ import uk.co.real_logic.agrona.MutableDirectBuffer;
 /*
  * See AMQP 1.0 specification, section 3.5.3 "Source"
  */
-public final class Source extends ListType {
+public final class Source extends CompositeType {
+
+    private static final int INDEX_ADDRESS = 0;
+    private static final int INDEX_DURABLE = 1;
+    private static final int INDEX_EXPIRY_POLICY = 2;
+    private static final int INDEX_TIMEOUT = 3;
+    private static final int INDEX_DYNAMIC = 4;
+    private static final int INDEX_DYNAMIC_NODE_PROPERTIES = 5;
+    private static final int INDEX_DISTRIBUTION_MODE = 6;
+    private static final int INDEX_FILTER = 7;
+    private static final int INDEX_DEFAULT_OUTCOME = 8;
+    private static final int INDEX_OUTCOMES = 9;
+    private static final int INDEX_CAPABILITIES = 10;
 
     private final StringType address;
     private final UIntType durable;
@@ -47,17 +59,17 @@ public final class Source extends ListType {
     private final ArrayType capabilities;
 
     public Source() {
-        address = new StringType().watch((owner) -> { limit(1, owner.limit()); });
-        durable = new UIntType().watch((owner) -> { limit(2, owner.limit()); });
-        expiryPolicy = new SymbolType().watch((owner) -> { limit(3, owner.limit()); });
-        timeout = new UIntType().watch((owner) -> { limit(4, owner.limit()); });
-        dynamic = new BooleanType().watch((owner) -> { limit(5, owner.limit()); });
-        dynamicNodeProperties = new NodeProperties().watch((owner) -> { limit(6, owner.limit()); });
-        distributionMode = new SymbolType().watch((owner) -> { limit(7, owner.limit()); });
-        filter = new FilterSet.Embedded<>(this).watch((owner) -> { limit(8, owner.limit()); });
-        defaultOutcome = new Outcome.Described().watch((owner) -> { limit(9, owner.limit()); });
-        outcomes = new ArrayType().watch((owner) -> { limit(10, owner.limit()); });
-        capabilities = new ArrayType().watch((owner) -> { limit(11, owner.limit()); });
+        address = new StringType().watch(fieldChanged(INDEX_ADDRESS));
+        durable = new UIntType().watch(fieldChanged(INDEX_DURABLE));
+        expiryPolicy = new SymbolType().watch(fieldChanged(INDEX_EXPIRY_POLICY));
+        timeout = new UIntType().watch(fieldChanged(INDEX_TIMEOUT));
+        dynamic = new BooleanType().watch(fieldChanged(INDEX_DYNAMIC));
+        dynamicNodeProperties = new NodeProperties().watch(fieldChanged(INDEX_DYNAMIC_NODE_PROPERTIES));
+        distributionMode = new SymbolType().watch(fieldChanged(INDEX_DISTRIBUTION_MODE));
+        filter = new FilterSet.Embedded<>(this).watch(fieldChanged(INDEX_FILTER));
+        defaultOutcome = new Outcome.Described().watch(fieldChanged(INDEX_DEFAULT_OUTCOME));
+        outcomes = new ArrayType().watch(fieldChanged(INDEX_OUTCOMES));
+        capabilities = new ArrayType().watch(fieldChanged(INDEX_CAPABILITIES));
     }
 
     @Override
@@ -84,6 +96,12 @@ public final class Source extends ListType {
         return this;
     }
 
+    @Override
+    public Source compact() {
+        super.compact();
+        return this;
+    }
+
     public Source setAddress(Void value) {
         address().set(value);
         return this;
@@ -98,6 +116,14 @@ public final class Source extends ListType {
         return address().get(accessor);
     }
 
+    public boolean addressEquals(byte[] value) {
+        return address().contentEquals(value);
+    }
+
+    public boolean addressStartsWith(byte[] prefix) {
+        return address().startsWith(prefix);
+    }
+
     public Source setDurable(TerminusDurability value) {
         durable().set(TerminusDurability.WRITE, value);
         return this;
@@ -174,46 +200,46 @@ public final class Source extends ListType {
     }
 
     private StringType address() {
-        return address.wrap(buffer(), offsetBody());
+        return address.wrap(buffer(), offsetAt(INDEX_ADDRESS));
     }
 
     private UIntType durable() {
-        return durable.wrap(buffer(), address().limit());
+        return durable.wrap(buffer(), offsetAt(INDEX_DURABLE));
     }
 
     private SymbolType expiryPolicy() {
-        return expiryPolicy.wrap(buffer(), durable().limit());
+        return expiryPolicy.wrap(buffer(), offsetAt(INDEX_EXPIRY_POLICY));
     }
     
     private UIntType timeout() {
-        return timeout.wrap(buffer(), expiryPolicy().limit());
+        return timeout.wrap(buffer(), offsetAt(INDEX_TIMEOUT));
     }
     
     private BooleanType dynamic() {
-        return dynamic.wrap(buffer(), timeout().limit());
+        return dynamic.wrap(buffer(), offsetAt(INDEX_DYNAMIC));
     }
     
     private NodeProperties dynamicNodeProperties() {
-        return dynamicNodeProperties.wrap(buffer(), dynamic().limit());
+        return dynamicNodeProperties.wrap(buffer(), offsetAt(INDEX_DYNAMIC_NODE_PROPERTIES));
     }
     
     private SymbolType distributionMode() {
-        return distributionMode.wrap(buffer(), dynamicNodeProperties().limit());
+        return distributionMode.wrap(buffer(), offsetAt(INDEX_DISTRIBUTION_MODE));
     }
     
     private FilterSet.Embedded<Source> filter() {
-        return filter.wrap(buffer(), distributionMode().limit());
+        return filter.wrap(buffer(), offsetAt(INDEX_FILTER));
     }
     
     private Outcome.Described defaultOutcome() {
-        return defaultOutcome.wrap(buffer(), filter().limit());
+        return defaultOutcome.wrap(buffer(), offsetAt(INDEX_DEFAULT_OUTCOME));
     }
     
     private ArrayType outcomes() {
-        return outcomes.wrap(buffer(), defaultOutcome().limit());
+        return outcomes.wrap(buffer(), offsetAt(INDEX_OUTCOMES));
     }
     
     private ArrayType capabilities() {
-        return capabilities.wrap(buffer(), outcomes().limit());
+        return capabilities.wrap(buffer(), offsetAt(INDEX_CAPABILITIES));
     }
 }
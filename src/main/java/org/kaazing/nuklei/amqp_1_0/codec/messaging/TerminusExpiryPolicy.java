@@ -17,6 +17,7 @@ package org.kaazing.nuklei.amqp_1_0.codec.messaging;
 
 import static java.nio.charset.StandardCharsets.US_ASCII;
 
+import org.kaazing.nuklei.amqp_1_0.codec.types.SymbolTable;
 import org.kaazing.nuklei.function.DirectBufferAccessor;
 import org.kaazing.nuklei.function.MutableDirectBufferMutator;
 
@@ -29,23 +30,17 @@ import uk.co.real_logic.agrona.MutableDirectBuffer;
 public enum TerminusExpiryPolicy {
     LINK_DETACH, SESSION_END, CONNECTION_CLOSE, NEVER;
 
+    private static final SymbolTable SYMBOLS = new SymbolTable(4)
+            .register("link-detach", LINK_DETACH.ordinal())
+            .register("session-end", SESSION_END.ordinal())
+            .register("connection-close", CONNECTION_CLOSE.ordinal())
+            .register("never", NEVER.ordinal());
+
+    private static final TerminusExpiryPolicy[] VALUES = values();
+
     public static final DirectBufferAccessor<TerminusExpiryPolicy> READ = (DirectBuffer buffer, int offset, int size) -> {
-        switch (buffer.getByte(offset)) {
-        case 'l':
-            // TODO: verify "link-detach" matches entirely 
-            return TerminusExpiryPolicy.LINK_DETACH;
-        case 's':
-            // TODO: verify "session-end" matches entirely 
-            return TerminusExpiryPolicy.SESSION_END;
-        case 'c':
-            // TODO: verify "connection-close" matches entirely 
-            return TerminusExpiryPolicy.CONNECTION_CLOSE;
-        case 'n':
-            // TODO: verify "never" matches entirely 
-            return TerminusExpiryPolicy.NEVER;
-        default:
-            return null;
-        }
+        int id = SYMBOLS.lookup(buffer, offset, size);
+        return (id != SymbolTable.NOT_FOUND) ? VALUES[id] : null;
     };
 
     private static final byte[] LINK_DETACH_BYTES = "link-detach".getBytes(US_ASCII);
@@ -51,6 +51,21 @@ public final class Attach extends CompositeType {
 
     public static final long DEFAULT_HANDLE_MAX = 4294967295L;
 
+    private static final int INDEX_NAME = 0;
+    private static final int INDEX_HANDLE = 1;
+    private static final int INDEX_ROLE = 2;
+    private static final int INDEX_SEND_SETTLE_MODE = 3;
+    private static final int INDEX_RECEIVE_SETTLE_MODE = 4;
+    private static final int INDEX_SOURCE = 5;
+    private static final int INDEX_TARGET = 6;
+    private static final int INDEX_UNSETTLED = 7;
+    private static final int INDEX_INCOMPLETE_UNSETTLED = 8;
+    private static final int INDEX_INITIAL_DELIVERY_COUNT = 9;
+    private static final int INDEX_MAX_MESSAGE_SIZE = 10;
+    private static final int INDEX_OFFERED_CAPABILITIES = 11;
+    private static final int INDEX_DESIRED_CAPABILITIES = 12;
+    private static final int INDEX_PROPERTIES = 13;
+
     private final StringType name;
     private final UIntType handle;
     private final BooleanType role;
@@ -67,20 +82,20 @@ public final class Attach extends CompositeType {
     private final Fields properties;
 
     public Attach() {
-        name = new StringType().watch((owner) -> { limit(1, owner.limit()); });
-        handle = new UIntType().watch((owner) -> { limit(2, owner.limit()); });
-        role = new BooleanType().watch((owner) -> { limit(3, owner.limit()); });
-        sendSettleMode = new UByteType().watch((owner) -> { limit(4, owner.limit()); });
-        receiveSettleMode = new UByteType().watch((owner) -> { limit(5, owner.limit()); });
-        source = new Source().watch((owner) -> { limit(6, owner.limit()); });
-        target = new Target().watch((owner) -> { limit(7, owner.limit()); });
-        unsettled = new MapType().watch((owner) -> { limit(8, owner.limit()); });
-        incompleteUnsettled = new BooleanType().watch((owner) -> { limit(9, owner.limit()); });
-        initialDeliveryCount = new UIntType().watch((owner) -> { limit(10, owner.limit()); });
-        maxMessageSize = new ULongType().watch((owner) -> { limit(11, owner.limit()); });
-        offeredCapabilities = new ArrayType().watch((owner) -> { limit(12, owner.limit()); });
-        desiredCapabilities = new ArrayType().watch((owner) -> { limit(13, owner.limit()); });
-        properties = new Fields().watch((owner) -> { limit(14, owner.limit()); });
+        name = new StringType().watch(fieldChanged(INDEX_NAME));
+        handle = new UIntType().watch(fieldChanged(INDEX_HANDLE));
+        role = new BooleanType().watch(fieldChanged(INDEX_ROLE));
+        sendSettleMode = new UByteType().watch(fieldChanged(INDEX_SEND_SETTLE_MODE));
+        receiveSettleMode = new UByteType().watch(fieldChanged(INDEX_RECEIVE_SETTLE_MODE));
+        source = new Source().watch(fieldChanged(INDEX_SOURCE));
+        target = new Target().watch(fieldChanged(INDEX_TARGET));
+        unsettled = new MapType().watch(fieldChanged(INDEX_UNSETTLED));
+        incompleteUnsettled = new BooleanType().watch(fieldChanged(INDEX_INCOMPLETE_UNSETTLED));
+        initialDeliveryCount = new UIntType().watch(fieldChanged(INDEX_INITIAL_DELIVERY_COUNT));
+        maxMessageSize = new ULongType().watch(fieldChanged(INDEX_MAX_MESSAGE_SIZE));
+        offeredCapabilities = new ArrayType().watch(fieldChanged(INDEX_OFFERED_CAPABILITIES));
+        desiredCapabilities = new ArrayType().watch(fieldChanged(INDEX_DESIRED_CAPABILITIES));
+        properties = new Fields().watch(fieldChanged(INDEX_PROPERTIES));
     }
 
     @Override
@@ -107,6 +122,12 @@ public final class Attach extends CompositeType {
         return this;
     }
 
+    @Override
+    public Attach compact() {
+        super.compact();
+        return this;
+    }
+
     public Attach setName(Void value) {
         name().set(value);
         return this;
@@ -219,58 +240,58 @@ public final class Attach extends CompositeType {
     }
 
     private StringType name() {
-        return name.wrap(buffer(), offsetBody());
+        return name.wrap(buffer(), offsetAt(INDEX_NAME));
     }
 
     private UIntType handle() {
-        return handle.wrap(buffer(), name().limit());
+        return handle.wrap(buffer(), offsetAt(INDEX_HANDLE));
     }
 
     private BooleanType role() {
-        return role.wrap(buffer(), handle().limit());
+        return role.wrap(buffer(), offsetAt(INDEX_ROLE));
     }
 
     private UByteType sendSettleMode() {
-        return sendSettleMode.wrap(buffer(), role().limit());
+        return sendSettleMode.wrap(buffer(), offsetAt(INDEX_SEND_SETTLE_MODE));
     }
 
     private UByteType receiveSettleMode() {
-        return receiveSettleMode.wrap(buffer(), role().limit());
+        return receiveSettleMode.wrap(buffer(), offsetAt(INDEX_RECEIVE_SETTLE_MODE));
     }
 
     private Source source() {
-        return source.wrap(buffer(), receiveSettleMode().limit());
+        return source.wrap(buffer(), offsetAt(INDEX_SOURCE));
     }
 
     private Target target() {
-        return target.wrap(buffer(), source().limit());
+        return target.wrap(buffer(), offsetAt(INDEX_TARGET));
     }
 
     private MapType unsettled() {
-        return unsettled.wrap(buffer(), target().limit());
+        return unsettled.wrap(buffer(), offsetAt(INDEX_UNSETTLED));
     }
 
     private BooleanType incompleteUnsettled() {
-        return incompleteUnsettled.wrap(buffer(), unsettled().limit());
+        return incompleteUnsettled.wrap(buffer(), offsetAt(INDEX_INCOMPLETE_UNSETTLED));
     }
     
     private UIntType initialDeliveryCount() {
-        return initialDeliveryCount.wrap(buffer(), incompleteUnsettled().limit());
+        return initialDeliveryCount.wrap(buffer(), offsetAt(INDEX_INITIAL_DELIVERY_COUNT));
     }
     
     private ULongType maxMessageSize() {
-        return maxMessageSize.wrap(buffer(), initialDeliveryCount().limit());
+        return maxMessageSize.wrap(buffer(), offsetAt(INDEX_MAX_MESSAGE_SIZE));
     }
 
     private ArrayType offeredCapabilities() {
-        return offeredCapabilities.wrap(buffer(), maxMessageSize().limit());
+        return offeredCapabilities.wrap(buffer(), offsetAt(INDEX_OFFERED_CAPABILITIES));
     }
 
     private ArrayType desiredCapabilities() {
-        return desiredCapabilities.wrap(buffer(), offeredCapabilities().limit());
+        return desiredCapabilities.wrap(buffer(), offsetAt(INDEX_DESIRED_CAPABILITIES));
     }
 
     private Fields properties() {
-        return properties.wrap(buffer(), desiredCapabilities().limit());
+        return properties.wrap(buffer(), offsetAt(INDEX_PROPERTIES));
     }
 }
@@ -40,6 +40,15 @@ public final class Begin extends CompositeType {
 
     public static final long DEFAULT_HANDLE_MAX = 4294967295L;
 
+    private static final int INDEX_REMOTE_CHANNEL = 0;
+    private static final int INDEX_NEXT_OUTGOING_ID = 1;
+    private static final int INDEX_INCOMING_WINDOW = 2;
+    private static final int INDEX_OUTGOING_WINDOW = 3;
+    private static final int INDEX_HANDLE_MAX = 4;
+    private static final int INDEX_OFFERED_CAPABILITIES = 5;
+    private static final int INDEX_DESIRED_CAPABILITIES = 6;
+    private static final int INDEX_PROPERTIES = 7;
+
     private final UShortType remoteChannel;
     private final UIntType nextOutgoingId;
     private final UIntType incomingWindow;
@@ -50,14 +59,14 @@ public final class Begin extends CompositeType {
     private final Fields properties;
 
     public Begin() {
-        remoteChannel = new UShortType().watch((owner) -> { limit(1, owner.limit()); });
-        nextOutgoingId = new UIntType().watch((owner) -> { limit(2, owner.limit()); });;
-        incomingWindow = new UIntType().watch((owner) -> { limit(3, owner.limit()); });;
-        outgoingWindow = new UIntType().watch((owner) -> { limit(4, owner.limit()); });;
-        handleMax = new UIntType().watch((owner) -> { limit(5, owner.limit()); });;
-        offeredCapabilities = new ArrayType().watch((owner) -> { limit(6, owner.limit()); });;
-        desiredCapabilities = new ArrayType().watch((owner) -> { limit(7, owner.limit()); });;
-        properties = new Fields().watch((owner) -> { limit(8, owner.limit()); });;
+        remoteChannel = new UShortType().watch(fieldChanged(INDEX_REMOTE_CHANNEL));
+        nextOutgoingId = new UIntType().watch(fieldChanged(INDEX_NEXT_OUTGOING_ID));
+        incomingWindow = new UIntType().watch(fieldChanged(INDEX_INCOMING_WINDOW));
+        outgoingWindow = new UIntType().watch(fieldChanged(INDEX_OUTGOING_WINDOW));
+        handleMax = new UIntType().watch(fieldChanged(INDEX_HANDLE_MAX));
+        offeredCapabilities = new ArrayType().watch(fieldChanged(INDEX_OFFERED_CAPABILITIES));
+        desiredCapabilities = new ArrayType().watch(fieldChanged(INDEX_DESIRED_CAPABILITIES));
+        properties = new Fields().watch(fieldChanged(INDEX_PROPERTIES));
     }
 
     @Override
@@ -84,6 +93,12 @@ public final class Begin extends CompositeType {
         return this;
     }
 
+    @Override
+    public Begin compact() {
+        super.compact();
+        return this;
+    }
+
     public Begin setRemoteChannel(int value) {
         remoteChannel().set(value);
         return this;
@@ -152,34 +167,34 @@ public final class Begin extends CompositeType {
     }
 
     private UShortType remoteChannel() {
-        return remoteChannel.wrap(buffer(), offsetBody());
+        return remoteChannel.wrap(buffer(), offsetAt(INDEX_REMOTE_CHANNEL));
     }
 
     private UIntType nextOutgoingId() {
-        return nextOutgoingId.wrap(buffer(), remoteChannel().limit());
+        return nextOutgoingId.wrap(buffer(), offsetAt(INDEX_NEXT_OUTGOING_ID));
     }
     
     private UIntType incomingWindow() {
-        return incomingWindow.wrap(buffer(), nextOutgoingId().limit());
+        return incomingWindow.wrap(buffer(), offsetAt(INDEX_INCOMING_WINDOW));
     }
 
     private UIntType outgoingWindow() {
-        return outgoingWindow.wrap(buffer(), incomingWindow().limit());
+        return outgoingWindow.wrap(buffer(), offsetAt(INDEX_OUTGOING_WINDOW));
     }
 
     private UIntType handleMax() {
-        return handleMax.wrap(buffer(), outgoingWindow().limit());
+        return handleMax.wrap(buffer(), offsetAt(INDEX_HANDLE_MAX));
     }
 
     private ArrayType offeredCapabilities() {
-        return offeredCapabilities.wrap(buffer(), handleMax().limit());
+        return offeredCapabilities.wrap(buffer(), offsetAt(INDEX_OFFERED_CAPABILITIES));
     }
 
     private ArrayType desiredCapabilities() {
-        return desiredCapabilities.wrap(buffer(), offeredCapabilities().limit());
+        return desiredCapabilities.wrap(buffer(), offsetAt(INDEX_DESIRED_CAPABILITIES));
     }
 
     private Fields properties() {
-        return properties.wrap(buffer(), desiredCapabilities().limit());
+        return properties.wrap(buffer(), offsetAt(INDEX_PROPERTIES));
     }
 }
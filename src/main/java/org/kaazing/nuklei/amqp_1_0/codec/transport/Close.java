@@ -35,11 +35,13 @@ public final class Close extends CompositeType {
         }
     };
 
+    private static final int INDEX_ERROR = 0;
+
     private final Error error;
 
     // unit tests
     Close() {
-        error = new Error().watch((owner) -> { limit(1, owner.limit()); });
+        error = new Error().watch(fieldChanged(INDEX_ERROR));
     }
 
     @Override
@@ -66,11 +68,17 @@ public final class Close extends CompositeType {
         return this;
     }
 
+    @Override
+    public Close compact() {
+        super.compact();
+        return this;
+    }
+
     public Error getError() {
         return error();
     }
     
     private Error error() {
-        return error.wrap(buffer(), offsetBody());
+        return error.wrap(buffer(), offsetAt(INDEX_ERROR));
     }
 }
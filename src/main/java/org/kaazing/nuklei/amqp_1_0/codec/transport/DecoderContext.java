@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.transport;
+
+/*
+ * One instance of each transport flyweight, owned by a single Mikro and passed down the handler chain,
+ * so that dispatching a frame needs no ThreadLocal lookups while Mikros on other threads use their own
+ */
+public final class DecoderContext {
+
+    public final Header header;
+    public final Frame frame;
+    public final Open open;
+    public final Begin begin;
+    public final Attach attach;
+    public final Flow flow;
+    public final Transfer transfer;
+    public final Disposition disposition;
+    public final Detach detach;
+    public final End end;
+    public final Close close;
+
+    public DecoderContext() {
+        this.header = new Header();
+        this.frame = new Frame();
+        this.open = new Open();
+        this.begin = new Begin();
+        this.attach = new Attach();
+        this.flow = new Flow();
+        this.transfer = new Transfer();
+        this.disposition = new Disposition();
+        this.detach = new Detach();
+        this.end = new End();
+        this.close = new Close();
+    }
+}
@@ -37,14 +37,18 @@ public final class Detach extends CompositeType {
         }
     };
 
+    private static final int INDEX_HANDLE = 0;
+    private static final int INDEX_CLOSED = 1;
+    private static final int INDEX_ERROR = 2;
+
     private final UIntType handle;
     private final BooleanType closed;
     private final Error error;
 
     public Detach() {
-        handle = new UIntType().watch((owner) -> { limit(1, owner.limit()); });
-        closed = new BooleanType().watch((owner) -> { limit(2, owner.limit()); });
-        error = new Error().watch((owner) -> { limit(3, owner.limit()); });
+        handle = new UIntType().watch(fieldChanged(INDEX_HANDLE));
+        closed = new BooleanType().watch(fieldChanged(INDEX_CLOSED));
+        error = new Error().watch(fieldChanged(INDEX_ERROR));
     }
 
     @Override
@@ -71,6 +75,12 @@ public final class Detach extends CompositeType {
         return this;
     }
 
+    @Override
+    public Detach compact() {
+        super.compact();
+        return this;
+    }
+
     public Detach setHandle(long value) {
         handle().set(value);
         return this;
@@ -94,14 +104,14 @@ public final class Detach extends CompositeType {
     }
     
     private UIntType handle() {
-        return handle.wrap(buffer(), offsetBody());
+        return handle.wrap(buffer(), offsetAt(INDEX_HANDLE));
     }
 
     private BooleanType closed() {
-        return closed.wrap(buffer(), handle().limit());
+        return closed.wrap(buffer(), offsetAt(INDEX_CLOSED));
     }
 
     private Error error() {
-        return error.wrap(buffer(), closed().limit());
+        return error.wrap(buffer(), offsetAt(INDEX_ERROR));
     }
 }
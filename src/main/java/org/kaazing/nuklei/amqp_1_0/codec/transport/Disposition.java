@@ -24,6 +24,7 @@ import org.kaazing.nuklei.amqp_1_0.codec.types.BooleanType;
 import org.kaazing.nuklei.amqp_1_0.codec.types.CompositeType;
 import org.kaazing.nuklei.amqp_1_0.codec.types.UIntType;
 
+import uk.co.real_logic.agrona.DirectBuffer;
 import uk.co.real_logic.agrona.MutableDirectBuffer;
 
 /*
@@ -38,6 +39,13 @@ public final class Disposition extends CompositeType {
         }
     };
 
+    private static final int INDEX_ROLE = 0;
+    private static final int INDEX_FIRST = 1;
+    private static final int INDEX_LAST = 2;
+    private static final int INDEX_SETTLED = 3;
+    private static final int INDEX_STATE = 4;
+    private static final int INDEX_BATCHABLE = 5;
+
     private final BooleanType role;
     private final UIntType first;
     private final UIntType last;
@@ -46,12 +54,12 @@ public final class Disposition extends CompositeType {
     private final BooleanType batchable;
 
     public Disposition() {
-        role = new BooleanType().watch((owner) -> { limit(1, owner.limit()); });
-        first = new UIntType().watch((owner) -> { limit(2, owner.limit()); });
-        last = new UIntType().watch((owner) -> { limit(3, owner.limit()); });;
-        settled = new BooleanType().watch((owner) -> { limit(4, owner.limit()); });
-        state = new DeliveryState.Described().watch((owner) -> { limit(5, owner.limit()); });
-        batchable = new BooleanType().watch((owner) -> { limit(6, owner.limit()); });
+        role = new BooleanType().watch(fieldChanged(INDEX_ROLE));
+        first = new UIntType().watch(fieldChanged(INDEX_FIRST));
+        last = new UIntType().watch(fieldChanged(INDEX_LAST));
+        settled = new BooleanType().watch(fieldChanged(INDEX_SETTLED));
+        state = new DeliveryState.Described().watch(fieldChanged(INDEX_STATE));
+        batchable = new BooleanType().watch(fieldChanged(INDEX_BATCHABLE));
     }
 
     @Override
@@ -78,6 +86,12 @@ public final class Disposition extends CompositeType {
         return this;
     }
 
+    @Override
+    public Disposition compact() {
+        super.compact();
+        return this;
+    }
+
     public Disposition setRole(Role value) {
         role().set(Role.WRITE, value);
         return this;
@@ -129,27 +143,86 @@ public final class Disposition extends CompositeType {
     }
 
     private BooleanType role() {
-        return role.wrap(buffer(), offsetBody());
+        return role.wrap(buffer(), offsetAt(INDEX_ROLE));
     }
 
     private UIntType first() {
-        return first.wrap(buffer(), offsetBody());
+        return first.wrap(buffer(), offsetAt(INDEX_FIRST));
     }
     
     private UIntType last() {
-        return last.wrap(buffer(), first().limit());
+        return last.wrap(buffer(), offsetAt(INDEX_LAST));
     }
 
     private BooleanType settled() {
-        return settled.wrap(buffer(), last().limit());
+        return settled.wrap(buffer(), offsetAt(INDEX_SETTLED));
     }
     
     private DeliveryState.Described state() {
-        return state.wrap(buffer(), settled().limit());
+        return state.wrap(buffer(), offsetAt(INDEX_STATE));
     }
 
     private BooleanType batchable() {
-        return batchable.wrap(buffer(), state().limit());
+        return batchable.wrap(buffer(), offsetAt(INDEX_BATCHABLE));
     }
 
+    /*
+     * Forward-only encoder for Disposition, fields must be appended in order
+     */
+    public static final class Builder extends CompositeType.Builder {
+
+        @Override
+        public Builder watch(Consumer<Flyweight> observer) {
+            super.watch(observer);
+            return this;
+        }
+
+        @Override
+        public Builder wrap(MutableDirectBuffer buffer, int offset) {
+            super.wrap(buffer, offset);
+            return this;
+        }
+
+        @Override
+        public Builder begin(int maxLength) {
+            super.begin(maxLength);
+            return this;
+        }
+
+        @Override
+        public Builder fixedWidth(boolean value) {
+            super.fixedWidth(value);
+            return this;
+        }
+
+        public Builder role(Role value) {
+            putBoolean(INDEX_ROLE, Role.WRITE.applyAsBoolean(value));
+            return this;
+        }
+
+        public Builder first(long value) {
+            putUInt(INDEX_FIRST, value);
+            return this;
+        }
+
+        public Builder last(long value) {
+            putUInt(INDEX_LAST, value);
+            return this;
+        }
+
+        public Builder settled(boolean value) {
+            putBoolean(INDEX_SETTLED, value);
+            return this;
+        }
+
+        public Builder state(DirectBuffer buffer, int offset, int length) {
+            putEncoded(INDEX_STATE, buffer, offset, length);
+            return this;
+        }
+
+        public Builder batchable(boolean value) {
+            putBoolean(INDEX_BATCHABLE, value);
+            return this;
+        }
+    }
 }
@@ -35,10 +35,12 @@ public final class End extends CompositeType {
         }
     };
 
+    private static final int INDEX_ERROR = 0;
+
     private final Error error;
 
     public End() {
-        error = new Error().watch((owner) -> { limit(1, owner.limit()); });
+        error = new Error().watch(fieldChanged(INDEX_ERROR));
     }
 
     @Override
@@ -65,6 +67,12 @@ public final class End extends CompositeType {
         return this;
     }
 
+    @Override
+    public End compact() {
+        super.compact();
+        return this;
+    }
+
     public Error getError() {
         return error();
     }
@@ -74,6 +82,6 @@ public final class End extends CompositeType {
     }
     
     private Error error() {
-        return error.wrap(buffer(), offsetBody());
+        return error.wrap(buffer(), offsetAt(INDEX_ERROR));
     }
 }
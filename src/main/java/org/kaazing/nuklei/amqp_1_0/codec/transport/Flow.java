@@ -23,6 +23,7 @@ import org.kaazing.nuklei.amqp_1_0.codec.types.BooleanType;
 import org.kaazing.nuklei.amqp_1_0.codec.types.CompositeType;
 import org.kaazing.nuklei.amqp_1_0.codec.types.UIntType;
 
+import uk.co.real_logic.agrona.DirectBuffer;
 import uk.co.real_logic.agrona.MutableDirectBuffer;
 
 /*
@@ -37,6 +38,18 @@ public final class Flow extends CompositeType {
         }
     };
 
+    private static final int INDEX_NEXT_INCOMING_ID = 0;
+    private static final int INDEX_INCOMING_WINDOW = 1;
+    private static final int INDEX_NEXT_OUTGOING_ID = 2;
+    private static final int INDEX_OUTGOING_WINDOW = 3;
+    private static final int INDEX_HANDLE = 4;
+    private static final int INDEX_DELIVERY_COUNT = 5;
+    private static final int INDEX_LINK_CREDIT = 6;
+    private static final int INDEX_AVAILABLE = 7;
+    private static final int INDEX_DRAIN = 8;
+    private static final int INDEX_ECHO = 9;
+    private static final int INDEX_PROPERTIES = 10;
+
     private final UIntType nextIncomingId;
     private final UIntType incomingWindow;
     private final UIntType nextOutgoingId;
@@ -50,17 +63,17 @@ public final class Flow extends CompositeType {
     private final Fields properties;
 
     public Flow() {
-        nextIncomingId = new UIntType().watch((owner) -> { limit(1, owner.limit()); });;
-        incomingWindow = new UIntType().watch((owner) -> { limit(2, owner.limit()); });;
-        nextOutgoingId = new UIntType().watch((owner) -> { limit(3, owner.limit()); });;
-        outgoingWindow = new UIntType().watch((owner) -> { limit(4, owner.limit()); });;
-        handle = new UIntType().watch((owner) -> { limit(5, owner.limit()); });;
-        deliveryCount = new UIntType().watch((owner) -> { limit(6, owner.limit()); });
-        linkCredit = new UIntType().watch((owner) -> { limit(7, owner.limit()); });
-        available = new UIntType().watch((owner) -> { limit(8, owner.limit()); });
-        drain = new BooleanType().watch((owner) -> { limit(9, owner.limit()); });
-        echo = new BooleanType().watch((owner) -> { limit(10, owner.limit()); });
-        properties = new Fields().watch((owner) -> { limit(11, owner.limit()); });
+        nextIncomingId = new UIntType().watch(fieldChanged(INDEX_NEXT_INCOMING_ID));
+        incomingWindow = new UIntType().watch(fieldChanged(INDEX_INCOMING_WINDOW));
+        nextOutgoingId = new UIntType().watch(fieldChanged(INDEX_NEXT_OUTGOING_ID));
+        outgoingWindow = new UIntType().watch(fieldChanged(INDEX_OUTGOING_WINDOW));
+        handle = new UIntType().watch(fieldChanged(INDEX_HANDLE));
+        deliveryCount = new UIntType().watch(fieldChanged(INDEX_DELIVERY_COUNT));
+        linkCredit = new UIntType().watch(fieldChanged(INDEX_LINK_CREDIT));
+        available = new UIntType().watch(fieldChanged(INDEX_AVAILABLE));
+        drain = new BooleanType().watch(fieldChanged(INDEX_DRAIN));
+        echo = new BooleanType().watch(fieldChanged(INDEX_ECHO));
+        properties = new Fields().watch(fieldChanged(INDEX_PROPERTIES));
     }
 
     @Override
@@ -87,6 +100,21 @@ public final class Flow extends CompositeType {
         return this;
     }
 
+    @Override
+    public Flow compact() {
+        super.compact();
+        return this;
+    }
+
+    public Flow setNextIncomingId(long value) {
+        nextIncomingId().set(value);
+        return this;
+    }
+    
+    public long getNextIncomingId() {
+        return nextIncomingId().get();
+    }
+
     public Flow setNextOutgoingId(long value) {
         nextOutgoingId().set(value);
         return this;
@@ -174,46 +202,131 @@ public final class Flow extends CompositeType {
     }
 
     private UIntType nextIncomingId() {
-        return nextIncomingId.wrap(buffer(), offsetBody());
+        return nextIncomingId.wrap(buffer(), offsetAt(INDEX_NEXT_INCOMING_ID));
     }
     
     private UIntType incomingWindow() {
-        return incomingWindow.wrap(buffer(), nextIncomingId().limit());
+        return incomingWindow.wrap(buffer(), offsetAt(INDEX_INCOMING_WINDOW));
     }
     
     private UIntType nextOutgoingId() {
-        return nextOutgoingId.wrap(buffer(), incomingWindow().limit());
+        return nextOutgoingId.wrap(buffer(), offsetAt(INDEX_NEXT_OUTGOING_ID));
     }
     
     private UIntType outgoingWindow() {
-        return outgoingWindow.wrap(buffer(), nextOutgoingId().limit());
+        return outgoingWindow.wrap(buffer(), offsetAt(INDEX_OUTGOING_WINDOW));
     }
 
     private UIntType handle() {
-        return handle.wrap(buffer(), outgoingWindow().limit());
+        return handle.wrap(buffer(), offsetAt(INDEX_HANDLE));
     }
     
     private UIntType deliveryCount() {
-        return deliveryCount.wrap(buffer(), handle().limit());
+        return deliveryCount.wrap(buffer(), offsetAt(INDEX_DELIVERY_COUNT));
     }
 
     private UIntType linkCredit() {
-        return linkCredit.wrap(buffer(), deliveryCount().limit());
+        return linkCredit.wrap(buffer(), offsetAt(INDEX_LINK_CREDIT));
     }
 
     private UIntType available() {
-        return available.wrap(buffer(), linkCredit().limit());
+        return available.wrap(buffer(), offsetAt(INDEX_AVAILABLE));
     }
 
     private BooleanType drain() {
-        return drain.wrap(buffer(), available().limit());
+        return drain.wrap(buffer(), offsetAt(INDEX_DRAIN));
     }
     
     private BooleanType echo() {
-        return echo.wrap(buffer(), drain().limit());
+        return echo.wrap(buffer(), offsetAt(INDEX_ECHO));
     }
     
     private Fields properties() {
-        return properties.wrap(buffer(), echo().limit());
+        return properties.wrap(buffer(), offsetAt(INDEX_PROPERTIES));
+    }
+
+    /*
+     * Forward-only encoder for Flow, fields must be appended in order
+     */
+    public static final class Builder extends CompositeType.Builder {
+
+        @Override
+        public Builder watch(Consumer<Flyweight> observer) {
+            super.watch(observer);
+            return this;
+        }
+
+        @Override
+        public Builder wrap(MutableDirectBuffer buffer, int offset) {
+            super.wrap(buffer, offset);
+            return this;
+        }
+
+        @Override
+        public Builder begin(int maxLength) {
+            super.begin(maxLength);
+            return this;
+        }
+
+        @Override
+        public Builder fixedWidth(boolean value) {
+            super.fixedWidth(value);
+            return this;
+        }
+
+        public Builder nextIncomingId(long value) {
+            putUInt(INDEX_NEXT_INCOMING_ID, value);
+            return this;
+        }
+
+        public Builder incomingWindow(long value) {
+            putUInt(INDEX_INCOMING_WINDOW, value);
+            return this;
+        }
+
+        public Builder nextOutgoingId(long value) {
+            putUInt(INDEX_NEXT_OUTGOING_ID, value);
+            return this;
+        }
+
+        public Builder outgoingWindow(long value) {
+            putUInt(INDEX_OUTGOING_WINDOW, value);
+            return this;
+        }
+
+        public Builder handle(long value) {
+            putUInt(INDEX_HANDLE, value);
+            return this;
+        }
+
+        public Builder deliveryCount(long value) {
+            putUInt(INDEX_DELIVERY_COUNT, value);
+            return this;
+        }
+
+        public Builder linkCredit(long value) {
+            putUInt(INDEX_LINK_CREDIT, value);
+            return this;
+        }
+
+        public Builder available(long value) {
+            putUInt(INDEX_AVAILABLE, value);
+            return this;
+        }
+
+        public Builder drain(boolean value) {
+            putBoolean(INDEX_DRAIN, value);
+            return this;
+        }
+
+        public Builder echo(boolean value) {
+            putBoolean(INDEX_ECHO, value);
+            return this;
+        }
+
+        public Builder properties(DirectBuffer buffer, int offset, int length) {
+            putEncoded(INDEX_PROPERTIES, buffer, offset, length);
+            return this;
+        }
     }
 }
@@ -47,18 +47,35 @@ public final class Frame extends FlyweightBE {
 
     private static final int OFFSET_PERFORMATIVE = OFFSET_CHANNEL + SIZEOF_CHANNEL;
 
+    // builders start with a 1-byte list header, widened by end() only for larger bodies
+    private static final int MAX_BUILDER_LENGTH = 0xff;
+
+    private static final int WIDTH_KIND_0_ULONG = 0x44;
+    private static final int WIDTH_KIND_1_ULONG = 0x53;
+    private static final int WIDTH_KIND_8_ULONG = 0x80;
+    private static final int WIDTH_KIND_1_SYMBOL = 0xa3;
+    private static final int WIDTH_KIND_4_SYMBOL = 0xb3;
+
     private final ULongType.Descriptor performative;
     private final DynamicType body;
+    private final Transfer.Builder transferBuilder;
+    private final Flow.Builder flowBuilder;
+    private final Disposition.Builder dispositionBuilder;
+
+    private Performative resolvedPerformative;
     
-    // unit tests
-    Frame() {
+    public Frame() {
         performative = new ULongType.Descriptor();
         body = new DynamicType().watch((owner) -> setLength(owner.limit() - offset()));
+        transferBuilder = new Transfer.Builder().watch((owner) -> setLength(owner.limit() - offset()));
+        flowBuilder = new Flow.Builder().watch((owner) -> setLength(owner.limit() - offset()));
+        dispositionBuilder = new Disposition.Builder().watch((owner) -> setLength(owner.limit() - offset()));
     }
 
     @Override
     public Frame wrap(MutableDirectBuffer buffer, int offset) {
         super.wrap(buffer, offset);
+        resolvedPerformative = null;
         return this;
     }
 
@@ -102,23 +119,92 @@ public final class Frame extends FlyweightBE {
         return this;
     }
 
+    /*
+     * Empty frames carry no performative and are used as heartbeats
+     */
+    public boolean isEmpty() {
+        return getLength() == OFFSET_PERFORMATIVE;
+    }
+
     public int getChannel() {
         return uint16Get(buffer(), offset() + OFFSET_CHANNEL);
     }
 
     public Frame setPerformative(Performative value) {
         performative().set(Performative.WRITE, value);
+        resolvedPerformative = value;
         return this;
     }
 
+    /*
+     * Resolved once per wrap, so that each handler dispatching on the same frame reads the descriptor only once
+     */
     public Performative getPerformative() {
-        return performative().get(Performative.READ);
+        if (resolvedPerformative == null) {
+            resolvedPerformative = resolvePerformative();
+        }
+        return resolvedPerformative;
+    }
+
+    /*
+     * Begins encoding a Transfer body in order, the frame length is set once by Transfer.Builder.end()
+     */
+    public Transfer.Builder beginTransfer() {
+        setPerformative(Performative.TRANSFER);
+        return transferBuilder.wrap(buffer(), performative().limit()).begin(MAX_BUILDER_LENGTH);
+    }
+
+    public Flow.Builder beginFlow() {
+        setPerformative(Performative.FLOW);
+        return flowBuilder.wrap(buffer(), performative().limit()).begin(MAX_BUILDER_LENGTH);
+    }
+
+    public Disposition.Builder beginDisposition() {
+        setPerformative(Performative.DISPOSITION);
+        return dispositionBuilder.wrap(buffer(), performative().limit()).begin(MAX_BUILDER_LENGTH);
+    }
+
+    /*
+     * Payload, such as Transfer message sections, follows the performative body up to the frame length
+     */
+    public int payloadOffset() {
+        return body().limit();
+    }
+
+    public int payloadLength() {
+        return (int) (offset() + getLength() - payloadOffset());
     }
 
     public int limit() {
         return body().limit();
     }
 
+    /*
+     * Reads the descriptor constructor directly, resolving numeric codes by table and symbolic descriptors
+     * by pre-hashed symbol lookup, without wrapping the descriptor
+     */
+    private Performative resolvePerformative() {
+        int descriptorOffset = offset() + OFFSET_PERFORMATIVE + 1;
+        switch (uint8Get(buffer(), descriptorOffset)) {
+        case WIDTH_KIND_1_ULONG:
+            return Performative.fromCode(uint8Get(buffer(), descriptorOffset + 1));
+        case WIDTH_KIND_8_ULONG:
+            return Performative.fromCode(int64Get(buffer(), descriptorOffset + 1));
+        case WIDTH_KIND_0_ULONG:
+            return Performative.fromCode(0L);
+        case WIDTH_KIND_1_SYMBOL:
+            return symbolicPerformative(descriptorOffset + 2, uint8Get(buffer(), descriptorOffset + 1));
+        case WIDTH_KIND_4_SYMBOL:
+            return symbolicPerformative(descriptorOffset + 5, int32Get(buffer(), descriptorOffset + 1));
+        default:
+            return null;
+        }
+    }
+
+    private Performative symbolicPerformative(int symbolOffset, int symbolLength) {
+        return Performative.fromSymbolId(Performative.SYMBOLS.lookup(buffer(), symbolOffset, symbolLength));
+    }
+
     private ULongType.Descriptor performative() {
         return performative.wrap(buffer(), offset() + OFFSET_PERFORMATIVE);
     }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.transport;
+
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static org.kaazing.nuklei.Flyweight.uint32Put;
+import static org.kaazing.nuklei.Flyweight.uint8Get;
+
+import java.util.Arrays;
+
+import org.kaazing.nuklei.amqp_1_0.codec.types.CompositeType;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+/*
+ * Frame encoded once with fixed width uint fields, then copied per send with selected fields patched in place.
+ *
+ * Template frames are encoded with the usual builders, marking each field to be patched directly after
+ * appending it, for example
+ *
+ *   Flow.Builder flow = template.beginFlow(channel);
+ *   flow.nextIncomingId(0);
+ *   template.mark(SLOT_NEXT_INCOMING_ID);
+ *   ...
+ *   template.end();
+ */
+public final class FrameTemplate {
+
+    private static final short UINT_4 = 0x70;
+
+    private final MutableDirectBuffer buffer;
+    private final Frame frame;
+    private final int[] slots;
+
+    private CompositeType.Builder builder;
+    private int length;
+
+    public FrameTemplate(int capacity, int maxSlots) {
+        this.buffer = new UnsafeBuffer(new byte[capacity]);
+        this.frame = new Frame();
+        this.slots = new int[maxSlots];
+    }
+
+    public Transfer.Builder beginTransfer(int channel) {
+        Transfer.Builder transfer = frame(channel).beginTransfer().fixedWidth(true);
+        builder = transfer;
+        return transfer;
+    }
+
+    public Flow.Builder beginFlow(int channel) {
+        Flow.Builder flow = frame(channel).beginFlow().fixedWidth(true);
+        builder = flow;
+        return flow;
+    }
+
+    public Disposition.Builder beginDisposition(int channel) {
+        Disposition.Builder disposition = frame(channel).beginDisposition().fixedWidth(true);
+        builder = disposition;
+        return disposition;
+    }
+
+    /*
+     * Marks the most recently appended field as patchable, it must be a 4-byte uint
+     */
+    public FrameTemplate mark(int slot) {
+        int fieldOffset = builder.fieldOffset();
+        if (uint8Get(buffer, fieldOffset) != UINT_4) {
+            throw new IllegalStateException();
+        }
+        slots[slot] = fieldOffset + 1;
+        return this;
+    }
+
+    /*
+     * Ends the template frame, moving marked slots forward when the list header is widened to list32
+     */
+    public int end() {
+        int limit = builder.limit();
+        int widening = builder.endLimit(limit) - limit;
+        length = builder.end();
+        builder = null;
+        if (widening != 0) {
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != 0) {
+                    slots[i] += widening;
+                }
+            }
+        }
+        return length;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /*
+     * Copies the template, returning the limit of the copied frame
+     */
+    public int write(MutableDirectBuffer target, int offset) {
+        target.putBytes(offset, buffer, 0, length);
+        return offset + length;
+    }
+
+    public void patch(MutableDirectBuffer target, int offset, int slot, long value) {
+        uint32Put(target, offset + slots[slot], value, BIG_ENDIAN);
+    }
+
+    private Frame frame(int channel) {
+        Arrays.fill(slots, 0);
+        return frame.wrap(buffer, 0).setDataOffset(2).setType(0).setChannel(channel);
+    }
+}
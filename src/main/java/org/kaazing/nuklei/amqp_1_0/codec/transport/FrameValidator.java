@@ -0,0 +1,291 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.transport;
+
+import static java.nio.ByteOrder.BIG_ENDIAN;
+
+import org.kaazing.nuklei.amqp_1_0.codec.messaging.Performative;
+import org.kaazing.nuklei.amqp_1_0.codec.types.DynamicType;
+
+import uk.co.real_logic.agrona.DirectBuffer;
+
+/*
+ * Validates an entire frame in a single pass before dispatch, checking every constructor code
+ * and every nested length against the frame limit, so that the flyweights can then decode
+ * the frame without any further bounds checks.
+ *
+ * See AMQP 1.0 specification, section 2.3 "Framing" and section 1.6 "Encodings"
+ */
+public final class FrameValidator {
+
+    private static final int SIZEOF_FRAME_HEADER = 8;
+    private static final int OFFSET_DATA_OFFSET = 4;
+    private static final int DATA_OFFSET = 2;
+
+    private static final int DESCRIBED = 0x00;
+    private static final int WIDTH_KIND_0_ULONG = 0x44;
+    private static final int WIDTH_KIND_0_LIST = 0x45;
+    private static final int WIDTH_KIND_0_NULL = 0x40;
+    private static final int WIDTH_KIND_1_ULONG = 0x53;
+    private static final int WIDTH_KIND_8_ULONG = 0x80;
+    private static final int WIDTH_KIND_1_BINARY = 0xa0;
+    private static final int WIDTH_KIND_1_SYMBOL = 0xa3;
+    private static final int WIDTH_KIND_4_BINARY = 0xb0;
+    private static final int WIDTH_KIND_4_SYMBOL = 0xb3;
+    private static final int WIDTH_KIND_1_LIST = 0xc0;
+    private static final int WIDTH_KIND_1_MAP = 0xc1;
+    private static final int WIDTH_KIND_4_LIST = 0xd0;
+    private static final int WIDTH_KIND_4_MAP = 0xd1;
+    private static final int WIDTH_KIND_1_ARRAY = 0xe0;
+    private static final int WIDTH_KIND_4_ARRAY = 0xf0;
+
+    // guards the stack against hostile nesting, well beyond any legitimate performative
+    private static final int MAX_DEPTH = 32;
+
+    private static final int TRANSFER_INDEX_DELIVERY_TAG = 2;
+
+    private static final int INVALID = -1;
+
+    private FrameValidator() {
+    }
+
+    /*
+     * Returns true when the frame wrapped at offset fits within limit, is either empty or carries a known
+     * performative, and the performative body is well formed, any payload that follows is left unchecked
+     */
+    public static boolean isValid(Frame frame, int limit) {
+        DirectBuffer buffer = frame.buffer();
+        int offset = frame.offset();
+
+        if (limit - offset < SIZEOF_FRAME_HEADER) {
+            return false;
+        }
+
+        long length = frame.getLength();
+        if (length < SIZEOF_FRAME_HEADER || length > limit - offset) {
+            return false;
+        }
+
+        // extended frame headers are not supported
+        if (uint8Get(buffer, offset + OFFSET_DATA_OFFSET) != DATA_OFFSET) {
+            return false;
+        }
+
+        if (length == SIZEOF_FRAME_HEADER) {
+            return true;
+        }
+
+        int frameLimit = offset + (int) length;
+        int performativeOffset = offset + SIZEOF_FRAME_HEADER;
+        if (uint8Get(buffer, performativeOffset) != DESCRIBED || performativeOffset + 1 >= frameLimit) {
+            return false;
+        }
+
+        switch (uint8Get(buffer, performativeOffset + 1)) {
+        case WIDTH_KIND_0_ULONG:
+        case WIDTH_KIND_1_ULONG:
+        case WIDTH_KIND_8_ULONG:
+        case WIDTH_KIND_1_SYMBOL:
+        case WIDTH_KIND_4_SYMBOL:
+            break;
+        default:
+            return false;
+        }
+
+        int bodyOffset = validateValue(buffer, performativeOffset + 1, frameLimit, 0);
+        if (bodyOffset == INVALID || bodyOffset >= frameLimit) {
+            return false;
+        }
+
+        switch (uint8Get(buffer, bodyOffset)) {
+        case WIDTH_KIND_0_LIST:
+        case WIDTH_KIND_1_LIST:
+        case WIDTH_KIND_4_LIST:
+            break;
+        default:
+            return false;
+        }
+
+        if (validateValue(buffer, bodyOffset, frameLimit, 0) == INVALID) {
+            return false;
+        }
+
+        Performative performative = frame.getPerformative();
+        return performative == Performative.TRANSFER ? validateDeliveryTag(buffer, bodyOffset) : performative != null;
+    }
+
+    /*
+     * Returns true when the well formed transfer body at offset omits its delivery tag or carries binary of at
+     * most the maximum delivery tag length
+     */
+    private static boolean validateDeliveryTag(DirectBuffer buffer, int offset) {
+        int countWidth = (uint8Get(buffer, offset) == WIDTH_KIND_4_LIST) ? 4 : 1;
+        if (uint8Get(buffer, offset) == WIDTH_KIND_0_LIST ||
+            sizeGet(buffer, offset + 1 + countWidth, countWidth) <= TRANSFER_INDEX_DELIVERY_TAG) {
+            return true;
+        }
+
+        int tagOffset = DynamicType.skip(buffer, offset + 1 + countWidth + countWidth, TRANSFER_INDEX_DELIVERY_TAG);
+        switch (uint8Get(buffer, tagOffset)) {
+        case WIDTH_KIND_0_NULL:
+            return true;
+        case WIDTH_KIND_1_BINARY:
+            return sizeGet(buffer, tagOffset + 1, 1) <= Transfer.MAX_DELIVERY_TAG_LENGTH;
+        case WIDTH_KIND_4_BINARY:
+            return sizeGet(buffer, tagOffset + 1, 4) <= Transfer.MAX_DELIVERY_TAG_LENGTH;
+        default:
+            return false;
+        }
+    }
+
+    /*
+     * Returns the limit of the value encoded at offset, or INVALID if it does not fit within limit
+     */
+    private static int validateValue(DirectBuffer buffer, int offset, int limit, int depth) {
+        if (offset >= limit || depth > MAX_DEPTH) {
+            return INVALID;
+        }
+
+        int formatCode = uint8Get(buffer, offset);
+        if (formatCode == DESCRIBED) {
+            // descriptors themselves must not be described
+            if (offset + 1 >= limit || uint8Get(buffer, offset + 1) == DESCRIBED) {
+                return INVALID;
+            }
+            int valueOffset = validateValue(buffer, offset + 1, limit, depth + 1);
+            return (valueOffset != INVALID) ? validateValue(buffer, valueOffset, limit, depth + 1) : INVALID;
+        }
+
+        int lengthWidth = DynamicType.lengthWidth(formatCode);
+        if (lengthWidth == INVALID) {
+            return INVALID;
+        }
+
+        int sizeOffset = offset + 1;
+        if (lengthWidth == 0) {
+            long fixedLimit = (long) sizeOffset + DynamicType.fixedWidth(formatCode);
+            return (fixedLimit <= limit) ? (int) fixedLimit : INVALID;
+        }
+
+        return validateSized(buffer, formatCode, sizeOffset, lengthWidth, limit, depth);
+    }
+
+    /*
+     * Validates a length prefixed encoding, with the size at offset, returning its limit
+     */
+    private static int validateSized(DirectBuffer buffer, int formatCode, int offset, int lengthWidth, int limit, int depth) {
+        if (offset + lengthWidth > limit) {
+            return INVALID;
+        }
+
+        long size = sizeGet(buffer, offset, lengthWidth);
+        int contentOffset = offset + lengthWidth;
+        if (size < 0L || size > limit - contentOffset) {
+            return INVALID;
+        }
+
+        int contentLimit = contentOffset + (int) size;
+        switch (formatCode) {
+        case WIDTH_KIND_1_LIST:
+        case WIDTH_KIND_4_LIST:
+            return validateCompound(buffer, contentOffset, contentLimit, lengthWidth, false, depth);
+        case WIDTH_KIND_1_MAP:
+        case WIDTH_KIND_4_MAP:
+            return validateCompound(buffer, contentOffset, contentLimit, lengthWidth, true, depth);
+        case WIDTH_KIND_1_ARRAY:
+        case WIDTH_KIND_4_ARRAY:
+            return validateArray(buffer, contentOffset, contentLimit, lengthWidth, depth);
+        default:
+            return contentLimit;
+        }
+    }
+
+    private static int validateCompound(DirectBuffer buffer, int offset, int limit, int countWidth, boolean map, int depth) {
+        if (offset + countWidth > limit) {
+            return INVALID;
+        }
+
+        long count = sizeGet(buffer, offset, countWidth);
+        if (count < 0L || (map && (count & 0x01L) != 0L)) {
+            return INVALID;
+        }
+
+        // each element is at least one byte, so count is bounded by the remaining length
+        int elementOffset = offset + countWidth;
+        for (long i = 0; i < count; i++) {
+            elementOffset = validateValue(buffer, elementOffset, limit, depth + 1);
+            if (elementOffset == INVALID) {
+                return INVALID;
+            }
+        }
+
+        return (elementOffset == limit) ? limit : INVALID;
+    }
+
+    /*
+     * Array elements share a single, possibly described, constructor and omit their own format code
+     */
+    private static int validateArray(DirectBuffer buffer, int offset, int limit, int countWidth, int depth) {
+        if (offset + countWidth >= limit) {
+            return INVALID;
+        }
+
+        long count = sizeGet(buffer, offset, countWidth);
+        int constructorOffset = offset + countWidth;
+        if (count < 0L) {
+            return INVALID;
+        }
+
+        if (uint8Get(buffer, constructorOffset) == DESCRIBED) {
+            if (constructorOffset + 1 >= limit || uint8Get(buffer, constructorOffset + 1) == DESCRIBED) {
+                return INVALID;
+            }
+            constructorOffset = validateValue(buffer, constructorOffset + 1, limit, depth + 1);
+            if (constructorOffset == INVALID || constructorOffset >= limit) {
+                return INVALID;
+            }
+        }
+
+        int elementCode = uint8Get(buffer, constructorOffset);
+        int elementLengthWidth = DynamicType.lengthWidth(elementCode);
+        if (elementCode == DESCRIBED || elementLengthWidth == INVALID) {
+            return INVALID;
+        }
+
+        int elementOffset = constructorOffset + 1;
+        if (elementLengthWidth == 0) {
+            long elementsLength = count * DynamicType.fixedWidth(elementCode);
+            return (elementsLength == limit - elementOffset) ? limit : INVALID;
+        }
+
+        for (long i = 0; i < count; i++) {
+            elementOffset = validateSized(buffer, elementCode, elementOffset, elementLengthWidth, limit, depth + 1);
+            if (elementOffset == INVALID) {
+                return INVALID;
+            }
+        }
+
+        return (elementOffset == limit) ? limit : INVALID;
+    }
+
+    private static long sizeGet(DirectBuffer buffer, int offset, int width) {
+        return (width == 1) ? uint8Get(buffer, offset) : buffer.getInt(offset, BIG_ENDIAN);
+    }
+
+    private static int uint8Get(DirectBuffer buffer, int offset) {
+        return buffer.getByte(offset) & 0xff;
+    }
+}
@@ -42,6 +42,18 @@ public final class Open extends CompositeType {
     };
 
     public static final long DEFAULT_MAX_FRAME_SIZE = 4294967295L;
+    public static final long MIN_MAX_FRAME_SIZE = 512L;
+
+    private static final int INDEX_CONTAINER_ID = 0;
+    private static final int INDEX_HOSTNAME = 1;
+    private static final int INDEX_MAX_FRAME_SIZE = 2;
+    private static final int INDEX_CHANNEL_MAX = 3;
+    private static final int INDEX_IDLE_TIMEOUT = 4;
+    private static final int INDEX_OUTGOING_LOCALES = 5;
+    private static final int INDEX_INCOMING_LOCALES = 6;
+    private static final int INDEX_OFFERED_CAPABILITIES = 7;
+    private static final int INDEX_DESIRED_CAPABILITIES = 8;
+    private static final int INDEX_PROPERTIES = 9;
 
     private final StringType containerId;
     private final StringType hostname;
@@ -56,16 +68,16 @@ public final class Open extends CompositeType {
 
     // unit tests
     Open() {
-        containerId = new StringType().watch((owner) -> { limit(1, owner.limit()); });
-        hostname = new StringType().watch((owner) -> { limit(2, owner.limit()); });
-        maxFrameSize = new UIntType().watch((owner) -> { limit(3, owner.limit()); });
-        channelMax = new UShortType().watch((owner) -> { limit(4, owner.limit()); });
-        idleTimeout = new UIntType().watch((owner) -> { limit(5, owner.limit()); });
-        outgoingLocales = new ArrayType().watch((owner) -> { limit(6, owner.limit()); });;
-        incomingLocales = new ArrayType().watch((owner) -> { limit(7, owner.limit()); });
-        offeredCapabilities = new ArrayType().watch((owner) -> { limit(8, owner.limit()); });;
-        desiredCapabilities = new ArrayType().watch((owner) -> { limit(9, owner.limit()); });;
-        properties = new Fields().watch((owner) -> { limit(10, owner.limit()); });;
+        containerId = new StringType().watch(fieldChanged(INDEX_CONTAINER_ID));
+        hostname = new StringType().watch(fieldChanged(INDEX_HOSTNAME));
+        maxFrameSize = new UIntType().watch(fieldChanged(INDEX_MAX_FRAME_SIZE));
+        channelMax = new UShortType().watch(fieldChanged(INDEX_CHANNEL_MAX));
+        idleTimeout = new UIntType().watch(fieldChanged(INDEX_IDLE_TIMEOUT));
+        outgoingLocales = new ArrayType().watch(fieldChanged(INDEX_OUTGOING_LOCALES));
+        incomingLocales = new ArrayType().watch(fieldChanged(INDEX_INCOMING_LOCALES));
+        offeredCapabilities = new ArrayType().watch(fieldChanged(INDEX_OFFERED_CAPABILITIES));
+        desiredCapabilities = new ArrayType().watch(fieldChanged(INDEX_DESIRED_CAPABILITIES));
+        properties = new Fields().watch(fieldChanged(INDEX_PROPERTIES));
     }
 
     @Override
@@ -92,6 +104,12 @@ public final class Open extends CompositeType {
         return this;
     }
 
+    @Override
+    public Open compact() {
+        super.compact();
+        return this;
+    }
+
     public Open setContainerId(Void value) {
         containerId().set(value);
         return this;
@@ -125,10 +143,43 @@ public final class Open extends CompositeType {
         return this;
     }
     
+    public boolean hasMaxFrameSize() {
+        return isPresent(INDEX_MAX_FRAME_SIZE);
+    }
+
     public long getMaxFrameSize() {
         return maxFrameSize().get();
     }
 
+    /*
+     * Lowers max-frame-size to at most value, in place so that following fields are kept, or appends it
+     * when it is the next field to encode. Returns false when it is omitted but followed by other fields.
+     */
+    public boolean limitMaxFrameSize(long value) {
+        if (value < MIN_MAX_FRAME_SIZE) {
+            throw new IllegalArgumentException();
+        }
+
+        if (hasMaxFrameSize()) {
+            if (getMaxFrameSize() > value) {
+                // values of at least the minimum max-frame-size are encoded as a 4-byte uint
+                uint32Put(buffer(), maxFrameSize().offset() + 1, value);
+            }
+            return true;
+        }
+
+        if (value >= DEFAULT_MAX_FRAME_SIZE) {
+            return true;
+        }
+
+        if (count() == INDEX_MAX_FRAME_SIZE) {
+            setMaxFrameSize(value);
+            return true;
+        }
+
+        return false;
+    }
+
     public Open setChannelMax(int value) {
         channelMax().set(value);
         return this;
@@ -188,42 +239,42 @@ public final class Open extends CompositeType {
     }
 
     private StringType containerId() {
-        return containerId.wrap(buffer(), offsetBody());
+        return containerId.wrap(buffer(), offsetAt(INDEX_CONTAINER_ID));
     }
 
     private StringType hostname() {
-        return hostname.wrap(buffer(), containerId().limit());
+        return hostname.wrap(buffer(), offsetAt(INDEX_HOSTNAME));
     }
 
     private UIntType maxFrameSize() {
-        return maxFrameSize.wrap(buffer(), hostname().limit());
+        return maxFrameSize.wrap(buffer(), offsetAt(INDEX_MAX_FRAME_SIZE));
     }
 
     private UShortType channelMax() {
-        return channelMax.wrap(buffer(), maxFrameSize().limit());
+        return channelMax.wrap(buffer(), offsetAt(INDEX_CHANNEL_MAX));
     }
 
     private UIntType idleTimeout() {
-        return idleTimeout.wrap(buffer(), channelMax().limit());
+        return idleTimeout.wrap(buffer(), offsetAt(INDEX_IDLE_TIMEOUT));
     }
 
     private ArrayType outgoingLocales() {
-        return outgoingLocales.wrap(buffer(), idleTimeout().limit());
+        return outgoingLocales.wrap(buffer(), offsetAt(INDEX_OUTGOING_LOCALES));
     }
 
     private ArrayType incomingLocales() {
-        return incomingLocales.wrap(buffer(), outgoingLocales().limit());
+        return incomingLocales.wrap(buffer(), offsetAt(INDEX_INCOMING_LOCALES));
     }
 
     private ArrayType offeredCapabilities() {
-        return offeredCapabilities.wrap(buffer(), incomingLocales().limit());
+        return offeredCapabilities.wrap(buffer(), offsetAt(INDEX_OFFERED_CAPABILITIES));
     }
 
     private ArrayType desiredCapabilities() {
-        return desiredCapabilities.wrap(buffer(), offeredCapabilities().limit());
+        return desiredCapabilities.wrap(buffer(), offsetAt(INDEX_DESIRED_CAPABILITIES));
     }
 
     private Fields properties() {
-        return properties.wrap(buffer(), desiredCapabilities().limit());
+        return properties.wrap(buffer(), offsetAt(INDEX_PROPERTIES));
     }
 }
@@ -28,6 +28,7 @@ import org.kaazing.nuklei.amqp_1_0.codec.types.UIntType;
 import org.kaazing.nuklei.function.DirectBufferAccessor;
 import org.kaazing.nuklei.function.MutableDirectBufferMutator;
 
+import uk.co.real_logic.agrona.DirectBuffer;
 import uk.co.real_logic.agrona.MutableDirectBuffer;
 
 /*
@@ -42,6 +43,21 @@ public final class Transfer extends CompositeType {
         }
     };
 
+    // See AMQP 1.0 specification, section 2.8.7 "Delivery Tag"
+    public static final int MAX_DELIVERY_TAG_LENGTH = 32;
+
+    private static final int INDEX_HANDLE = 0;
+    private static final int INDEX_DELIVERY_ID = 1;
+    private static final int INDEX_DELIVERY_TAG = 2;
+    private static final int INDEX_MESSAGE_FORMAT = 3;
+    private static final int INDEX_SETTLED = 4;
+    private static final int INDEX_MORE = 5;
+    private static final int INDEX_RECEIVE_SETTLE_MODE = 6;
+    private static final int INDEX_DELIVERY_STATE = 7;
+    private static final int INDEX_RESUME = 8;
+    private static final int INDEX_ABORTED = 9;
+    private static final int INDEX_BATCHABLE = 10;
+
     private final UIntType handle;
     private final UIntType deliveryId;
     private final BinaryType deliveryTag;
@@ -54,20 +70,18 @@ public final class Transfer extends CompositeType {
     private final BooleanType aborted;
     private final BooleanType batchable;
 
-    // TODO: payload
-
     public Transfer() {
-        handle = new UIntType().watch((owner) -> { limit(1, owner.limit()); });
-        deliveryId = new UIntType().watch((owner) -> { limit(2, owner.limit()); });
-        deliveryTag = new BinaryType().watch((owner) -> { limit(3, owner.limit()); });
-        messageFormat = new UIntType().watch((owner) -> { limit(4, owner.limit()); });;
-        settled = new BooleanType().watch((owner) -> { limit(5, owner.limit()); });
-        more = new BooleanType().watch((owner) -> { limit(6, owner.limit()); });
-        receiveSettleMode = new UByteType().watch((owner) -> { limit(7, owner.limit()); });
-        deliveryState = new DeliveryState.Described().watch((owner) -> { limit(8, owner.limit()); });
-        resume = new BooleanType().watch((owner) -> { limit(9, owner.limit()); });
-        aborted = new BooleanType().watch((owner) -> { limit(10, owner.limit()); });
-        batchable = new BooleanType().watch((owner) -> { limit(11, owner.limit()); });
+        handle = new UIntType().watch(fieldChanged(INDEX_HANDLE));
+        deliveryId = new UIntType().watch(fieldChanged(INDEX_DELIVERY_ID));
+        deliveryTag = new BinaryType().watch(fieldChanged(INDEX_DELIVERY_TAG));
+        messageFormat = new UIntType().watch(fieldChanged(INDEX_MESSAGE_FORMAT));
+        settled = new BooleanType().watch(fieldChanged(INDEX_SETTLED));
+        more = new BooleanType().watch(fieldChanged(INDEX_MORE));
+        receiveSettleMode = new UByteType().watch(fieldChanged(INDEX_RECEIVE_SETTLE_MODE));
+        deliveryState = new DeliveryState.Described().watch(fieldChanged(INDEX_DELIVERY_STATE));
+        resume = new BooleanType().watch(fieldChanged(INDEX_RESUME));
+        aborted = new BooleanType().watch(fieldChanged(INDEX_ABORTED));
+        batchable = new BooleanType().watch(fieldChanged(INDEX_BATCHABLE));
     }
 
     @Override
@@ -94,6 +108,19 @@ public final class Transfer extends CompositeType {
         return this;
     }
 
+    @Override
+    public Transfer compact() {
+        super.compact();
+        return this;
+    }
+
+    /*
+     * Message payload follows the transfer performative, up to the end of the enclosing frame
+     */
+    public int payloadOffset() {
+        return limit();
+    }
+
     public Transfer setHandle(long value) {
         handle().set(value);
         return this;
@@ -108,6 +135,10 @@ public final class Transfer extends CompositeType {
         return this;
     }
     
+    public boolean hasDeliveryId() {
+        return isPresent(INDEX_DELIVERY_ID);
+    }
+
     public long getDeliveryId() {
         return deliveryId().get();
     }
@@ -118,6 +149,10 @@ public final class Transfer extends CompositeType {
         return this;
     }
     
+    public boolean hasDeliveryTag() {
+        return isPresent(INDEX_DELIVERY_TAG);
+    }
+
     public <T> T getDeliveryTag(DirectBufferAccessor<T> accessor) {
         return deliveryTag().get(accessor);
     }
@@ -137,7 +172,7 @@ public final class Transfer extends CompositeType {
     }
     
     public boolean getSettled() {
-        return settled().get();
+        return isPresent(INDEX_SETTLED) && settled().get();
     }
 
     public Transfer setMore(boolean value) {
@@ -146,7 +181,7 @@ public final class Transfer extends CompositeType {
     }
     
     public boolean getMore() {
-        return more().get();
+        return isPresent(INDEX_MORE) && more().get();
     }
 
     public Transfer setReceiveSettleMode(ReceiverSettleMode value) {
@@ -168,7 +203,7 @@ public final class Transfer extends CompositeType {
     }
     
     public boolean getResume() {
-        return resume().get();
+        return isPresent(INDEX_RESUME) && resume().get();
     }
 
     public Transfer setAborted(boolean value) {
@@ -177,7 +212,7 @@ public final class Transfer extends CompositeType {
     }
     
     public boolean getAborted() {
-        return aborted().get();
+        return isPresent(INDEX_ABORTED) && aborted().get();
     }
 
     public Transfer setBatchable(boolean value) {
@@ -186,51 +221,142 @@ public final class Transfer extends CompositeType {
     }
     
     public boolean getBatchable() {
-        return batchable().get();
+        return isPresent(INDEX_BATCHABLE) && batchable().get();
     }
 
     private UIntType handle() {
-        return handle.wrap(buffer(), offsetBody());
+        return handle.wrap(buffer(), offsetAt(INDEX_HANDLE));
     }
 
     private UIntType deliveryId() {
-        return deliveryId.wrap(buffer(), handle().limit());
+        return deliveryId.wrap(buffer(), offsetAt(INDEX_DELIVERY_ID));
     }
     
     private BinaryType deliveryTag() {
-        return deliveryTag.wrap(buffer(), deliveryId().limit());
+        return deliveryTag.wrap(buffer(), offsetAt(INDEX_DELIVERY_TAG));
     }
         
     private UIntType messageFormat() {
-        return messageFormat.wrap(buffer(), deliveryTag().limit());
+        return messageFormat.wrap(buffer(), offsetAt(INDEX_MESSAGE_FORMAT));
     }
 
     private BooleanType settled() {
-        return settled.wrap(buffer(), messageFormat().limit());
+        return settled.wrap(buffer(), offsetAt(INDEX_SETTLED));
     }
     
     private BooleanType more() {
-        return more.wrap(buffer(), settled().limit());
+        return more.wrap(buffer(), offsetAt(INDEX_MORE));
     }
 
     private UByteType receiveSettleMode() {
-        return receiveSettleMode.wrap(buffer(), more().limit());
+        return receiveSettleMode.wrap(buffer(), offsetAt(INDEX_RECEIVE_SETTLE_MODE));
     }
 
     private DeliveryState.Described deliveryState() {
-        return deliveryState.wrap(buffer(), receiveSettleMode().limit());
+        return deliveryState.wrap(buffer(), offsetAt(INDEX_DELIVERY_STATE));
     }
 
     private BooleanType resume() {
-        return resume.wrap(buffer(), deliveryState().limit());
+        return resume.wrap(buffer(), offsetAt(INDEX_RESUME));
     }
 
     private BooleanType aborted() {
-        return aborted.wrap(buffer(), resume().limit());
+        return aborted.wrap(buffer(), offsetAt(INDEX_ABORTED));
     }
 
     private BooleanType batchable() {
-        return batchable.wrap(buffer(), aborted().limit());
+        return batchable.wrap(buffer(), offsetAt(INDEX_BATCHABLE));
     }
 
+    /*
+     * Forward-only encoder for Transfer, fields must be appended in order
+     */
+    public static final class Builder extends CompositeType.Builder {
+
+        @Override
+        public Builder watch(Consumer<Flyweight> observer) {
+            super.watch(observer);
+            return this;
+        }
+
+        @Override
+        public Builder wrap(MutableDirectBuffer buffer, int offset) {
+            super.wrap(buffer, offset);
+            return this;
+        }
+
+        @Override
+        public Builder begin(int maxLength) {
+            super.begin(maxLength);
+            return this;
+        }
+
+        @Override
+        public Builder fixedWidth(boolean value) {
+            super.fixedWidth(value);
+            return this;
+        }
+
+        public Builder handle(long value) {
+            putUInt(INDEX_HANDLE, value);
+            return this;
+        }
+
+        public Builder deliveryId(long value) {
+            putUInt(INDEX_DELIVERY_ID, value);
+            return this;
+        }
+
+        public Builder deliveryTag(DirectBuffer buffer, int offset, int length) {
+            putBinary(INDEX_DELIVERY_TAG, buffer, offset, length);
+            return this;
+        }
+
+        public Builder messageFormat(long value) {
+            putUInt(INDEX_MESSAGE_FORMAT, value);
+            return this;
+        }
+
+        public Builder settled(boolean value) {
+            putBoolean(INDEX_SETTLED, value);
+            return this;
+        }
+
+        public Builder more(boolean value) {
+            putBoolean(INDEX_MORE, value);
+            return this;
+        }
+
+        /*
+         * Returns the limit once more is appended and the list ended, including any null fields encoded before it
+         */
+        public int moreLimit() {
+            return endLimit(limit() + (INDEX_MORE - count()) + 1);
+        }
+
+        public Builder receiveSettleMode(ReceiverSettleMode value) {
+            putUByte(INDEX_RECEIVE_SETTLE_MODE, ReceiverSettleMode.WRITE.applyAsInt(value));
+            return this;
+        }
+
+        public Builder deliveryState(DirectBuffer buffer, int offset, int length) {
+            putEncoded(INDEX_DELIVERY_STATE, buffer, offset, length);
+            return this;
+        }
+
+        public Builder resume(boolean value) {
+            putBoolean(INDEX_RESUME, value);
+            return this;
+        }
+
+        public Builder aborted(boolean value) {
+            putBoolean(INDEX_ABORTED, value);
+            return this;
+        }
+
+        public Builder batchable(boolean value) {
+            putBoolean(INDEX_BATCHABLE, value);
+            return this;
+        }
+    }
 }
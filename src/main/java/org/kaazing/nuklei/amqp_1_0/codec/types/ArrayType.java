@@ -17,10 +17,12 @@ package org.kaazing.nuklei.amqp_1_0.codec.types;
 
 import static java.lang.Integer.highestOneBit;
 
+import java.util.UUID;
 import java.util.function.Consumer;
 
 import org.kaazing.nuklei.Flyweight;
 import org.kaazing.nuklei.FlyweightBE;
+import org.kaazing.nuklei.function.DirectBufferAccessor;
 
 import uk.co.real_logic.agrona.BitUtil;
 import uk.co.real_logic.agrona.MutableDirectBuffer;
@@ -30,11 +32,31 @@ import uk.co.real_logic.agrona.MutableDirectBuffer;
  */
 public final class ArrayType extends Type {
 
+    private static final short WIDTH_KIND_0_UINT = 0x43;
+    private static final short WIDTH_KIND_0_ULONG = 0x44;
+    private static final short WIDTH_KIND_1_UBYTE = 0x50;
+    private static final short WIDTH_KIND_1_BYTE = 0x51;
+    private static final short WIDTH_KIND_1_UINT = 0x52;
+    private static final short WIDTH_KIND_1_ULONG = 0x53;
+    private static final short WIDTH_KIND_1_INT = 0x54;
+    private static final short WIDTH_KIND_1_LONG = 0x55;
+    private static final short WIDTH_KIND_2_USHORT = 0x60;
+    private static final short WIDTH_KIND_2_SHORT = 0x61;
+    private static final short WIDTH_KIND_4_UINT = 0x70;
+    private static final short WIDTH_KIND_4_INT = 0x71;
+    private static final short WIDTH_KIND_4_CHAR = 0x73;
+    private static final short WIDTH_KIND_8_ULONG = 0x80;
+    private static final short WIDTH_KIND_8_LONG = 0x81;
+    private static final short WIDTH_KIND_8_TIMESTAMP = 0x83;
+    private static final short WIDTH_KIND_16_UUID = 0x98;
+
     private final Header header;
     private final DynamicType elementType;
+    private final Cursor cursor;
     
     public ArrayType() {
         this.elementType = new DynamicType();
+        this.cursor = new Cursor();
         this.header = new Header().watch((owner) -> { elementType().wrap(buffer(), owner.limit()); notifyChanged(); });
     }
 
@@ -94,10 +116,117 @@ public final class ArrayType extends Type {
         header.length(limit - header.lengthLimit());
     }
 
+    /*
+     * Returns the shared element cursor, positioned before the first element.
+     */
+    public Cursor cursor() {
+        return cursor(cursor);
+    }
+
+    public Cursor cursor(Cursor cursor) {
+        return cursor.wrap(buffer(), header.limit(), count());
+    }
+
+    public long getLong(int index) {
+        int formatCode = elementFormatCode();
+        int elementOffset = elementOffset(formatCode, index);
+        switch (formatCode) {
+        case WIDTH_KIND_0_UINT:
+        case WIDTH_KIND_0_ULONG:
+            return 0L;
+        case WIDTH_KIND_1_UBYTE:
+        case WIDTH_KIND_1_UINT:
+        case WIDTH_KIND_1_ULONG:
+            return uint8Get(buffer(), elementOffset);
+        case WIDTH_KIND_1_BYTE:
+        case WIDTH_KIND_1_INT:
+        case WIDTH_KIND_1_LONG:
+            return int8Get(buffer(), elementOffset);
+        case WIDTH_KIND_2_USHORT:
+            return uint16Get(buffer(), elementOffset);
+        case WIDTH_KIND_2_SHORT:
+            return int16Get(buffer(), elementOffset);
+        case WIDTH_KIND_4_UINT:
+            return uint32Get(buffer(), elementOffset);
+        case WIDTH_KIND_4_INT:
+        case WIDTH_KIND_4_CHAR:
+            return int32Get(buffer(), elementOffset);
+        case WIDTH_KIND_8_ULONG:
+        case WIDTH_KIND_8_LONG:
+        case WIDTH_KIND_8_TIMESTAMP:
+            return int64Get(buffer(), elementOffset);
+        default:
+            throw new IllegalStateException();
+        }
+    }
+
+    public int getInt(int index) {
+        int formatCode = elementFormatCode();
+        int elementOffset = elementOffset(formatCode, index);
+        switch (formatCode) {
+        case WIDTH_KIND_0_UINT:
+            return 0;
+        case WIDTH_KIND_1_UBYTE:
+        case WIDTH_KIND_1_UINT:
+            return uint8Get(buffer(), elementOffset);
+        case WIDTH_KIND_1_BYTE:
+        case WIDTH_KIND_1_INT:
+            return int8Get(buffer(), elementOffset);
+        case WIDTH_KIND_2_USHORT:
+            return uint16Get(buffer(), elementOffset);
+        case WIDTH_KIND_2_SHORT:
+            return int16Get(buffer(), elementOffset);
+        case WIDTH_KIND_4_UINT:
+        case WIDTH_KIND_4_INT:
+        case WIDTH_KIND_4_CHAR:
+            return int32Get(buffer(), elementOffset);
+        default:
+            throw new IllegalStateException();
+        }
+    }
+
+    public UUID getUuid(int index) {
+        return new UUID(getUuidMostSignificantBits(index), getUuidLeastSignificantBits(index));
+    }
+
+    public long getUuidMostSignificantBits(int index) {
+        return int64Get(buffer(), uuidOffset(index));
+    }
+
+    public long getUuidLeastSignificantBits(int index) {
+        return int64Get(buffer(), uuidOffset(index) + BitUtil.SIZE_OF_LONG);
+    }
+
     protected final int offsetBody() {
         return header.limit();
     }
 
+    private int elementFormatCode() {
+        return uint8Get(buffer(), header.limit());
+    }
+
+    /*
+     * Elements share a single constructor, so fixed width elements are found by stride without scanning.
+     */
+    private int elementOffset(int formatCode, int index) {
+        int width = DynamicType.fixedWidth(formatCode);
+        if (width == -1) {
+            throw new IllegalStateException();
+        }
+        if (index < 0 || index >= count()) {
+            throw new IndexOutOfBoundsException();
+        }
+        return header.limit() + 1 + index * width;
+    }
+
+    private int uuidOffset(int index) {
+        int formatCode = elementFormatCode();
+        if (formatCode != WIDTH_KIND_16_UUID) {
+            throw new IllegalStateException();
+        }
+        return elementOffset(formatCode, index);
+    }
+
     private DynamicType elementType() {
         elementType.wrap(buffer(), header.limit());
         return elementType;
@@ -254,4 +383,89 @@ public final class ArrayType extends Type {
         }
     }
 
+    /*
+     * Forward-only cursor over array elements, suitable for both fixed width and variable width elements.
+     */
+    public static final class Cursor extends FlyweightBE {
+
+        private int formatCode;
+        private int count;
+        private int index;
+        private int valueOffset;
+        private int valueLength;
+        private int limit;
+
+        @Override
+        public Cursor wrap(MutableDirectBuffer buffer, int offset) {
+            return wrap(buffer, offset, 0);
+        }
+
+        public Cursor wrap(MutableDirectBuffer buffer, int offset, int count) {
+            super.wrap(buffer, offset);
+            this.formatCode = uint8Get(buffer, offset);
+            this.count = count;
+            this.index = -1;
+            this.valueOffset = offset + 1;
+            this.valueLength = 0;
+            this.limit = offset + 1;
+            return this;
+        }
+
+        public boolean hasNext() {
+            return index + 1 < count;
+        }
+
+        public boolean next() {
+            if (!hasNext()) {
+                return false;
+            }
+
+            switch (DynamicType.lengthWidth(formatCode)) {
+            case 0:
+                valueOffset = limit;
+                valueLength = DynamicType.fixedWidth(formatCode);
+                break;
+            case 1:
+                valueOffset = limit + 1;
+                valueLength = uint8Get(buffer(), limit);
+                break;
+            case 4:
+                valueOffset = limit + 4;
+                valueLength = int32Get(buffer(), limit);
+                break;
+            default:
+                throw new IllegalStateException();
+            }
+
+            limit = valueOffset + valueLength;
+            index++;
+            return true;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public int valueOffset() {
+            return valueOffset;
+        }
+
+        public int valueLength() {
+            return valueLength;
+        }
+
+        public <T> T get(DirectBufferAccessor<T> accessor) {
+            return accessor.access(buffer(), valueOffset, valueLength);
+        }
+
+        public int getId(SymbolTable table) {
+            return table.lookup(buffer(), valueOffset, valueLength);
+        }
+
+        @Override
+        public int limit() {
+            return limit;
+        }
+    }
+
 }
@@ -15,12 +15,15 @@
  */
 package org.kaazing.nuklei.amqp_1_0.codec.types;
 
+import java.util.Arrays;
 import java.util.function.Consumer;
 import java.util.function.LongFunction;
 import java.util.function.ToLongFunction;
 
 import org.kaazing.nuklei.Flyweight;
+import org.kaazing.nuklei.FlyweightBE;
 
+import uk.co.real_logic.agrona.DirectBuffer;
 import uk.co.real_logic.agrona.MutableDirectBuffer;
 
 /*
@@ -28,6 +31,17 @@ import uk.co.real_logic.agrona.MutableDirectBuffer;
  */
 public class CompositeType extends ListType {
 
+    private static final int INITIAL_OFFSETS_CAPACITY = 16;
+    private static final short NULL_FORMAT_CODE = 0x40;
+
+    // offsets[i] is the offset of field i, valid for i < offsetsLimit
+    private int[] offsets;
+    private int offsetsLimit;
+
+    public CompositeType() {
+        this.offsets = new int[INITIAL_OFFSETS_CAPACITY];
+    }
+
     @Override
     public CompositeType watch(Consumer<Flyweight> notifier) {
         super.watch(notifier);
@@ -37,14 +51,336 @@ public class CompositeType extends ListType {
     @Override
     public CompositeType wrap(MutableDirectBuffer buffer, int offset) {
         super.wrap(buffer, offset);
+        offsetsLimit = 0;
+        return this;
+    }
+
+    @Override
+    public CompositeType maxLength(int value) {
+        super.maxLength(value);
+        offsetsLimit = 0;
+        return this;
+    }
+
+    @Override
+    public CompositeType maxCount(int value) {
+        super.maxCount(value);
+        offsetsLimit = 0;
+        return this;
+    }
+
+    @Override
+    public CompositeType clear() {
+        super.clear();
         return this;
     }
-    
+
+    /*
+     * Drops trailing null fields from the count, then compacts the list header.
+     */
+    @Override
+    public CompositeType compact() {
+        int count = count();
+        int newCount = count;
+        while (newCount > 0 && uint8Get(buffer(), offsetAt(newCount - 1)) == NULL_FORMAT_CODE) {
+            newCount--;
+        }
+
+        if (newCount != count) {
+            limit(newCount, offsetAt(newCount));
+        }
+
+        super.compact();
+        offsetsLimit = 0;
+        return this;
+    }
+
+    /*
+     * Field offsets are indexed lazily, skipping each preceding field at most once per wrap,
+     * so that accessing fields in any order costs a single array lookup after the first scan.
+     */
+    @Override
+    public int offsetAt(int index) {
+        if (index >= offsetsLimit) {
+            indexTo(index);
+        }
+        return offsets[index];
+    }
+
+    @Override
+    public void limit(int count, int limit) {
+        // fields after count are truncated, field count now ends at limit
+        if (offsetsLimit >= count) {
+            ensureCapacity(count);
+            offsets[count] = limit;
+            offsetsLimit = count + 1;
+        }
+        else {
+            offsetsLimit = Math.min(offsetsLimit, count);
+        }
+        super.limit(count, limit);
+    }
+
+    /*
+     * Returns true when field index is encoded and not null, trailing fields may be omitted
+     */
+    protected final boolean isPresent(int index) {
+        return index < count() && uint8Get(buffer(), offsetAt(index)) != NULL_FORMAT_CODE;
+    }
+
+    /*
+     * Notifies that field index has been encoded, truncating any following fields
+     */
+    protected final Consumer<Flyweight> fieldChanged(int index) {
+        final int count = index + 1;
+        return (owner) -> limit(count, owner.limit());
+    }
+
+    private void indexTo(int index) {
+        ensureCapacity(index);
+
+        if (offsetsLimit == 0) {
+            offsets[0] = offsetBody();
+            offsetsLimit = 1;
+        }
+
+        for (int i = offsetsLimit; i <= index; i++) {
+            offsets[i] = DynamicType.skip(buffer(), offsets[i - 1], 1);
+        }
+
+        offsetsLimit = index + 1;
+    }
+
+    private void ensureCapacity(int index) {
+        if (index >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, Integer.highestOneBit(index) << 1);
+        }
+    }
+
     public <T extends CompositeType> T as(T composite) {
         composite.wrap(buffer(), offset());
         return composite;
     }
 
+    /*
+     * Forward-only encoder that appends fields in order, patching the list header once when complete.
+     * Skipped fields are encoded as null, and watchers are notified only by end().
+     */
+    public static class Builder extends FlyweightBE {
+
+        private static final short WIDTH_KIND_1 = 0xc0;
+        private static final short WIDTH_KIND_4 = 0xd0;
+
+        private static final short NULL = 0x40;
+        private static final short TRUE = 0x41;
+        private static final short FALSE = 0x42;
+        private static final short UINT_0 = 0x43;
+        private static final short ULONG_0 = 0x44;
+        private static final short UBYTE = 0x50;
+        private static final short UINT_1 = 0x52;
+        private static final short ULONG_1 = 0x53;
+        private static final short UINT_4 = 0x70;
+        private static final short ULONG_8 = 0x80;
+        private static final short BINARY_1 = 0xa0;
+        private static final short BINARY_4 = 0xb0;
+
+        private int count;
+        private int limit;
+        private int fieldOffset;
+        private boolean fixedWidth;
+
+        @Override
+        public Builder watch(Consumer<Flyweight> observer) {
+            super.watch(observer);
+            return this;
+        }
+
+        @Override
+        public Builder wrap(MutableDirectBuffer buffer, int offset) {
+            super.wrap(buffer, offset);
+            return this;
+        }
+
+        /*
+         * Starts a new list, choosing the header width from the maximum encoded length as for ListType.maxLength
+         */
+        public Builder begin(int maxLength) {
+            count = 0;
+            fixedWidth = false;
+            if (maxLength <= 0xff) {
+                uint8Put(buffer(), offset(), WIDTH_KIND_1);
+                limit = offset() + 3;
+            }
+            else {
+                uint8Put(buffer(), offset(), WIDTH_KIND_4);
+                limit = offset() + 9;
+            }
+            return this;
+        }
+
+        /*
+         * Writes the list size and count, moving the fields behind a 4-byte header when they outgrow a 1-byte header
+         */
+        public int end() {
+            switch (uint8Get(buffer(), offset())) {
+            case WIDTH_KIND_1:
+                int length = limit - offset() - 2;
+                if (length <= 0xff && count <= 0xff) {
+                    uint8Put(buffer(), offset() + 1, (short) length);
+                    uint8Put(buffer(), offset() + 2, (short) count);
+                    break;
+                }
+                widen();
+                // fall through
+            case WIDTH_KIND_4:
+                int32Put(buffer(), offset() + 1, limit - offset() - 5);
+                int32Put(buffer(), offset() + 5, count);
+                break;
+            default:
+                throw new IllegalStateException();
+            }
+
+            notifyChanged();
+            return limit;
+        }
+
+        /*
+         * Returns the limit end() produces for fields encoded up to limit, including any header widening
+         */
+        public int endLimit(int limit) {
+            boolean widened = uint8Get(buffer(), offset()) == WIDTH_KIND_1 && limit - offset() - 2 > 0xff;
+            return widened ? limit + 6 : limit;
+        }
+
+        /*
+         * Encodes uint fields with 4-byte width regardless of value, so they can be patched in place later
+         */
+        public Builder fixedWidth(boolean value) {
+            fixedWidth = value;
+            return this;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        /*
+         * Returns the offset of the most recently appended field
+         */
+        public int fieldOffset() {
+            return fieldOffset;
+        }
+
+        @Override
+        public int limit() {
+            return limit;
+        }
+
+        private void widen() {
+            // copy backwards, as the fields move 6 bytes forward over themselves
+            MutableDirectBuffer buffer = buffer();
+            for (int i = limit - 1; i >= offset() + 3; i--) {
+                buffer.putByte(i + 6, buffer.getByte(i));
+            }
+            uint8Put(buffer, offset(), WIDTH_KIND_4);
+            fieldOffset += 6;
+            limit += 6;
+        }
+
+        protected final void putNull(int index) {
+            field(index);
+            put(NULL);
+        }
+
+        protected final void putBoolean(int index, boolean value) {
+            field(index);
+            put(value ? TRUE : FALSE);
+        }
+
+        protected final void putUByte(int index, int value) {
+            field(index);
+            put(UBYTE);
+            put((short) value);
+        }
+
+        protected final void putUInt(int index, long value) {
+            field(index);
+            if (fixedWidth) {
+                put(UINT_4);
+                uint32Put(buffer(), limit, value);
+                limit += 4;
+            }
+            else if (value == 0L) {
+                put(UINT_0);
+            }
+            else if ((value & ~0xffL) == 0L) {
+                put(UINT_1);
+                put((short) value);
+            }
+            else {
+                put(UINT_4);
+                uint32Put(buffer(), limit, value);
+                limit += 4;
+            }
+        }
+
+        protected final void putULong(int index, long value) {
+            field(index);
+            if (value == 0L) {
+                put(ULONG_0);
+            }
+            else if ((value & ~0xffL) == 0L) {
+                put(ULONG_1);
+                put((short) value);
+            }
+            else {
+                put(ULONG_8);
+                int64Put(buffer(), limit, value);
+                limit += 8;
+            }
+        }
+
+        protected final void putBinary(int index, DirectBuffer value, int valueOffset, int valueLength) {
+            field(index);
+            if (valueLength <= 0xff) {
+                put(BINARY_1);
+                put((short) valueLength);
+            }
+            else {
+                put(BINARY_4);
+                int32Put(buffer(), limit, valueLength);
+                limit += 4;
+            }
+            buffer().putBytes(limit, value, valueOffset, valueLength);
+            limit += valueLength;
+        }
+
+        /*
+         * Appends a field that has already been encoded, such as a described delivery state
+         */
+        protected final void putEncoded(int index, DirectBuffer value, int valueOffset, int valueLength) {
+            field(index);
+            buffer().putBytes(limit, value, valueOffset, valueLength);
+            limit += valueLength;
+        }
+
+        private void field(int index) {
+            if (index < count) {
+                throw new IllegalStateException();
+            }
+            while (count < index) {
+                put(NULL);
+                count++;
+            }
+            count++;
+            fieldOffset = limit;
+        }
+
+        private void put(short value) {
+            uint8Put(buffer(), limit++, value);
+        }
+    }
+
     public static class Described extends Type {
 
         private final ULongType.Descriptor descriptor;
@@ -15,16 +15,17 @@
  */
 package org.kaazing.nuklei.amqp_1_0.codec.types;
 
-import static java.lang.Double.doubleToLongBits;
-import static java.lang.Double.longBitsToDouble;
 import static java.math.MathContext.DECIMAL128;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 
 import uk.co.real_logic.agrona.MutableDirectBuffer;
 
 /*
  * See AMQP 1.0 specification, section 1.6.15 "decimal128"
+ *
+ * Encoded as IEEE 754-2008 decimal128 with binary integer coefficient, value is unscaled value * 10^exponent.
  */
 public final class Decimal128Type extends Type {
 
@@ -41,6 +42,16 @@ public final class Decimal128Type extends Type {
     
     private static final short WIDTH_KIND_16 = 0x94;
 
+    private static final int EXPONENT_BIAS = 6176;
+    private static final int MIN_EXPONENT = -6176;
+    private static final int MAX_EXPONENT = 6111;
+    private static final BigInteger MAX_COEFFICIENT = BigInteger.TEN.pow(34).subtract(BigInteger.ONE);
+
+    private static final long SIGN_MASK = 0x8000000000000000L;
+    private static final long LARGE_COEFFICIENT_MASK = 0x6000000000000000L;
+    private static final long SPECIAL_MASK = 0x7800000000000000L;
+    private static final long HIGH_COEFFICIENT_MASK = 0x1ffffffffffffL;
+
     @Override
     public Kind kind() {
         return Kind.DECIMAL128;
@@ -53,22 +64,77 @@ public final class Decimal128Type extends Type {
     }
 
     public Decimal128Type set(BigDecimal value) {
-        widthKind(WIDTH_KIND_16);
-        int64Put(buffer(), offset() + OFFSET_HIGH_VALUE, toLongHighBits(value));
-        int64Put(buffer(), offset() + OFFSET_LOW_VALUE, toLongLowBits(value));
-        notifyChanged();
+        BigDecimal rounded = value.round(DECIMAL128);
+        BigInteger coefficient = rounded.unscaledValue().abs();
+        int exponent = -rounded.scale();
+        if (exponent < MIN_EXPONENT || exponent > MAX_EXPONENT) {
+            throw new IllegalArgumentException();
+        }
+
+        long sign = (rounded.signum() < 0) ? SIGN_MASK : 0L;
+        long highCoefficient = coefficient.shiftRight(Long.SIZE).longValue();
+        putBits(sign | (long) (exponent + EXPONENT_BIAS) << 49 | highCoefficient, coefficient.longValue());
         return this;
     }
 
     public BigDecimal get() {
-        switch (widthKind()) {
-        case WIDTH_KIND_16:
-            long high = int64Get(buffer(), offset() + OFFSET_HIGH_VALUE);
-            long low = int64Get(buffer(), offset() + OFFSET_LOW_VALUE);
-            return fromLongBits(high, low);
-        default:
+        long high = highBits();
+        int exponent = getExponent();
+        BigInteger coefficient;
+        if ((high & LARGE_COEFFICIENT_MASK) == LARGE_COEFFICIENT_MASK) {
+            coefficient = BigInteger.ZERO;
+        }
+        else {
+            long low = lowBits();
+            coefficient = BigInteger.valueOf(high & HIGH_COEFFICIENT_MASK).shiftLeft(Long.SIZE)
+                                    .or(BigInteger.valueOf(low >>> 1).shiftLeft(1))
+                                    .or(BigInteger.valueOf(low & 1L));
+            coefficient = (coefficient.compareTo(MAX_COEFFICIENT) > 0) ? BigInteger.ZERO : coefficient;
+        }
+        return new BigDecimal((high < 0) ? coefficient.negate() : coefficient, -exponent);
+    }
+
+    public Decimal128Type set(long unscaledValue, int exponent) {
+        if (exponent < MIN_EXPONENT || exponent > MAX_EXPONENT) {
+            throw new IllegalArgumentException();
+        }
+
+        long sign = (unscaledValue < 0) ? SIGN_MASK : 0L;
+        long coefficient = (unscaledValue < 0) ? -unscaledValue : unscaledValue;
+        putBits(sign | (long) (exponent + EXPONENT_BIAS) << 49, coefficient);
+        return this;
+    }
+
+    /*
+     * Returns the unscaled value when the coefficient fits in a long, see get() otherwise
+     */
+    public long getUnscaledValue() {
+        long high = highBits();
+        if ((high & SPECIAL_MASK) == SPECIAL_MASK) {
             throw new IllegalStateException();
         }
+        else if ((high & LARGE_COEFFICIENT_MASK) == LARGE_COEFFICIENT_MASK) {
+            return 0L;
+        }
+
+        long low = lowBits();
+        if ((high & HIGH_COEFFICIENT_MASK) != 0L || low < 0L) {
+            throw new IllegalStateException();
+        }
+        return (high < 0) ? -low : low;
+    }
+
+    public int getExponent() {
+        long high = highBits();
+        if ((high & SPECIAL_MASK) == SPECIAL_MASK) {
+            throw new IllegalStateException();
+        }
+        else if ((high & LARGE_COEFFICIENT_MASK) == LARGE_COEFFICIENT_MASK) {
+            return (int) ((high >>> 47) & 0x3fff) - EXPONENT_BIAS;
+        }
+        else {
+            return (int) ((high >>> 49) & 0x3fff) - EXPONENT_BIAS;
+        }
     }
 
     public int limit() {
@@ -83,19 +149,23 @@ public final class Decimal128Type extends Type {
         return uint8Get(buffer(), offset() + OFFSET_KIND);
     }
 
-    private long toLongHighBits(BigDecimal value) {
-        // TODO: use IEEE 754 decimal128 format (not binary128)
-        return doubleToLongBits(value.doubleValue());
+    private void putBits(long high, long low) {
+        widthKind(WIDTH_KIND_16);
+        int64Put(buffer(), offset() + OFFSET_HIGH_VALUE, high);
+        int64Put(buffer(), offset() + OFFSET_LOW_VALUE, low);
+        notifyChanged();
     }
 
-    private long toLongLowBits(BigDecimal value) {
-        // TODO: use IEEE 754 decimal128 format (not binary128)
-        return doubleToLongBits(value.doubleValue());
-    }
-    
-    private BigDecimal fromLongBits(long high, long low) {
-        // TODO: use IEEE 754 decimal128 format (not binary128)
-        return new BigDecimal(longBitsToDouble(low), DECIMAL128);
+    private long highBits() {
+        switch (widthKind()) {
+        case WIDTH_KIND_16:
+            return int64Get(buffer(), offset() + OFFSET_HIGH_VALUE);
+        default:
+            throw new IllegalStateException();
+        }
     }
 
+    private long lowBits() {
+        return int64Get(buffer(), offset() + OFFSET_LOW_VALUE);
+    }
 }
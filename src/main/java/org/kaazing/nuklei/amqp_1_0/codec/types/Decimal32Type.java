@@ -15,8 +15,6 @@
  */
 package org.kaazing.nuklei.amqp_1_0.codec.types;
 
-import static java.lang.Float.floatToIntBits;
-import static java.lang.Float.intBitsToFloat;
 import static java.math.MathContext.DECIMAL32;
 
 import java.math.BigDecimal;
@@ -29,6 +27,8 @@ import uk.co.real_logic.agrona.MutableDirectBuffer;
 
 /*
  * See AMQP 1.0 specification, section 1.6.13 "decimal32"
+ *
+ * Encoded as IEEE 754-2008 decimal32 with binary integer coefficient, value is unscaled value * 10^exponent.
  */
 public final class Decimal32Type extends Type {
 
@@ -42,6 +42,15 @@ public final class Decimal32Type extends Type {
     
     private static final short WIDTH_KIND_4 = 0x74;
 
+    private static final int EXPONENT_BIAS = 101;
+    private static final int MIN_EXPONENT = -101;
+    private static final int MAX_EXPONENT = 90;
+    private static final long MAX_COEFFICIENT = 9_999_999L;
+
+    private static final int SIGN_MASK = 0x80000000;
+    private static final int LARGE_COEFFICIENT_MASK = 0x60000000;
+    private static final int SPECIAL_MASK = 0x78000000;
+
     @Override
     public Kind kind() {
         return Kind.DECIMAL32;
@@ -60,19 +69,71 @@ public final class Decimal32Type extends Type {
     }
 
     public Decimal32Type set(BigDecimal value) {
+        BigDecimal rounded = value.round(DECIMAL32);
+        return set(rounded.unscaledValue().longValue(), -rounded.scale());
+    }
+
+    public BigDecimal get() {
+        return BigDecimal.valueOf(getUnscaledValue(), -getExponent());
+    }
+
+    public Decimal32Type set(long unscaledValue, int exponent) {
+        if (unscaledValue == Long.MIN_VALUE) {
+            throw new IllegalArgumentException();
+        }
+
+        long coefficient = Math.abs(unscaledValue);
+        while (coefficient % 10 == 0 && coefficient != 0 && (coefficient > MAX_COEFFICIENT || exponent < MIN_EXPONENT)) {
+            coefficient /= 10;
+            exponent++;
+        }
+        while (coefficient * 10 <= MAX_COEFFICIENT && exponent > MAX_EXPONENT) {
+            coefficient *= 10;
+            exponent--;
+        }
+        if (coefficient > MAX_COEFFICIENT || exponent < MIN_EXPONENT || exponent > MAX_EXPONENT) {
+            throw new IllegalArgumentException();
+        }
+
+        int sign = (unscaledValue < 0) ? SIGN_MASK : 0;
+        int biasedExponent = exponent + EXPONENT_BIAS;
+        int bits = (coefficient < (1L << 23))
+                ? sign | biasedExponent << 23 | (int) coefficient
+                : sign | LARGE_COEFFICIENT_MASK | biasedExponent << 21 | ((int) coefficient & 0x1fffff);
+
         widthKind(WIDTH_KIND_4);
-        int32Put(buffer(), offset() + OFFSET_VALUE, toIntBits(value));
+        int32Put(buffer(), offset() + OFFSET_VALUE, bits);
         notifyChanged();
         return this;
     }
 
-    public BigDecimal get() {
-        switch (widthKind()) {
-        case WIDTH_KIND_4:
-            return fromIntBits(int32Get(buffer(), offset() + OFFSET_VALUE));
-        default:
+    public long getUnscaledValue() {
+        int bits = bits();
+        long coefficient;
+        if ((bits & SPECIAL_MASK) == SPECIAL_MASK) {
             throw new IllegalStateException();
         }
+        else if ((bits & LARGE_COEFFICIENT_MASK) == LARGE_COEFFICIENT_MASK) {
+            coefficient = 0x800000L | (bits & 0x1fffff);
+            coefficient = (coefficient > MAX_COEFFICIENT) ? 0L : coefficient;
+        }
+        else {
+            coefficient = bits & 0x7fffff;
+        }
+        return (bits < 0) ? -coefficient : coefficient;
+    }
+
+    public int getExponent() {
+        int bits = bits();
+        if ((bits & SPECIAL_MASK) == SPECIAL_MASK) {
+            throw new IllegalStateException();
+        }
+        else if ((bits & LARGE_COEFFICIENT_MASK) == LARGE_COEFFICIENT_MASK) {
+            return ((bits >>> 21) & 0xff) - EXPONENT_BIAS;
+        }
+        else {
+            return ((bits >>> 23) & 0xff) - EXPONENT_BIAS;
+        }
     }
 
     public int limit() {
@@ -92,13 +153,12 @@ public final class Decimal32Type extends Type {
         return uint8Get(buffer(), offset() + OFFSET_KIND);
     }
 
-    private int toIntBits(BigDecimal value) {
-        // TODO: use IEEE 754 decimal32 format (not binary32)
-        return floatToIntBits(value.floatValue());
-    }
-    
-    private BigDecimal fromIntBits(int value) {
-        // TODO: use IEEE 754 decimal32 format (not binary32)
-        return new BigDecimal(intBitsToFloat(value), DECIMAL32);
+    private int bits() {
+        switch (widthKind()) {
+        case WIDTH_KIND_4:
+            return int32Get(buffer(), offset() + OFFSET_VALUE);
+        default:
+            throw new IllegalStateException();
+        }
     }
 }
@@ -15,8 +15,6 @@
  */
 package org.kaazing.nuklei.amqp_1_0.codec.types;
 
-import static java.lang.Double.doubleToLongBits;
-import static java.lang.Double.longBitsToDouble;
 import static java.math.MathContext.DECIMAL64;
 
 import java.math.BigDecimal;
@@ -29,6 +27,8 @@ import uk.co.real_logic.agrona.MutableDirectBuffer;
 
 /*
  * See AMQP 1.0 specification, section 1.6.14 "decimal64"
+ *
+ * Encoded as IEEE 754-2008 decimal64 with binary integer coefficient, value is unscaled value * 10^exponent.
  */
 public final class Decimal64Type extends Type {
 
@@ -36,12 +36,21 @@ public final class Decimal64Type extends Type {
     private static final int SIZEOF_KIND = BitUtil.SIZE_OF_BYTE;
 
     private static final int OFFSET_VALUE = OFFSET_KIND + SIZEOF_KIND;
-    private static final int SIZEOF_VALUE_MAX = BitUtil.SIZE_OF_INT;
+    private static final int SIZEOF_VALUE_MAX = BitUtil.SIZE_OF_LONG;
 
     static final int SIZEOF_INT_MAX = SIZEOF_KIND + SIZEOF_VALUE_MAX;
     
     private static final short WIDTH_KIND_8 = 0x84;
 
+    private static final int EXPONENT_BIAS = 398;
+    private static final int MIN_EXPONENT = -398;
+    private static final int MAX_EXPONENT = 369;
+    private static final long MAX_COEFFICIENT = 9_999_999_999_999_999L;
+
+    private static final long SIGN_MASK = 0x8000000000000000L;
+    private static final long LARGE_COEFFICIENT_MASK = 0x6000000000000000L;
+    private static final long SPECIAL_MASK = 0x7800000000000000L;
+
     @Override
     public Kind kind() {
         return Kind.DECIMAL64;
@@ -60,19 +69,71 @@ public final class Decimal64Type extends Type {
     }
 
     public Decimal64Type set(BigDecimal value) {
+        BigDecimal rounded = value.round(DECIMAL64);
+        return set(rounded.unscaledValue().longValue(), -rounded.scale());
+    }
+
+    public BigDecimal get() {
+        return BigDecimal.valueOf(getUnscaledValue(), -getExponent());
+    }
+
+    public Decimal64Type set(long unscaledValue, int exponent) {
+        if (unscaledValue == Long.MIN_VALUE) {
+            throw new IllegalArgumentException();
+        }
+
+        long coefficient = Math.abs(unscaledValue);
+        while (coefficient % 10 == 0 && coefficient != 0 && (coefficient > MAX_COEFFICIENT || exponent < MIN_EXPONENT)) {
+            coefficient /= 10;
+            exponent++;
+        }
+        while (coefficient * 10 <= MAX_COEFFICIENT && exponent > MAX_EXPONENT) {
+            coefficient *= 10;
+            exponent--;
+        }
+        if (coefficient > MAX_COEFFICIENT || exponent < MIN_EXPONENT || exponent > MAX_EXPONENT) {
+            throw new IllegalArgumentException();
+        }
+
+        long sign = (unscaledValue < 0) ? SIGN_MASK : 0L;
+        long biasedExponent = exponent + EXPONENT_BIAS;
+        long bits = (coefficient < (1L << 53))
+                ? sign | biasedExponent << 53 | coefficient
+                : sign | LARGE_COEFFICIENT_MASK | biasedExponent << 51 | (coefficient & 0x7ffffffffffffL);
+
         widthKind(WIDTH_KIND_8);
-        int64Put(buffer(), offset() + OFFSET_VALUE, toLongBits(value));
+        int64Put(buffer(), offset() + OFFSET_VALUE, bits);
         notifyChanged();
         return this;
     }
 
-    public BigDecimal get() {
-        switch (widthKind()) {
-        case WIDTH_KIND_8:
-            return fromLongBits(int64Get(buffer(), offset() + OFFSET_VALUE));
-        default:
+    public long getUnscaledValue() {
+        long bits = bits();
+        long coefficient;
+        if ((bits & SPECIAL_MASK) == SPECIAL_MASK) {
             throw new IllegalStateException();
         }
+        else if ((bits & LARGE_COEFFICIENT_MASK) == LARGE_COEFFICIENT_MASK) {
+            coefficient = 0x20000000000000L | (bits & 0x7ffffffffffffL);
+            coefficient = (coefficient > MAX_COEFFICIENT) ? 0L : coefficient;
+        }
+        else {
+            coefficient = bits & 0x1fffffffffffffL;
+        }
+        return (bits < 0) ? -coefficient : coefficient;
+    }
+
+    public int getExponent() {
+        long bits = bits();
+        if ((bits & SPECIAL_MASK) == SPECIAL_MASK) {
+            throw new IllegalStateException();
+        }
+        else if ((bits & LARGE_COEFFICIENT_MASK) == LARGE_COEFFICIENT_MASK) {
+            return (int) ((bits >>> 51) & 0x3ff) - EXPONENT_BIAS;
+        }
+        else {
+            return (int) ((bits >>> 53) & 0x3ff) - EXPONENT_BIAS;
+        }
     }
 
     public int limit() {
@@ -92,14 +153,12 @@ public final class Decimal64Type extends Type {
         return uint8Get(buffer(), offset() + OFFSET_KIND);
     }
 
-    private long toLongBits(BigDecimal value) {
-        // TODO: use IEEE 754 decimal64 format (not binary64)
-        return doubleToLongBits(value.doubleValue());
-    }
-    
-    private BigDecimal fromLongBits(long value) {
-        // TODO: use IEEE 754 decimal64 format (not binary64)
-        return new BigDecimal(longBitsToDouble(value), DECIMAL64);
+    private long bits() {
+        switch (widthKind()) {
+        case WIDTH_KIND_8:
+            return int64Get(buffer(), offset() + OFFSET_VALUE);
+        default:
+            throw new IllegalStateException();
+        }
     }
-
 }
@@ -15,14 +15,20 @@
  */
 package org.kaazing.nuklei.amqp_1_0.codec.types;
 
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static uk.co.real_logic.agrona.BitUtil.SIZE_OF_LONG;
+
+import java.util.Arrays;
 import java.util.function.Consumer;
 
 import org.kaazing.nuklei.Flyweight;
 
+import uk.co.real_logic.agrona.DirectBuffer;
 import uk.co.real_logic.agrona.MutableDirectBuffer;
 
 public class DynamicType extends Type {
 
+    private static final int DESCRIBED = 0x00;
     private static final int WIDTH_KIND_0_NULL = 0x40;
     private static final int WIDTH_KIND_0_TRUE = 0x41;
     private static final int WIDTH_KIND_0_FALSE = 0x42;
@@ -63,76 +69,65 @@ public class DynamicType extends Type {
     private static final int WIDTH_KIND_1_ARRAY = 0xe0;
     private static final int WIDTH_KIND_4_ARRAY = 0xf0;
     
+    private static final Kind[] KINDS = new Kind[256];
+    private static final int[] WIDTHS = new int[256];
+    private static final int[] LENGTH_WIDTHS = new int[256];
+
+    // encoded length including the format code for fixed width format codes, zero otherwise
+    private static final int[] FIXED_LENGTHS = new int[256];
+
+    static {
+        Arrays.fill(LENGTH_WIDTHS, -1);
+
+        KINDS[DESCRIBED] = Kind.DESCRIBED;
+        constructor(WIDTH_KIND_0_NULL, Kind.NULL, 0, 0);
+        constructor(WIDTH_KIND_0_TRUE, Kind.BOOLEAN, 0, 0);
+        constructor(WIDTH_KIND_0_FALSE, Kind.BOOLEAN, 0, 0);
+        constructor(WIDTH_KIND_0_UINT, Kind.UINT, 0, 0);
+        constructor(WIDTH_KIND_0_ULONG, Kind.ULONG, 0, 0);
+        constructor(WIDTH_KIND_0_LIST, Kind.LIST, 0, 0);
+        constructor(WIDTH_KIND_1_UBYTE, Kind.UBYTE, 1, 0);
+        constructor(WIDTH_KIND_1_BYTE, Kind.BYTE, 1, 0);
+        constructor(WIDTH_KIND_1_UINT, Kind.UINT, 1, 0);
+        constructor(WIDTH_KIND_1_ULONG, Kind.ULONG, 1, 0);
+        constructor(WIDTH_KIND_1_INT, Kind.INT, 1, 0);
+        constructor(WIDTH_KIND_1_LONG, Kind.LONG, 1, 0);
+        constructor(WIDTH_KIND_1_BOOLEAN, Kind.BOOLEAN, 1, 0);
+        constructor(WIDTH_KIND_2_USHORT, Kind.USHORT, 2, 0);
+        constructor(WIDTH_KIND_2_SHORT, Kind.SHORT, 2, 0);
+        constructor(WIDTH_KIND_4_UINT, Kind.UINT, 4, 0);
+        constructor(WIDTH_KIND_4_INT, Kind.INT, 4, 0);
+        constructor(WIDTH_KIND_4_FLOAT, Kind.FLOAT, 4, 0);
+        constructor(WIDTH_KIND_4_CHAR, Kind.CHAR, 4, 0);
+        constructor(WIDTH_KIND_4_DECIMAL32, Kind.DECIMAL32, 4, 0);
+        constructor(WIDTH_KIND_8_ULONG, Kind.ULONG, 8, 0);
+        constructor(WIDTH_KIND_8_LONG, Kind.LONG, 8, 0);
+        constructor(WIDTH_KIND_8_DOUBLE, Kind.DOUBLE, 8, 0);
+        constructor(WIDTH_KIND_8_TIMESTAMP, Kind.TIMESTAMP, 8, 0);
+        constructor(WIDTH_KIND_8_DECIMAL64, Kind.DECIMAL64, 8, 0);
+        constructor(WIDTH_KIND_16_DECIMAL128, Kind.DECIMAL128, 16, 0);
+        constructor(WIDTH_KIND_16_UUID, Kind.UUID, 16, 0);
+        constructor(WIDTH_KIND_1_BINARY, Kind.BINARY, 1, 1);
+        constructor(WIDTH_KIND_1_STRING, Kind.STRING, 1, 1);
+        constructor(WIDTH_KIND_1_SYMBOL, Kind.SYMBOL, 1, 1);
+        constructor(WIDTH_KIND_4_BINARY, Kind.BINARY, 4, 4);
+        constructor(WIDTH_KIND_4_STRING, Kind.STRING, 4, 4);
+        constructor(WIDTH_KIND_4_SYMBOL, Kind.SYMBOL, 4, 4);
+        constructor(WIDTH_KIND_1_LIST, Kind.LIST, 1, 1);
+        constructor(WIDTH_KIND_1_MAP, Kind.MAP, 1, 1);
+        constructor(WIDTH_KIND_4_LIST, Kind.LIST, 4, 4);
+        constructor(WIDTH_KIND_4_MAP, Kind.MAP, 4, 4);
+        constructor(WIDTH_KIND_1_ARRAY, Kind.ARRAY, 1, 1);
+        constructor(WIDTH_KIND_4_ARRAY, Kind.ARRAY, 4, 4);
+    }
+
     @Override
     public Kind kind() {
-        switch (uint8Get(buffer(), offset())) {
-        case WIDTH_KIND_1_ARRAY:
-        case WIDTH_KIND_4_ARRAY:
-            return Kind.ARRAY;
-        case WIDTH_KIND_1_BINARY:
-        case WIDTH_KIND_4_BINARY:
-            return Kind.BINARY;
-        case WIDTH_KIND_0_TRUE:
-        case WIDTH_KIND_0_FALSE:
-        case WIDTH_KIND_1_BOOLEAN:
-            return Kind.BOOLEAN;
-        case WIDTH_KIND_1_BYTE:
-            return Kind.BYTE;
-        case WIDTH_KIND_4_CHAR:
-            return Kind.CHAR;
-        case WIDTH_KIND_16_DECIMAL128:
-            return Kind.DECIMAL128;
-        case WIDTH_KIND_4_DECIMAL32:
-            return Kind.DECIMAL32;
-        case WIDTH_KIND_8_DECIMAL64:
-            return Kind.DECIMAL64;
-        case WIDTH_KIND_8_DOUBLE:
-            return Kind.DOUBLE;
-        case WIDTH_KIND_4_FLOAT:
-            return Kind.FLOAT;
-        case WIDTH_KIND_1_INT:
-        case WIDTH_KIND_4_INT:
-            return Kind.INT;
-        case WIDTH_KIND_0_LIST:
-        case WIDTH_KIND_1_LIST:
-        case WIDTH_KIND_4_LIST:
-            return Kind.LIST;
-        case WIDTH_KIND_1_LONG:
-        case WIDTH_KIND_8_LONG:
-            return Kind.LONG;
-        case WIDTH_KIND_1_MAP:
-        case WIDTH_KIND_4_MAP:
-            return Kind.MAP;
-        case WIDTH_KIND_0_NULL:
-            return Kind.NULL;
-        case WIDTH_KIND_2_SHORT:
-            return Kind.SHORT;
-        case WIDTH_KIND_1_STRING:
-        case WIDTH_KIND_4_STRING:
-            return Kind.STRING;
-        case WIDTH_KIND_1_SYMBOL:
-        case WIDTH_KIND_4_SYMBOL:
-            return Kind.SYMBOL;
-        case WIDTH_KIND_8_TIMESTAMP:
-            return Kind.TIMESTAMP;
-        case WIDTH_KIND_1_UBYTE:
-            return Kind.UBYTE;
-        case WIDTH_KIND_0_UINT:
-        case WIDTH_KIND_1_UINT:
-        case WIDTH_KIND_4_UINT:
-            return Kind.UINT;
-        case WIDTH_KIND_0_ULONG:
-        case WIDTH_KIND_1_ULONG:
-            return Kind.ULONG;
-        case WIDTH_KIND_2_USHORT:
-            return Kind.USHORT;
-        case WIDTH_KIND_8_ULONG:
-            return Kind.ULONG;
-        case WIDTH_KIND_16_UUID:
-            return Kind.UUID;
-        default:
+        Kind kind = KINDS[uint8Get(buffer(), offset())];
+        if (kind == null) {
             throw new IllegalArgumentException();
         }
+        return kind;
     }
 
     @Override
@@ -148,60 +143,89 @@ public class DynamicType extends Type {
     }
 
     public int limit() {
-        switch (uint8Get(buffer(), offset())) {
-        case WIDTH_KIND_0_NULL:
-        case WIDTH_KIND_0_TRUE:
-        case WIDTH_KIND_0_FALSE:
-        case WIDTH_KIND_0_UINT:
-        case WIDTH_KIND_0_ULONG:
-        case WIDTH_KIND_0_LIST:
-            return offset() + 1;
-        case WIDTH_KIND_1_UBYTE:
-        case WIDTH_KIND_1_BYTE:
-        case WIDTH_KIND_1_UINT:
-        case WIDTH_KIND_1_ULONG:
-        case WIDTH_KIND_1_INT:
-        case WIDTH_KIND_1_LONG:
-        case WIDTH_KIND_1_BOOLEAN:
-            return offset() + 2;
-        case WIDTH_KIND_2_USHORT:
-        case WIDTH_KIND_2_SHORT:
-            return offset() + 3;
-        case WIDTH_KIND_4_UINT:
-        case WIDTH_KIND_4_INT:
-        case WIDTH_KIND_4_FLOAT:
-        case WIDTH_KIND_4_CHAR:
-        case WIDTH_KIND_4_DECIMAL32:
-            return offset() + 5;
-        case WIDTH_KIND_8_ULONG:
-        case WIDTH_KIND_8_LONG:
-        case WIDTH_KIND_8_DOUBLE:
-        case WIDTH_KIND_8_TIMESTAMP:
-        case WIDTH_KIND_8_DECIMAL64:
-            return offset() + 9;
-        case WIDTH_KIND_16_DECIMAL128:
-        case WIDTH_KIND_16_UUID:
-            return offset() + 17;
-        case WIDTH_KIND_1_ARRAY:
-            return offset() + 3;
-        case WIDTH_KIND_4_ARRAY:
-            return offset() + 9;
-        case WIDTH_KIND_1_BINARY:
-        case WIDTH_KIND_1_STRING:
-        case WIDTH_KIND_1_SYMBOL:
-            return offset() + 2 + uint8Get(buffer(), offset() + 1);
-        case WIDTH_KIND_1_LIST:
-        case WIDTH_KIND_1_MAP:
-            return offset() + 2 + uint8Get(buffer(), offset() + 1);
-        case WIDTH_KIND_4_BINARY:
-        case WIDTH_KIND_4_STRING:
-        case WIDTH_KIND_4_SYMBOL:
-            return offset() + 5 + int32Get(buffer(), offset() + 1);
-        case WIDTH_KIND_4_LIST:
-        case WIDTH_KIND_4_MAP:
-            return offset() + 9 + int32Get(buffer(), offset() + 5);
+        return skip(buffer(), offset(), 1);
+    }
+
+    /*
+     * Returns the number of bytes following a fixed width format code, or -1 for variable width format codes.
+     */
+    public static int fixedWidth(int formatCode) {
+        return (LENGTH_WIDTHS[formatCode] == 0) ? WIDTHS[formatCode] : -1;
+    }
+
+    public static int lengthWidth(int formatCode) {
+        return LENGTH_WIDTHS[formatCode];
+    }
+
+    /*
+     * Returns the offset following count consecutive encoded values starting at offset, without wrapping them.
+     *
+     * Format codes and 1-byte length prefixes are read eight bytes at a time, so runs of fixed width and short
+     * variable width values, typical of annotation and property maps, advance from a single word read with one
+     * table lookup per value.  Described values and 4-byte length prefixes fall back to skipping one value.
+     */
+    public static int skip(DirectBuffer buffer, int offset, int count) {
+        int wordLimit = buffer.capacity() - SIZE_OF_LONG;
+        while (count > 0) {
+            int consumed = 0;
+            if (offset <= wordLimit) {
+                long word = buffer.getLong(offset, BIG_ENDIAN);
+                while (count > 0 && consumed < SIZE_OF_LONG) {
+                    int formatCode = (int) (word >>> ((SIZE_OF_LONG - 1 - consumed) << 3)) & 0xff;
+                    int fixedLength = FIXED_LENGTHS[formatCode];
+                    if (fixedLength != 0) {
+                        consumed += fixedLength;
+                    }
+                    else if (LENGTH_WIDTHS[formatCode] == 1 && consumed < SIZE_OF_LONG - 1) {
+                        consumed += 2 + ((int) (word >>> ((SIZE_OF_LONG - 2 - consumed) << 3)) & 0xff);
+                    }
+                    else {
+                        break;
+                    }
+                    count--;
+                }
+            }
+
+            if (consumed != 0) {
+                offset += consumed;
+            }
+            else {
+                offset = skipOne(buffer, offset);
+                count--;
+            }
+        }
+        return offset;
+    }
+
+    /*
+     * Described values are a descriptor followed by the value, which may itself be described,
+     * descriptors themselves must not be described
+     */
+    private static int skipOne(DirectBuffer buffer, int offset) {
+        int formatCode = uint8Get(buffer, offset);
+        switch (LENGTH_WIDTHS[formatCode]) {
+        case 0:
+            return offset + FIXED_LENGTHS[formatCode];
+        case 1:
+            return offset + 2 + uint8Get(buffer, offset + 1);
+        case 4:
+            return offset + 5 + buffer.getInt(offset + 1, BIG_ENDIAN);
         default:
-            throw new IllegalArgumentException();
-        }        
+            if (formatCode != DESCRIBED || uint8Get(buffer, offset + 1) == DESCRIBED) {
+                throw new IllegalArgumentException();
+            }
+            return skip(buffer, skipOne(buffer, offset + 1), 1);
+        }
+    }
+
+    /*
+     * Width is the number of bytes following the format code, including any length prefix,
+     * and length width is the size of the length prefix, if any.
+     */
+    private static void constructor(int formatCode, Kind kind, int width, int lengthWidth) {
+        KINDS[formatCode] = kind;
+        WIDTHS[formatCode] = width;
+        LENGTH_WIDTHS[formatCode] = lengthWidth;
+        FIXED_LENGTHS[formatCode] = (lengthWidth == 0) ? 1 + width : 0;
     }
 }
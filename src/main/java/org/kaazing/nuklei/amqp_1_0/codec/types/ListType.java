@@ -30,13 +30,13 @@ import uk.co.real_logic.agrona.MutableDirectBuffer;
  */
 public class ListType extends Type {
 
+    private static final int SIZEOF_COUNT_1 = BitUtil.SIZE_OF_BYTE;
+
     private final Header header;
-    private final DynamicType dynamic;
     
     public ListType() {
         super();
         this.header = new Header().watch((owner) -> notifyChanged());
-        this.dynamic = new DynamicType();
     }
 
     @Override
@@ -58,11 +58,7 @@ public class ListType extends Type {
     }
     
     public int offsetAt(int index) {
-        int offsetAt = offsetBody();
-        for (; index > 0; index--) {
-            offsetAt = dynamic.wrap(buffer(), offsetAt).limit();
-        }
-        return offsetAt;
+        return DynamicType.skip(buffer(), offsetBody(), index);
     }
     
     public ListType clear() {
@@ -70,6 +66,26 @@ public class ListType extends Type {
         return this;
     }
 
+    /*
+     * Rewrites the header with the smallest encoding that fits the current count and length,
+     * moving the encoded elements down when the header shrinks.
+     */
+    public ListType compact() {
+        int count = count();
+        int bodyOffset = offsetBody();
+        int bodyLength = limit() - bodyOffset;
+
+        header.max((count == 0) ? 0 : Math.max(count, SIZEOF_COUNT_1 + bodyLength));
+
+        int newBodyOffset = offsetBody();
+        if (newBodyOffset != bodyOffset) {
+            buffer().putBytes(newBodyOffset, buffer(), bodyOffset, bodyLength);
+        }
+        limit(count, newBodyOffset + bodyLength);
+
+        return this;
+    }
+
     public int length() {
         return header.length();
     }
@@ -93,7 +109,7 @@ public class ListType extends Type {
         return header.lengthLimit() + header.length();
     }
     
-    public final void limit(int count, int limit) {
+    public void limit(int count, int limit) {
         header.count(count);
         header.length(limit - header.lengthLimit());
     }
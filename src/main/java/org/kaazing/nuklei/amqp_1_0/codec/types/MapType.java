@@ -17,25 +17,37 @@ package org.kaazing.nuklei.amqp_1_0.codec.types;
 
 import static java.lang.Integer.highestOneBit;
 
+import java.util.Arrays;
 import java.util.function.Consumer;
 
 import org.kaazing.nuklei.Flyweight;
 import org.kaazing.nuklei.FlyweightBE;
 
 import uk.co.real_logic.agrona.BitUtil;
+import uk.co.real_logic.agrona.DirectBuffer;
 import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
 
 /*
  * See AMQP 1.0 specification, section 1.6.23 "map"
  */
 public class MapType extends Type {
 
+    private static final int WIDTH_KIND_1_STRING = 0xa1;
+    private static final int WIDTH_KIND_1_SYMBOL = 0xa3;
+    private static final int WIDTH_KIND_4_STRING = 0xb1;
+    private static final int WIDTH_KIND_4_SYMBOL = 0xb3;
+
     private final Header header;
-    private final DynamicType dynamic;
+    private final UnsafeBuffer keyBuffer;
+
+    private KeyIndex keyIndex;
+    private boolean keyIndexed;
+    private boolean keyIndexFailed;
     
     public MapType() {
         header = new Header().watch((owner) -> notifyChanged());
-        dynamic = new DynamicType();
+        keyBuffer = new UnsafeBuffer(new byte[0]);
     }
 
     @Override
@@ -53,16 +65,56 @@ public class MapType extends Type {
     public MapType wrap(MutableDirectBuffer buffer, int offset) {
         super.wrap(buffer, offset);
         header.wrap(buffer, offset);
+        keyIndexed = false;
+        keyIndexFailed = false;
         return this;
     }
 
-    public int offsetAt(int index) {
+    /*
+     * Attaches a reusable key index, built on first lookup after each wrap, unless the map has more entries
+     * than the index holds, then lookups scan until the next wrap
+     */
+    public MapType keyIndex(KeyIndex keyIndex) {
+        this.keyIndex = keyIndex;
+        this.keyIndexed = false;
+        this.keyIndexFailed = false;
+        return this;
+    }
+
+    public int valueOffset(byte[] key) {
+        keyBuffer.wrap(key);
+        return valueOffset(keyBuffer, 0, key.length);
+    }
+
+    /*
+     * Returns the offset of the value for the given string or symbol key bytes, or -1 if not present.
+     * Keys are compared by their bytes only, so a string key and a symbol key with the same bytes both match.
+     */
+    public int valueOffset(DirectBuffer key, int keyOffset, int keyLength) {
+        if (keyIndex != null && !keyIndexFailed) {
+            if (!keyIndexed || keyIndex.owner != this) {
+                keyIndexed = keyIndex.build(this);
+                keyIndexFailed = !keyIndexed;
+            }
+
+            if (keyIndexed) {
+                return keyIndex.valueOffset(this, key, keyOffset, keyLength);
+            }
+        }
+
         int offsetAt = offsetBody();
-        for (; index > 0; index--) {
-            offsetAt = dynamic.wrap(buffer(), offsetAt).limit();
-            offsetAt = dynamic.wrap(buffer(), offsetAt).limit();
+        for (int index = count() >> 1; index > 0; index--) {
+            int valueOffset = DynamicType.skip(buffer(), offsetAt, 1);
+            if (keyMatches(offsetAt, key, keyOffset, keyLength)) {
+                return valueOffset;
+            }
+            offsetAt = DynamicType.skip(buffer(), valueOffset, 1);
         }
-        return offsetAt;
+        return -1;
+    }
+
+    public int offsetAt(int index) {
+        return DynamicType.skip(buffer(), offsetBody(), index << 1);
     }
     
     public MapType clear() {
@@ -76,6 +128,8 @@ public class MapType extends Type {
 
     public MapType maxLength(int value) {
         header.max(value);
+        keyIndexed = false;
+        keyIndexFailed = false;
         return this;
     }
     
@@ -85,6 +139,8 @@ public class MapType extends Type {
     
     public MapType maxCount(int value) {
         header.max(value);
+        keyIndexed = false;
+        keyIndexFailed = false;
         return this;
     }
     
@@ -94,6 +150,8 @@ public class MapType extends Type {
     }
     
     public final void limit(int count, int limit) {
+        keyIndexed = false;
+        keyIndexFailed = false;
         header.count(count);
         header.length(limit - header.lengthLimit());
     }
@@ -102,6 +160,113 @@ public class MapType extends Type {
         return header.limit();
     }
 
+    private boolean keyMatches(int keyAt, DirectBuffer key, int keyOffset, int keyLength) {
+        int length = keyLength(keyAt);
+        if (length != keyLength) {
+            return false;
+        }
+
+        int bytesAt = keyBytesOffset(keyAt);
+        for (int i = 0; i < length; i++) {
+            if (buffer().getByte(bytesAt + i) != key.getByte(keyOffset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int keyLength(int keyAt) {
+        switch (uint8Get(buffer(), keyAt)) {
+        case WIDTH_KIND_1_STRING:
+        case WIDTH_KIND_1_SYMBOL:
+            return uint8Get(buffer(), keyAt + 1);
+        case WIDTH_KIND_4_STRING:
+        case WIDTH_KIND_4_SYMBOL:
+            return int32Get(buffer(), keyAt + 1);
+        default:
+            return -1;
+        }
+    }
+
+    private int keyBytesOffset(int keyAt) {
+        switch (uint8Get(buffer(), keyAt)) {
+        case WIDTH_KIND_1_STRING:
+        case WIDTH_KIND_1_SYMBOL:
+            return keyAt + 2;
+        default:
+            return keyAt + 5;
+        }
+    }
+
+    /*
+     * Open-addressing hash index over string and symbol key bytes, reused across wraps
+     */
+    public static final class KeyIndex {
+
+        private final int mask;
+        private final int[] hashes;
+        private final int[] keyOffsets;
+        private final int[] valueOffsets;
+
+        private MapType owner;
+
+        public KeyIndex(int maxEntries) {
+            int capacity = BitUtil.findNextPositivePowerOfTwo(Math.max(maxEntries, 1) << 1);
+            this.mask = capacity - 1;
+            this.hashes = new int[capacity];
+            this.keyOffsets = new int[capacity];
+            this.valueOffsets = new int[capacity];
+        }
+
+        boolean build(MapType map) {
+            owner = map;
+
+            int entries = map.count() >> 1;
+            if (entries > (mask + 1) >> 1) {
+                return false;
+            }
+
+            Arrays.fill(keyOffsets, -1);
+
+            MutableDirectBuffer buffer = map.buffer();
+            int offsetAt = map.offsetBody();
+            for (; entries > 0; entries--) {
+                int valueOffset = DynamicType.skip(buffer, offsetAt, 1);
+                int length = map.keyLength(offsetAt);
+                if (length != -1) {
+                    int hash = hash(buffer, map.keyBytesOffset(offsetAt), length);
+                    int slot = hash & mask;
+                    while (keyOffsets[slot] != -1) {
+                        slot = (slot + 1) & mask;
+                    }
+                    hashes[slot] = hash;
+                    keyOffsets[slot] = offsetAt;
+                    valueOffsets[slot] = valueOffset;
+                }
+                offsetAt = DynamicType.skip(buffer, valueOffset, 1);
+            }
+            return true;
+        }
+
+        int valueOffset(MapType map, DirectBuffer key, int keyOffset, int keyLength) {
+            int hash = hash(key, keyOffset, keyLength);
+            for (int slot = hash & mask; keyOffsets[slot] != -1; slot = (slot + 1) & mask) {
+                if (hashes[slot] == hash && map.keyMatches(keyOffsets[slot], key, keyOffset, keyLength)) {
+                    return valueOffsets[slot];
+                }
+            }
+            return -1;
+        }
+
+        private static int hash(DirectBuffer buffer, int offset, int length) {
+            int hash = 0;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + buffer.getByte(offset + i);
+            }
+            return hash ^ (hash >>> 16);
+        }
+    }
+
     private static final class Header extends FlyweightBE {
 
         private static final int OFFSET_LENGTH_KIND = 0;
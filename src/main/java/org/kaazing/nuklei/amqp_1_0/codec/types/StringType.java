@@ -16,6 +16,7 @@
 package org.kaazing.nuklei.amqp_1_0.codec.types;
 
 import static java.lang.Integer.highestOneBit;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
 
 import java.util.function.Consumer;
 
@@ -26,6 +27,7 @@ import org.kaazing.nuklei.function.MutableDirectBufferMutator;
 import org.kaazing.nuklei.function.MutableDirectBufferMutator.Mutation;
 
 import uk.co.real_logic.agrona.BitUtil;
+import uk.co.real_logic.agrona.DirectBuffer;
 import uk.co.real_logic.agrona.MutableDirectBuffer;
 
 /*
@@ -35,10 +37,12 @@ public final class StringType extends Type {
 
     private final Nullable nullable;
     private final Length length;
+    private final AsciiView asciiView;
     
     public StringType() {
         length = new Length();
         nullable = new Nullable();
+        asciiView = new AsciiView();
     }
 
     @Override
@@ -86,6 +90,123 @@ public final class StringType extends Type {
         return nullable.get() ? nullable.limit() : length.limit() + length.get();
     }
 
+    /*
+     * Returns a reusable view over the encoded bytes, valid until this string is next wrapped or modified,
+     * or null when the string is null.  Each byte is presented as one char, so only ASCII content reads back
+     * exactly.
+     */
+    public CharSequence asCharSequence() {
+        return nullable.get() ? null : asciiView.wrap(buffer(), length.limit(), length.get());
+    }
+
+    public boolean contentEquals(byte[] value) {
+        return !nullable.get() && length.get() == value.length && startsWith(value);
+    }
+
+    public boolean contentEquals(StringType value) {
+        if (nullable.get() || value.nullable.get()) {
+            return false;
+        }
+        int valueLength = value.length.get();
+        return length.get() == valueLength && regionMatches(value.buffer(), value.length.limit(), valueLength);
+    }
+
+    public boolean startsWith(byte[] prefix) {
+        if (nullable.get() || length.get() < prefix.length) {
+            return false;
+        }
+        DirectBuffer buffer = buffer();
+        int bytesOffset = length.limit();
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.getByte(bytesOffset + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean startsWith(StringType prefix) {
+        if (nullable.get() || prefix.nullable.get()) {
+            return false;
+        }
+        int prefixLength = prefix.length.get();
+        return length.get() >= prefixLength && regionMatches(prefix.buffer(), prefix.length.limit(), prefixLength);
+    }
+
+    /*
+     * Hashes the encoded bytes, consistent with contentEquals regardless of length encoding.
+     */
+    public int contentHashCode() {
+        if (nullable.get()) {
+            return 0;
+        }
+        DirectBuffer buffer = buffer();
+        int bytesOffset = length.limit();
+        int bytesLimit = bytesOffset + length.get();
+        int hash = 1;
+        for (int i = bytesOffset; i < bytesLimit; i++) {
+            hash = 31 * hash + buffer.getByte(i);
+        }
+        return hash;
+    }
+
+    private boolean regionMatches(DirectBuffer other, int otherOffset, int regionLength) {
+        DirectBuffer buffer = buffer();
+        int bytesOffset = length.limit();
+        for (int i = 0; i < regionLength; i++) {
+            if (buffer.getByte(bytesOffset + i) != other.getByte(otherOffset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class AsciiView implements CharSequence {
+
+        private DirectBuffer buffer;
+        private int offset;
+        private int length;
+
+        public AsciiView wrap(DirectBuffer buffer, int offset, int length) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException();
+            }
+            return (char) (buffer.getByte(offset + index) & 0xff);
+        }
+
+        /*
+         * Allocates a new view, since callers may keep using this view alongside the subsequence
+         */
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException();
+            }
+            return new AsciiView().wrap(buffer, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            byte[] bytes = new byte[length];
+            buffer.getBytes(offset, bytes);
+            // one char per byte, matching charAt
+            return new String(bytes, ISO_8859_1);
+        }
+    }
+
     private static final class Nullable extends FlyweightBE {
 
         public boolean get() {
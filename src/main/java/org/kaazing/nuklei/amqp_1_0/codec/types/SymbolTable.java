@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.types;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static uk.co.real_logic.agrona.BitUtil.findNextPositivePowerOfTwo;
+
+import java.util.Arrays;
+
+import uk.co.real_logic.agrona.DirectBuffer;
+
+/*
+ * Interns symbols to stable int ids so that decoded symbols can be compared and switched on
+ * without allocating a String.  Registration is expected up front, lookup is allocation free.
+ */
+public final class SymbolTable {
+
+    public static final int NOT_FOUND = -1;
+
+    private final int mask;
+    private final int[] hashes;
+    private final int[] ids;
+    private final byte[][] symbols;
+
+    private int size;
+
+    public SymbolTable(int maxSymbols) {
+        int capacity = findNextPositivePowerOfTwo(Math.max(2, maxSymbols << 1));
+        this.mask = capacity - 1;
+        this.hashes = new int[capacity];
+        this.ids = new int[capacity];
+        this.symbols = new byte[capacity][];
+    }
+
+    public SymbolTable register(String symbol, int id) {
+        return register(symbol.getBytes(US_ASCII), id);
+    }
+
+    public SymbolTable register(byte[] symbol, int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        int hash = hash(symbol);
+        int index = hash & mask;
+        while (symbols[index] != null) {
+            if (hashes[index] == hash && Arrays.equals(symbols[index], symbol)) {
+                ids[index] = id;
+                return this;
+            }
+            index = (index + 1) & mask;
+        }
+
+        if ((size + 1) << 1 > symbols.length) {
+            throw new IllegalStateException();
+        }
+
+        hashes[index] = hash;
+        ids[index] = id;
+        symbols[index] = symbol.clone();
+        size++;
+
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int lookup(SymbolType symbol) {
+        return symbol.getId(this);
+    }
+
+    public int lookup(DirectBuffer buffer, int offset, int length) {
+        int hash = hash(buffer, offset, length);
+        int index = hash & mask;
+        byte[] candidate;
+        while ((candidate = symbols[index]) != null) {
+            if (hashes[index] == hash && matches(candidate, buffer, offset, length)) {
+                return ids[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    private static boolean matches(byte[] symbol, DirectBuffer buffer, int offset, int length) {
+        if (symbol.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (symbol[i] != buffer.getByte(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(byte[] symbol) {
+        int hash = 0;
+        for (int i = 0; i < symbol.length; i++) {
+            hash = 31 * hash + symbol[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int hash(DirectBuffer buffer, int offset, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buffer.getByte(offset + i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -59,6 +59,10 @@ public final class SymbolType extends Type {
     public <T> T get(DirectBufferAccessor<T> accessor) {
         return accessor.access(buffer(), length.limit(), length.get());
     }
+
+    public int getId(SymbolTable table) {
+        return table.lookup(buffer(), length.limit(), length.get());
+    }
     
     public <T> SymbolType set(MutableDirectBufferMutator<T> mutator, T value) {
         length.set(mutator.mutate(length.maxOffset(), buffer(), value));
@@ -201,6 +205,10 @@ public final class SymbolType extends Type {
             return code.get(accessor);
         }
 
+        public int getId(SymbolTable table) {
+            return code.getId(table);
+        }
+
         public int limit() {
             return code.limit();
         }
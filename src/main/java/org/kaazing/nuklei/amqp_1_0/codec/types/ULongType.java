@@ -43,6 +43,8 @@ public final class ULongType extends Type {
     private static final short WIDTH_KIND_0 = 0x44;
     private static final short WIDTH_KIND_1 = 0x53;
     private static final short WIDTH_KIND_8 = 0x80;
+    private static final short WIDTH_KIND_1_SYMBOL = 0xa3;
+    private static final short WIDTH_KIND_4_SYMBOL = 0xb3;
     
     @Override
     public Kind kind() {
@@ -169,8 +171,18 @@ public final class ULongType extends Type {
             return code.get();
         }
 
+        /*
+         * Symbolic descriptors are skipped by length, see SymbolType.Descriptor to decode them
+         */
         public int limit() {
-            return code.limit();
+            switch (uint8Get(buffer(), offset() + OFFSET_CODE)) {
+            case WIDTH_KIND_1_SYMBOL:
+                return offset() + OFFSET_CODE + 2 + uint8Get(buffer(), offset() + OFFSET_CODE + 1);
+            case WIDTH_KIND_4_SYMBOL:
+                return offset() + OFFSET_CODE + 5 + int32Get(buffer(), offset() + OFFSET_CODE + 1);
+            default:
+                return code.limit();
+            }
         }
     }
 }
@@ -59,23 +59,35 @@ public final class UuidType extends Type {
     }
 
     public UuidType set(UUID uuid) {
-        long mostSigBits = uuid.getMostSignificantBits();
-        long leastSigBits = uuid.getLeastSignificantBits();
+        return set(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
 
+    public UuidType set(long mostSignificantBits, long leastSignificantBits) {
         widthKind(WIDTH_KIND_16);
-        int64Put(buffer(), offset() + OFFSET_MSB, mostSigBits);
-        int64Put(buffer(), offset() + OFFSET_LSB, leastSigBits);
+        int64Put(buffer(), offset() + OFFSET_MSB, mostSignificantBits);
+        int64Put(buffer(), offset() + OFFSET_LSB, leastSignificantBits);
         
         notifyChanged();
         return this;
     }
     
     public UUID get() {
+        return new UUID(getMostSignificantBits(), getLeastSignificantBits());
+    }
+
+    public long getMostSignificantBits() {
+        switch (widthKind()) {
+        case WIDTH_KIND_16:
+            return int64Get(buffer(), offset() + OFFSET_MSB);
+        default:
+            throw new IllegalStateException();
+        }
+    }
+
+    public long getLeastSignificantBits() {
         switch (widthKind()) {
         case WIDTH_KIND_16:
-            long mostSigBits = int64Get(buffer(), offset() + OFFSET_MSB);
-            long leastSigBits = int64Get(buffer(), offset() + OFFSET_LSB);
-            return new UUID(mostSigBits, leastSigBits);
+            return int64Get(buffer(), offset() + OFFSET_LSB);
         default:
             throw new IllegalStateException();
         }
@@ -15,6 +15,7 @@
  */
 package org.kaazing.nuklei.amqp_1_0.connection;
 
+import org.kaazing.nuklei.amqp_1_0.codec.definitions.ErrorCondition;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Close;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Frame;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Header;
@@ -28,21 +29,30 @@ import uk.co.real_logic.agrona.collections.Int2ObjectHashMap;
 public class Connection<C, S, L> {
     
     public final Sender sender;
-    public final MutableDirectBuffer reassemblyBuffer;
+    public MutableDirectBuffer reassemblyBuffer;
     public final ConnectionStateMachine<C, S, L> stateMachine;
     public final Int2ObjectHashMap<Session<S, L>> sessions;
     
     public long headerSent;
     public long headerReceived;
 
+    // largest frames accepted from and by the peer, limited to the minimum until each open is exchanged
+    public long localMaxFrameSize = Open.MIN_MAX_FRAME_SIZE;
+    public long remoteMaxFrameSize = Open.MIN_MAX_FRAME_SIZE;
+
+    // largest max-frame-size we can reassemble, any larger max-frame-size in a sent open is lowered to this
+    public long maxFrameSizeLimit = Open.DEFAULT_MAX_FRAME_SIZE;
+
     public C parameter;
     public ConnectionState state;
+    public ErrorCondition errorCondition;
 
     public Connection(ConnectionStateMachine<C, S, L> stateMachine, Sender sender, MutableDirectBuffer reassemblyBuffer) {
         this.stateMachine = stateMachine;
         this.sender = sender;
         this.reassemblyBuffer = reassemblyBuffer;
         this.sessions = new Int2ObjectHashMap<>();
+        sender.watch((s) -> stateMachine.backPressureChanged(this));
     }
 
     public void send(Header header) {
@@ -52,6 +62,10 @@ public class Connection<C, S, L> {
 
     public void send(Frame frame, Open open) {
         assert open.limit() == frame.limit();
+        if (!open.limitMaxFrameSize(maxFrameSizeLimit)) {
+            throw new IllegalArgumentException();
+        }
+        frame.setLength(open.limit() - frame.offset());
         sender.send(frame.limit());
         stateMachine.sent(this, frame, open);
     }
@@ -15,7 +15,9 @@
  */
 package org.kaazing.nuklei.amqp_1_0.connection;
 
+import org.kaazing.nuklei.amqp_1_0.codec.definitions.ErrorCondition;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Close;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.DecoderContext;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Frame;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Header;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Open;
@@ -41,37 +43,46 @@ public final class ConnectionHandler<C, S, L> {
         connection.stateMachine.received(connection, header);
     }
     
-    public void handleFrame(final Connection<C, S, L> connection, final Frame frame) {
+    public void handleFrame(final Connection<C, S, L> connection, final Frame frame, final DecoderContext context) {
 
         switch (frame.getPerformative()) {
         case OPEN:
-            Open open = Open.LOCAL_REF.get().wrap(frame.buffer(), frame.bodyOffset());
+            Open open = context.open.wrap(frame.buffer(), frame.bodyOffset());
             connection.stateMachine.received(connection, frame, open);
             break;
         case CLOSE:
-            Close close = Close.LOCAL_REF.get().wrap(frame.buffer(), frame.bodyOffset());
+            Close close = context.close.wrap(frame.buffer(), frame.bodyOffset());
             connection.stateMachine.received(connection, frame, close);
             break;
         case BEGIN:
-            handleSessionBegin(connection, frame);
+            handleSessionBegin(connection, frame, context);
             break;
         case ATTACH:
         case FLOW:
         case TRANSFER:
         case DISPOSITION:
         case DETACH:
-            handleSessionFrame(connection, frame);
+            handleSessionFrame(connection, frame, context);
             break;
         case END:
-            handleSessionEnd(connection, frame);
+            handleSessionEnd(connection, frame, context);
             break;
         }
     }
     
+    public void handleDecodeError(final Connection<C, S, L> connection) {
+        connection.stateMachine.error(connection, ErrorCondition.DECODE_ERROR);
+    }
+
+    public void handleFramingError(final Connection<C, S, L> connection) {
+        connection.stateMachine.error(connection, ErrorCondition.FRAMING_ERROR);
+    }
+
     public void destroy(Connection<C, S, L> connection) {
+        connection.sender.discard();
     }
 
-    private void handleSessionBegin(final Connection<C, S, L> connection, final Frame frame) {
+    private void handleSessionBegin(final Connection<C, S, L> connection, final Frame frame, final DecoderContext context) {
         int newChannel = frame.getChannel();
         Session<S, L> newSession = connection.sessions.get(newChannel);
         if (newSession == null) {
@@ -79,28 +90,28 @@ public final class ConnectionHandler<C, S, L> {
             connection.sessions.put(newChannel, newSession);
             sessionHandler.init(newSession);
         }
-        sessionHandler.handle(newSession, frame);
+        sessionHandler.handle(newSession, frame, context);
     }
 
-    private void handleSessionFrame(final Connection<C, S, L> connection, final Frame frame) {
+    private void handleSessionFrame(final Connection<C, S, L> connection, final Frame frame, final DecoderContext context) {
         int channel = frame.getChannel();
         Session<S, L> session = connection.sessions.get(channel);
         if (session == null) {
             connection.stateMachine.error(connection);
         }
         else {
-            sessionHandler.handle(session, frame);
+            sessionHandler.handle(session, frame, context);
         }
     }
 
-    private void handleSessionEnd(final Connection<C, S, L> connection, final Frame frame) {
+    private void handleSessionEnd(final Connection<C, S, L> connection, final Frame frame, final DecoderContext context) {
         int oldChannel = frame.getChannel();
         Session<S, L> oldSession = connection.sessions.remove(oldChannel);
         if (oldSession == null) {
             connection.stateMachine.error(connection);
         }
         else {
-            sessionHandler.handle(oldSession, frame);
+            sessionHandler.handle(oldSession, frame, context);
         }
     }
 }
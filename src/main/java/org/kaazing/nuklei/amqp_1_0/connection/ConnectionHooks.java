@@ -26,6 +26,8 @@ public class ConnectionHooks<C, S, L> {
 
     public Consumer<Connection<C, S, L>> whenInitialized = (c) -> {};
     public Consumer<Connection<C, S, L>> whenError = (c) -> {};
+    public Consumer<Connection<C, S, L>> whenBackPressureApplied = (c) -> {};
+    public Consumer<Connection<C, S, L>> whenBackPressureReleased = (c) -> {};
 
     public HeaderConsumer<Connection<C, S, L>> whenHeaderReceived = (c, h) -> {};
     public HeaderConsumer<Connection<C, S, L>> whenHeaderSent = (c, h) -> {};
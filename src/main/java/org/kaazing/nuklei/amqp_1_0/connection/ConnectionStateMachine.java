@@ -17,6 +17,7 @@ package org.kaazing.nuklei.amqp_1_0.connection;
 
 import static java.util.EnumSet.allOf;
 
+import org.kaazing.nuklei.amqp_1_0.codec.definitions.ErrorCondition;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Close;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Frame;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Header;
@@ -92,6 +93,8 @@ public class ConnectionStateMachine<C, S, L> {
     }
     
     public void received(Connection<C, S, L> connection, Frame frame, Open open) {
+        connection.remoteMaxFrameSize = open.hasMaxFrameSize() ? open.getMaxFrameSize() : Open.DEFAULT_MAX_FRAME_SIZE;
+
         switch (connection.state) {
         case DISCARDING:
             transition(connection, ConnectionTransition.RECEIVED_OPEN);
@@ -110,6 +113,8 @@ public class ConnectionStateMachine<C, S, L> {
     }
     
     public void sent(Connection<C, S, L> connection, Frame frame, Open open) {
+        connection.localMaxFrameSize = open.hasMaxFrameSize() ? open.getMaxFrameSize() : Open.DEFAULT_MAX_FRAME_SIZE;
+
         switch (connection.state) {
         case HEADER_SENT:
         case HEADER_EXCHANGED:
@@ -155,6 +160,26 @@ public class ConnectionStateMachine<C, S, L> {
         }
     }
     
+    /*
+     * Back pressure does not change connection state, link credit and transfers should pause while applied
+     */
+    public void backPressureChanged(Connection<C, S, L> connection) {
+        if (connection.sender.isBackPressured()) {
+            connectionHooks.whenBackPressureApplied.accept(connection);
+        }
+        else {
+            connectionHooks.whenBackPressureReleased.accept(connection);
+        }
+    }
+
+    /*
+     * Records the condition before the error transition, so that whenError can report it, for example on close
+     */
+    public void error(Connection<C, S, L> connection, ErrorCondition condition) {
+        connection.errorCondition = condition;
+        error(connection);
+    }
+
     public void error(Connection<C, S, L> connection) {
         switch (connection.state) {
         case DISCARDING:
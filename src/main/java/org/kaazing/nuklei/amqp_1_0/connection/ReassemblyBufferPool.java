@@ -0,0 +1,139 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.connection;
+
+import static java.lang.Integer.numberOfTrailingZeros;
+import static uk.co.real_logic.agrona.BitUtil.findNextPositivePowerOfTwo;
+import static uk.co.real_logic.agrona.BitUtil.isPowerOfTwo;
+
+import java.nio.ByteBuffer;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+/*
+ * Off-heap reassembly buffers in power of two size classes, from minCapacity up to maxCapacity.
+ * Connections start with the smallest class and grow only while a larger frame is partially received,
+ * released buffers are retained while the total capacity retained stays within maxRetainedBytes,
+ * otherwise left to be collected.
+ */
+public final class ReassemblyBufferPool {
+
+    private final int minCapacity;
+    private final int maxCapacity;
+    private final int minShift;
+    private final long maxRetainedBytes;
+    private final MutableDirectBuffer[][] freeBuffers;
+    private final int[] freeCounts;
+
+    private long retainedBytes;
+
+    public ReassemblyBufferPool(int minCapacity, int maxCapacity, long maxRetainedBytes) {
+        if (!isPowerOfTwo(minCapacity) || !isPowerOfTwo(maxCapacity) || minCapacity > maxCapacity || maxRetainedBytes < 0L) {
+            throw new IllegalArgumentException();
+        }
+
+        this.minCapacity = minCapacity;
+        this.maxCapacity = maxCapacity;
+        this.minShift = numberOfTrailingZeros(minCapacity);
+        this.maxRetainedBytes = maxRetainedBytes;
+
+        // each size class alone may use the whole retained budget
+        int sizeClasses = numberOfTrailingZeros(maxCapacity) - minShift + 1;
+        this.freeBuffers = new MutableDirectBuffer[sizeClasses][];
+        for (int sizeClass = 0; sizeClass < sizeClasses; sizeClass++) {
+            freeBuffers[sizeClass] = new MutableDirectBuffer[(int) Math.min(maxRetainedBytes >> (minShift + sizeClass), Integer.MAX_VALUE)];
+        }
+        this.freeCounts = new int[sizeClasses];
+    }
+
+    public int minCapacity() {
+        return minCapacity;
+    }
+
+    public int maxCapacity() {
+        return maxCapacity;
+    }
+
+    /*
+     * Returns a buffer from the smallest size class holding at least capacity bytes
+     */
+    public MutableDirectBuffer acquire(int capacity) {
+        if (capacity > maxCapacity) {
+            throw new IllegalArgumentException();
+        }
+
+        int classCapacity = Math.max(minCapacity, findNextPositivePowerOfTwo(capacity));
+        int sizeClass = numberOfTrailingZeros(classCapacity) - minShift;
+        if (freeCounts[sizeClass] != 0) {
+            int index = --freeCounts[sizeClass];
+            MutableDirectBuffer buffer = freeBuffers[sizeClass][index];
+            freeBuffers[sizeClass][index] = null;
+            retainedBytes -= classCapacity;
+            return buffer;
+        }
+
+        return new UnsafeBuffer(ByteBuffer.allocateDirect(classCapacity));
+    }
+
+    /*
+     * Returns a buffer holding at least capacity bytes with the contents of buffer, releasing buffer if replaced
+     */
+    public MutableDirectBuffer grow(MutableDirectBuffer buffer, int capacity) {
+        if (capacity <= buffer.capacity()) {
+            return buffer;
+        }
+
+        MutableDirectBuffer newBuffer = acquire(capacity);
+        newBuffer.putBytes(0, buffer, 0, buffer.capacity());
+        release(buffer);
+        return newBuffer;
+    }
+
+    /*
+     * Returns a buffer from the smallest size class, releasing buffer if larger, once its contents are consumed
+     */
+    public MutableDirectBuffer shrink(MutableDirectBuffer buffer) {
+        if (buffer.capacity() <= minCapacity) {
+            return buffer;
+        }
+
+        release(buffer);
+        return acquire(minCapacity);
+    }
+
+    public void release(MutableDirectBuffer buffer) {
+        int capacity = buffer.capacity();
+        if (!isPowerOfTwo(capacity) || capacity < minCapacity || capacity > maxCapacity) {
+            throw new IllegalArgumentException();
+        }
+
+        int sizeClass = numberOfTrailingZeros(capacity) - minShift;
+        if (retainedBytes + capacity <= maxRetainedBytes) {
+            freeBuffers[sizeClass][freeCounts[sizeClass]++] = buffer;
+            retainedBytes += capacity;
+        }
+    }
+
+    public int available(int capacity) {
+        int sizeClass = numberOfTrailingZeros(Math.max(minCapacity, findNextPositivePowerOfTwo(capacity))) - minShift;
+        return freeCounts[sizeClass];
+    }
+
+    public long retainedBytes() {
+        return retainedBytes;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.link;
+
+import java.nio.ByteBuffer;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+/*
+ * Fixed size chunks carved from a single off-heap slab, identified by chunk index
+ */
+public final class ChunkPool {
+
+    public static final int NO_CHUNK = -1;
+
+    private final int chunkSize;
+    private final MutableDirectBuffer slab;
+    private final int[] freeChunks;
+
+    private int freeCount;
+
+    public ChunkPool(int chunkSize, int maxChunks) {
+        if (chunkSize <= 0 || maxChunks <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.chunkSize = chunkSize;
+        this.slab = new UnsafeBuffer(ByteBuffer.allocateDirect(chunkSize * maxChunks));
+        this.freeChunks = new int[maxChunks];
+
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            freeChunks[chunk] = maxChunks - 1 - chunk;
+        }
+        this.freeCount = maxChunks;
+    }
+
+    /*
+     * Returns a free chunk index, or NO_CHUNK when the pool is exhausted
+     */
+    public int acquire() {
+        return (freeCount != 0) ? freeChunks[--freeCount] : NO_CHUNK;
+    }
+
+    public void release(int chunk) {
+        if (freeCount == freeChunks.length) {
+            throw new IllegalStateException();
+        }
+        freeChunks[freeCount++] = chunk;
+    }
+
+    public int available() {
+        return freeCount;
+    }
+
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    public MutableDirectBuffer buffer() {
+        return slab;
+    }
+
+    public int offset(int chunk) {
+        return chunk * chunkSize;
+    }
+}
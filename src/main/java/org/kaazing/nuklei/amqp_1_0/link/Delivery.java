@@ -0,0 +1,150 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.link;
+
+import java.util.Arrays;
+
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+
+/*
+ * Delivery payload reassembled from one or more transfer frames into a chain of pooled chunks,
+ * readable as a single composite buffer until released back to the pool
+ */
+public final class Delivery {
+
+    private static final int INITIAL_CHUNKS = 4;
+
+    private final ChunkPool pool;
+
+    private int[] chunks;
+    private int chunkCount;
+    private int length;
+    private long deliveryId;
+    private boolean settled;
+    private boolean released;
+
+    Delivery(ChunkPool pool) {
+        this.pool = pool;
+        this.chunks = new int[INITIAL_CHUNKS];
+    }
+
+    public long deliveryId() {
+        return deliveryId;
+    }
+
+    public boolean settled() {
+        return settled;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public byte getByte(int index) {
+        checkIndex(index, 1);
+        int chunkSize = pool.chunkSize();
+        return pool.buffer().getByte(pool.offset(chunks[index / chunkSize]) + index % chunkSize);
+    }
+
+    public void getBytes(int index, MutableDirectBuffer dst, int dstOffset, int length) {
+        checkIndex(index, length);
+        int chunkSize = pool.chunkSize();
+        while (length > 0) {
+            int chunkIndex = index % chunkSize;
+            int chunkLength = Math.min(length, chunkSize - chunkIndex);
+            dst.putBytes(dstOffset, pool.buffer(), pool.offset(chunks[index / chunkSize]) + chunkIndex, chunkLength);
+            index += chunkLength;
+            dstOffset += chunkLength;
+            length -= chunkLength;
+        }
+    }
+
+    /*
+     * Chunks are exposed for zero-copy iteration over the shared pool buffer
+     */
+    public int chunkCount() {
+        return chunkCount;
+    }
+
+    public DirectBuffer chunkBuffer() {
+        return pool.buffer();
+    }
+
+    public int chunkOffset(int index) {
+        return pool.offset(chunks[index]);
+    }
+
+    public int chunkLength(int index) {
+        return (index == chunkCount - 1) ? length - index * pool.chunkSize() : pool.chunkSize();
+    }
+
+    void reset(long deliveryId) {
+        this.deliveryId = deliveryId;
+        this.settled = false;
+        this.released = false;
+    }
+
+    void settled(boolean settled) {
+        this.settled |= settled;
+    }
+
+    /*
+     * Appends to the chunk chain, returns false when the pool is exhausted
+     */
+    boolean append(DirectBuffer src, int srcOffset, int srcLength) {
+        int chunkSize = pool.chunkSize();
+        while (srcLength > 0) {
+            if (length == chunkCount * chunkSize) {
+                int chunk = pool.acquire();
+                if (chunk == ChunkPool.NO_CHUNK) {
+                    return false;
+                }
+                if (chunkCount == chunks.length) {
+                    chunks = Arrays.copyOf(chunks, chunkCount << 1);
+                }
+                chunks[chunkCount++] = chunk;
+            }
+
+            int chunkIndex = length - (chunkCount - 1) * chunkSize;
+            int chunkLength = Math.min(srcLength, chunkSize - chunkIndex);
+            pool.buffer().putBytes(chunkOffset(chunkCount - 1) + chunkIndex, src, srcOffset, chunkLength);
+            length += chunkLength;
+            srcOffset += chunkLength;
+            srcLength -= chunkLength;
+        }
+        return true;
+    }
+
+    void release() {
+        for (int i = 0; i < chunkCount; i++) {
+            pool.release(chunks[i]);
+        }
+        chunkCount = 0;
+        length = 0;
+        released = true;
+    }
+
+    boolean released() {
+        return released;
+    }
+
+    private void checkIndex(int index, int length) {
+        if (index < 0 || length < 0 || index + length > this.length) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.link;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Frame;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Transfer;
+
+/*
+ * Per-link reassembly of multi-frame transfers, see AMQP 1.0 specification, section 2.6.14 "Transferring a Message"
+ */
+public final class DeliveryAssembler {
+
+    private final ChunkPool pool;
+    private final Deque<Delivery> deliveries;
+
+    private Delivery current;
+    private Delivery completed;
+
+    public DeliveryAssembler(ChunkPool pool) {
+        this.pool = pool;
+        this.deliveries = new ArrayDeque<>();
+    }
+
+    /*
+     * Appends the transfer payload to the current delivery, completing it when there are no more transfers
+     * and discarding it when aborted, returns false when the chunk pool is exhausted and the delivery discarded
+     */
+    public boolean assemble(Frame frame, Transfer transfer) {
+        completed = null;
+
+        if (transfer.getAborted()) {
+            reset();
+            return true;
+        }
+
+        if (current == null) {
+            current = deliveries.isEmpty() ? new Delivery(pool) : deliveries.pop();
+            current.reset(transfer.getDeliveryId());
+        }
+
+        current.settled(transfer.getSettled());
+        if (!current.append(frame.buffer(), frame.payloadOffset(), frame.payloadLength())) {
+            reset();
+            return false;
+        }
+
+        if (!transfer.getMore()) {
+            completed = current;
+            current = null;
+        }
+
+        return true;
+    }
+
+    /*
+     * Returns the delivery completed by the most recent transfer, if any
+     */
+    public Delivery completed() {
+        return completed;
+    }
+
+    public boolean isAssembling() {
+        return current != null;
+    }
+
+    /*
+     * Returns the delivery chunks to the pool, the delivery must not be read afterwards, nor settled again
+     */
+    public void settle(Delivery delivery) {
+        if (delivery.released()) {
+            throw new IllegalStateException();
+        }
+        delivery.release();
+        deliveries.push(delivery);
+    }
+
+    /*
+     * Discards any partially assembled delivery, for example when the link detaches
+     */
+    public void reset() {
+        if (current != null) {
+            settle(current);
+            current = null;
+        }
+    }
+}
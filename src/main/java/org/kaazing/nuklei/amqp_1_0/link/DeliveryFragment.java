@@ -0,0 +1,119 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.link;
+
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Frame;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Transfer;
+import org.kaazing.nuklei.function.DirectBufferAccessor;
+
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+/*
+ * Payload slice of a single transfer frame, marked as the first, last or aborted fragment of its delivery,
+ * so that large deliveries can be streamed without buffering, see AMQP 1.0 specification, section 2.6.14
+ */
+public final class DeliveryFragment {
+
+    private final MutableDirectBuffer deliveryTag;
+    private final DirectBufferAccessor<Void> copyDeliveryTag;
+
+    private int deliveryTagLength;
+    private long deliveryId;
+    private boolean first;
+    private boolean last;
+    private boolean aborted;
+    private boolean assembling;
+
+    private DirectBuffer payloadBuffer;
+    private int payloadOffset;
+    private int payloadLength;
+
+    public DeliveryFragment() {
+        deliveryTag = new UnsafeBuffer(new byte[Transfer.MAX_DELIVERY_TAG_LENGTH]);
+        copyDeliveryTag = (buffer, offset, length) -> {
+            if (length > Transfer.MAX_DELIVERY_TAG_LENGTH) {
+                throw new IllegalArgumentException();
+            }
+            deliveryTag.putBytes(0, buffer, offset, length);
+            deliveryTagLength = length;
+            return null;
+        };
+    }
+
+    /*
+     * Delivery id and tag are retained from the first fragment, continuation transfers may omit them
+     */
+    public DeliveryFragment wrap(Frame frame, Transfer transfer) {
+        first = !assembling;
+        if (first) {
+            deliveryId = transfer.hasDeliveryId() ? transfer.getDeliveryId() : 0L;
+            deliveryTagLength = 0;
+            if (transfer.hasDeliveryTag()) {
+                transfer.getDeliveryTag(copyDeliveryTag);
+            }
+        }
+
+        aborted = transfer.getAborted();
+        last = aborted || !transfer.getMore();
+        assembling = !last;
+
+        payloadBuffer = frame.buffer();
+        payloadOffset = frame.payloadOffset();
+        payloadLength = frame.payloadLength();
+        return this;
+    }
+
+    /*
+     * Forgets any partially streamed delivery, for example when the link detaches
+     */
+    public void reset() {
+        assembling = false;
+    }
+
+    public long deliveryId() {
+        return deliveryId;
+    }
+
+    public <T> T getDeliveryTag(DirectBufferAccessor<T> accessor) {
+        return accessor.access(deliveryTag, 0, deliveryTagLength);
+    }
+
+    public boolean isFirst() {
+        return first;
+    }
+
+    public boolean isLast() {
+        return last;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    public DirectBuffer payloadBuffer() {
+        return payloadBuffer;
+    }
+
+    public int payloadOffset() {
+        return payloadOffset;
+    }
+
+    public int payloadLength() {
+        return payloadLength;
+    }
+}
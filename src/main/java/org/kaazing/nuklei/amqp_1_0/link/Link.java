@@ -15,22 +15,181 @@
  */
 package org.kaazing.nuklei.amqp_1_0.link;
 
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Frame;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Transfer;
 import org.kaazing.nuklei.amqp_1_0.sender.Sender;
 
+import uk.co.real_logic.agrona.DirectBuffer;
+
 /*
  * See AMQP 1.0 specification, section 2.6 "Links"
  */
 public class Link<L> {
+
+    public static final int NOT_SENT = -1;
     
     public final LinkStateMachine<L> stateMachine;
     public final Sender sender;
+    public final DeliveryFragment fragment;
 
     public LinkState state;
     public L parameter;
+    public DeliveryAssembler assembler;
+
+    // outbound transfers are encoded here, a delivery is open while its last transfer set more
+    private final Frame frame;
+    private final Transfer transfer;
+    private boolean sending;
 
     public Link(LinkStateMachine<L> stateMachine, Sender sender) {
         this.stateMachine = stateMachine;
         this.sender = sender;
+        this.fragment = new DeliveryFragment();
+        this.frame = new Frame();
+        this.transfer = new Transfer();
+    }
+
+    /*
+     * Sends a transfer encoded by the sender, followed by payload that is copied only once, into the sender
+     */
+    public void send(Frame frame, Transfer transfer, DirectBuffer payload, int payloadOffset, int payloadLength) {
+        int limit = frame.limit();
+        if (transfer.limit() != limit) {
+            // payload must follow the transfer directly
+            throw new IllegalArgumentException();
+        }
+        frame.setLength(limit - frame.offset() + payloadLength);
+        sender.send(limit, payload, payloadOffset, payloadLength);
+        stateMachine.sent(this, frame, transfer);
+    }
+
+    /*
+     * Sends payload as a single delivery, split into as few transfers as possible with no frame larger than
+     * maxFrameSize, normally the connection remote max-frame-size, nor the sender maximum frame length.
+     * Delivery id, tag and settled are sent on the first transfer only, every transfer but the last sets more.
+     * Returns the number of payload bytes sent, or NOT_SENT if the sender is back pressured before the first
+     * transfer. When fewer than payloadLength bytes are sent the delivery stays open, to be completed by
+     * resume or ended by abort once the sender is no longer back pressured.
+     */
+    public int send(
+            int channel,
+            long handle,
+            long deliveryId,
+            DirectBuffer deliveryTag,
+            int deliveryTagOffset,
+            int deliveryTagLength,
+            boolean settled,
+            DirectBuffer payload,
+            int payloadOffset,
+            int payloadLength,
+            long maxFrameSize) {
+
+        if (sending) {
+            throw new IllegalStateException();
+        }
+
+        Frame frame = sender.isBackPressured() ? null : sender.wrap(this.frame);
+        if (frame == null) {
+            return NOT_SENT;
+        }
+
+        Transfer.Builder builder = beginTransfer(frame, channel, handle)
+                                       .deliveryId(deliveryId)
+                                       .deliveryTag(deliveryTag, deliveryTagOffset, deliveryTagLength)
+                                       .messageFormat(0L)
+                                       .settled(settled);
+
+        int sentLength = sendFragment(frame, builder, payload, payloadOffset, payloadLength, maxFrameSize);
+        return sentLength + resume(channel, handle, payload, payloadOffset + sentLength,
+                payloadLength - sentLength, maxFrameSize);
+    }
+
+    /*
+     * Continues an open delivery with the payload not yet sent, returning the number of payload bytes sent
+     */
+    public int resume(int channel, long handle, DirectBuffer payload, int payloadOffset, int payloadLength,
+            long maxFrameSize) {
+
+        int sentLength = 0;
+        while (sending && !sender.isBackPressured()) {
+            Frame frame = sender.wrap(this.frame);
+            if (frame == null) {
+                break;
+            }
+
+            Transfer.Builder builder = beginTransfer(frame, channel, handle);
+            sentLength += sendFragment(frame, builder, payload, payloadOffset + sentLength,
+                    payloadLength - sentLength, maxFrameSize);
+        }
+        return sentLength;
+    }
+
+    /*
+     * Ends an open delivery without sending the rest of its payload, returning false while back pressured
+     */
+    public boolean abort(int channel, long handle) {
+        if (!sending) {
+            throw new IllegalStateException();
+        }
+
+        Frame frame = sender.isBackPressured() ? null : sender.wrap(this.frame);
+        if (frame == null) {
+            return false;
+        }
+
+        beginTransfer(frame, channel, handle).aborted(true).end();
+        send(frame, transfer.wrap(frame.buffer(), frame.bodyOffset()), frame.buffer(), 0, 0);
+        sending = false;
+        return true;
+    }
+
+    /*
+     * Forwards a fragment received on another link without decoding its payload, the fragment payload
+     * still refers to the receiving buffer, so forwarding must complete before the fragment hook returns.
+     * Returns false without sending when the forwarded frame would be larger than maxFrameSize, normally the
+     * target connection remote max-frame-size, or the sender maximum frame length, in which case the payload
+     * can instead be sent by the fragmenting send.
+     */
+    public boolean forward(Frame frame, Transfer transfer, DeliveryFragment fragment, long maxFrameSize) {
+        long frameSize = transfer.limit() - frame.offset() + fragment.payloadLength();
+        if (frameSize > Math.min(maxFrameSize, sender.maxFrameLength())) {
+            return false;
+        }
+        send(frame, transfer, fragment.payloadBuffer(), fragment.payloadOffset(), fragment.payloadLength());
+        return true;
+    }
+
+    private Transfer.Builder beginTransfer(Frame frame, int channel, long handle) {
+        return frame.setDataOffset(2)
+                    .setType(0)
+                    .setChannel(channel)
+                    .beginTransfer()
+                    .handle(handle);
+    }
+
+    /*
+     * Completes a transfer with as much payload as fits in the frame, setting more unless all of it fits
+     */
+    private int sendFragment(
+            Frame frame,
+            Transfer.Builder builder,
+            DirectBuffer payload,
+            int payloadOffset,
+            int payloadLength,
+            long maxFrameSize) {
+
+        long frameSize = Math.min(maxFrameSize, sender.maxFrameLength());
+        long available = frameSize - (builder.moreLimit() - frame.offset());
+        if (available <= 0L && payloadLength != 0) {
+            throw new IllegalArgumentException();
+        }
+
+        int fragmentLength = (int) Math.min(payloadLength, available);
+        sending = fragmentLength != payloadLength;
+        builder.more(sending).end();
+
+        send(frame, transfer.wrap(frame.buffer(), frame.bodyOffset()), payload, payloadOffset, fragmentLength);
+        return fragmentLength;
     }
 
 }
\ No newline at end of file
@@ -16,6 +16,7 @@
 package org.kaazing.nuklei.amqp_1_0.link;
 
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Attach;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.DecoderContext;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Detach;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Frame;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Transfer;
@@ -29,18 +30,18 @@ public final class LinkHandler<L> {
         session.stateMachine.start(session);
     }
     
-    public void handle(Link<L> link, Frame frame) {
+    public void handle(Link<L> link, Frame frame, DecoderContext context) {
         switch (frame.getPerformative()) {
         case ATTACH:
-            Attach attach = Attach.LOCAL_REF.get().wrap(frame.buffer(), frame.bodyOffset());
+            Attach attach = context.attach.wrap(frame.buffer(), frame.bodyOffset());
             link.stateMachine.received(link, frame, attach);
             break;
         case TRANSFER:
-            Transfer transfer = Transfer.LOCAL_REF.get().wrap(frame.buffer(), frame.bodyOffset());
+            Transfer transfer = context.transfer.wrap(frame.buffer(), frame.bodyOffset());
             link.stateMachine.received(link, frame, transfer);
             break;
         case DETACH:
-            Detach detach = Detach.LOCAL_REF.get().wrap(frame.buffer(), frame.bodyOffset());
+            Detach detach = context.detach.wrap(frame.buffer(), frame.bodyOffset());
             link.stateMachine.received(link, frame, detach);
             break;
         default:
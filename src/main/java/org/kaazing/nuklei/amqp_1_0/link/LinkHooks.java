@@ -15,6 +15,7 @@
  */
 package org.kaazing.nuklei.amqp_1_0.link;
 
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Attach;
@@ -33,6 +34,8 @@ public class LinkHooks<L> {
     public FrameConsumer<Link<L>, Attach> whenAttachReceived = (s, f, m) -> {};
     public FrameConsumer<Link<L>, Attach> whenAttachSent = (s, f, m) -> {};
     public FrameConsumer<Link<L>, Transfer> whenTransferReceived = (s, f, m) -> {};
+    public BiConsumer<Link<L>, Delivery> whenDeliveryReceived = (s, d) -> {};
+    public BiConsumer<Link<L>, DeliveryFragment> whenDeliveryFragmentReceived = (s, d) -> {};
     public FrameConsumer<Link<L>, Transfer> whenTransferSent = (s, f, m) -> {};
     public FrameConsumer<Link<L>, Detach> whenDetachReceived = (s, f, m) -> {};
     public FrameConsumer<Link<L>, Detach> whenDetachSent = (s, f, m) -> {};
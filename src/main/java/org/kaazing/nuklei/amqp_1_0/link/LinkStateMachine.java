@@ -51,6 +51,23 @@ public final class LinkStateMachine<L> {
     public void received(Link<L> link, Frame frame, Transfer transfer) {
         transition(link, LinkTransition.RECEIVED_TRANSFER);
         linkHooks.whenTransferReceived.accept(link, frame, transfer);
+
+        if (link.state == LinkState.ATTACHED) {
+            linkHooks.whenDeliveryFragmentReceived.accept(link, link.fragment.wrap(frame, transfer));
+
+            DeliveryAssembler assembler = link.assembler;
+            if (assembler != null) {
+                if (!assembler.assemble(frame, transfer)) {
+                    error(link);
+                    return;
+                }
+
+                Delivery delivery = assembler.completed();
+                if (delivery != null) {
+                    linkHooks.whenDeliveryReceived.accept(link, delivery);
+                }
+            }
+        }
     }
     
     public void sent(Link<L> link, Frame frame, Transfer transfer) {
@@ -59,11 +76,19 @@ public final class LinkStateMachine<L> {
     }
     
     public void received(Link<L> link, Frame frame, Detach detach) {
+        link.fragment.reset();
+        if (link.assembler != null) {
+            link.assembler.reset();
+        }
         transition(link, LinkTransition.RECEIVED_DETACH);
         linkHooks.whenDetachReceived.accept(link, frame, detach);
     }
     
     public void sent(Link<L> link, Frame frame, Detach detach) {
+        link.fragment.reset();
+        if (link.assembler != null) {
+            link.assembler.reset();
+        }
         transition(link, LinkTransition.SENT_DETACH);
         linkHooks.whenDetachSent.accept(link, frame, detach);
     }
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.sender;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.kaazing.nuklei.Flyweight;
+import org.kaazing.nuklei.net.TcpManagerHeadersDecoder;
+
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+/*
+ * Each sender encodes into its own bounded off-heap buffer, written with a single respond when flushed.
+ * Senders holding unwritten frames are tracked, so flush() writes every connection that has frames to
+ * send, whichever inbound message produced them. When the TCP manager cannot accept a write, frames stay
+ * buffered and the sender reports back pressure until a later flush drains them.
+ */
+public final class BufferedTcpSenderFactory implements SenderFactory {
+
+    private final TcpResponder responder;
+    private final int capacity;
+    private final int maxFrameLength;
+    private final List<BufferedTcpSender> dirty;
+
+    /*
+     * Further frames are buffered only while at least maxFrameLength bytes remain in the sender buffer
+     */
+    public BufferedTcpSenderFactory(TcpResponder responder, int capacity, int maxFrameLength) {
+        if (maxFrameLength <= 0 || maxFrameLength > capacity) {
+            throw new IllegalArgumentException();
+        }
+        this.responder = responder;
+        this.capacity = capacity;
+        this.maxFrameLength = maxFrameLength;
+        this.dirty = new ArrayList<>();
+    }
+
+    public Sender newSender(Object headers) {
+        TcpManagerHeadersDecoder tcpHeaders = (TcpManagerHeadersDecoder) headers;
+        return newSender(tcpHeaders.connectionId(), tcpHeaders.length());
+    }
+
+    /*
+     * Reserves headerLength bytes in front of the frames for the TCP manager
+     */
+    public Sender newSender(long connectionId, int headerLength) {
+        return new BufferedTcpSender(connectionId, headerLength);
+    }
+
+    public int flush() {
+        // observers may send or discard, so the list can change size between iterations
+        for (int i = dirty.size() - 1; i >= 0; i = Math.min(i, dirty.size()) - 1) {
+            BufferedTcpSender sender = dirty.get(i);
+            boolean wasBackPressured = sender.isBackPressured();
+            if (sender.write()) {
+                // remaining senders below i are still to be written, so fill the gap from the end
+                BufferedTcpSender last = dirty.remove(dirty.size() - 1);
+                if (i < dirty.size()) {
+                    dirty.set(i, last);
+                }
+                sender.listed = false;
+            }
+            sender.notifyIfChanged(wasBackPressured);
+        }
+        return dirty.size();
+    }
+
+    private final class BufferedTcpSender implements Sender {
+
+        private final long connectionId;
+        private final MutableDirectBuffer sendBuffer;
+        private final int sendBufferOffset;
+
+        private Consumer<Sender> observer;
+        private int sendLimit;
+        private boolean listed;
+        private boolean writeFailed;
+
+        public BufferedTcpSender(long connectionId, int headerLength) {
+            this.connectionId = connectionId;
+            this.sendBufferOffset = headerLength;
+            this.sendBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(sendBufferOffset + capacity));
+            this.sendLimit = sendBufferOffset;
+            this.observer = (s) -> {};
+        }
+
+        public <T extends Flyweight> T wrap(T flyweight) {
+            if (!hasCapacity()) {
+                flush();
+                if (!hasCapacity()) {
+                    return null;
+                }
+            }
+            flyweight.wrap(sendBuffer, sendLimit);
+            return flyweight;
+        }
+
+        public void send(int limit) {
+            boolean wasBackPressured = isBackPressured();
+            sendLimit = limit;
+            if (!listed) {
+                listed = true;
+                dirty.add(this);
+            }
+            notifyIfChanged(wasBackPressured);
+        }
+
+        public void send(int limit, DirectBuffer payload, int payloadOffset, int payloadLength) {
+            if (payloadLength > sendBuffer.capacity() - limit) {
+                throw new IllegalArgumentException();
+            }
+            sendBuffer.putBytes(limit, payload, payloadOffset, payloadLength);
+            send(limit + payloadLength);
+        }
+
+        public void flush() {
+            if (listed) {
+                boolean wasBackPressured = isBackPressured();
+                if (write()) {
+                    dirty.remove(this);
+                    listed = false;
+                }
+                notifyIfChanged(wasBackPressured);
+            }
+        }
+
+        public int maxFrameLength() {
+            return maxFrameLength;
+        }
+
+        public boolean isBackPressured() {
+            return writeFailed || !hasCapacity();
+        }
+
+        public void watch(Consumer<Sender> observer) {
+            this.observer = observer;
+        }
+
+        public void discard() {
+            if (listed) {
+                dirty.remove(this);
+                listed = false;
+            }
+            sendLimit = sendBufferOffset;
+            writeFailed = false;
+        }
+
+        /*
+         * Unless closing immediately, buffered frames are written first, any that still cannot be written are dropped
+         */
+        public void close(boolean immediately) {
+            if (!immediately) {
+                flush();
+            }
+            discard();
+            responder.close(connectionId, immediately);
+        }
+
+        /*
+         * Returns true once every buffered frame is written, leaving removal from the dirty list and observer
+         * notification to the caller, so an observer that sends again finds the list already up to date
+         */
+        private boolean write() {
+            if (sendLimit != sendBufferOffset) {
+                // TCP manager outbound ring may be full, then frames stay buffered for a later flush
+                writeFailed = !responder.respond(connectionId, sendBuffer, sendBufferOffset, sendLimit - sendBufferOffset);
+                if (!writeFailed) {
+                    sendLimit = sendBufferOffset;
+                }
+            }
+            return sendLimit == sendBufferOffset;
+        }
+
+        private void notifyIfChanged(boolean wasBackPressured) {
+            if (isBackPressured() != wasBackPressured) {
+                observer.accept(this);
+            }
+        }
+
+        private boolean hasCapacity() {
+            return sendBuffer.capacity() - sendLimit >= maxFrameLength;
+        }
+    }
+}
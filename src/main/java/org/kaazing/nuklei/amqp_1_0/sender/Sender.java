@@ -15,14 +15,52 @@
  */
 package org.kaazing.nuklei.amqp_1_0.sender;
 
+import java.util.function.Consumer;
+
 import org.kaazing.nuklei.Flyweight;
 
+import uk.co.real_logic.agrona.DirectBuffer;
+
 public interface Sender {
     
+    /*
+     * Wraps flyweight where the next frame is encoded, or returns null when the sender is back pressured
+     * with no room for another frame, so callers check the result or isBackPressured() before encoding
+     */
     public <T extends Flyweight> T wrap(T flyweight);
 
     public void send(int limit);
 
+    /*
+     * Sends the frame encoded up to limit followed by payload, copied once directly after the frame
+     */
+    public void send(int limit, DirectBuffer payload, int payloadOffset, int payloadLength);
+
+    /*
+     * Writes any frames sent but not yet written, called once at the end of each inbound message
+     */
+    public void flush();
+
+    /*
+     * Returns the largest frame that can be encoded by wrap, bounding any negotiated max-frame-size
+     */
+    public int maxFrameLength();
+
+    /*
+     * Returns true while sent frames cannot be written, producers should pause until this changes
+     */
+    public boolean isBackPressured();
+
+    /*
+     * Notifies observer whenever isBackPressured() changes
+     */
+    public void watch(Consumer<Sender> observer);
+
+    /*
+     * Drops frames sent but not yet written, once the connection has ended and can no longer be written
+     */
+    public void discard();
+
     public void close(boolean immediately);
 
 }
\ No newline at end of file
@@ -20,4 +20,10 @@ public interface SenderFactory {
 
     Sender newSender(Object headers);
 
+    /*
+     * Writes frames sent by any sender but not yet written, returning the number of senders still holding
+     * unwritten frames
+     */
+    int flush();
+
 }
\ No newline at end of file
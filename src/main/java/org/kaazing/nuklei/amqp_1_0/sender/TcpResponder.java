@@ -0,0 +1,33 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.sender;
+
+import uk.co.real_logic.agrona.DirectBuffer;
+
+/*
+ * Writes outbound bytes to, and closes, a TCP connection identified by id, so a sender can write long
+ * after the inbound message that created it has been handled
+ */
+public interface TcpResponder {
+
+    /*
+     * Returns false when the TCP manager cannot accept the write yet, leaving the caller to retry later
+     */
+    boolean respond(long connectionId, DirectBuffer buffer, int offset, int length);
+
+    void close(long connectionId, boolean immediately);
+
+}
@@ -15,49 +15,195 @@
  */
 package org.kaazing.nuklei.amqp_1_0.sender;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 import org.kaazing.nuklei.Flyweight;
 import org.kaazing.nuklei.net.TcpManagerHeadersDecoder;
 
+import uk.co.real_logic.agrona.DirectBuffer;
 import uk.co.real_logic.agrona.MutableDirectBuffer;
 
+/*
+ * Senders share a single send buffer, so frames sent while handling one inbound message are encoded
+ * back to back and written with a single respond when flushed, when the batch is full, or when another
+ * sender needs the send buffer. Frames the TCP manager cannot accept yet hold the send buffer, so every
+ * sender reports back pressure until a later flush writes them. Each sender that observed back pressure,
+ * either from isBackPressured() or from a refused wrap, is notified when it is released.
+ */
 public final class TcpSenderFactory implements SenderFactory {
 
+    private final TcpResponder responder;
     private final MutableDirectBuffer sendBuffer;
+    private final int maxFrameLength;
+
+    // frames sent by pendingSender, ending at pendingLimit, not yet written
+    private TcpSender pendingSender;
+    private int pendingLimit;
+    private boolean writeFailed;
+
+    // senders that observed writeFailed, notified once it clears
+    private final List<TcpSender> blockedSenders = new ArrayList<>();
 
-    public TcpSenderFactory(MutableDirectBuffer sendBuffer) {
+    public TcpSenderFactory(TcpResponder responder, MutableDirectBuffer sendBuffer) {
+        this(responder, sendBuffer, sendBuffer.capacity() >> 1);
+    }
+
+    /*
+     * A further frame is batched only while at least maxFrameLength bytes remain in the send buffer
+     */
+    public TcpSenderFactory(TcpResponder responder, MutableDirectBuffer sendBuffer, int maxFrameLength) {
+        if (maxFrameLength <= 0 || maxFrameLength > sendBuffer.capacity()) {
+            throw new IllegalArgumentException();
+        }
+        this.responder = responder;
         this.sendBuffer = sendBuffer;
+        this.maxFrameLength = maxFrameLength;
     }
 
     public Sender newSender(Object headers) {
         TcpManagerHeadersDecoder tcpHeaders = (TcpManagerHeadersDecoder) headers;
-        return new TcpSender(tcpHeaders, sendBuffer);
+        return newSender(tcpHeaders.connectionId(), tcpHeaders.length());
+    }
+
+    /*
+     * Reserves headerLength bytes in front of the frames for the TCP manager
+     */
+    public Sender newSender(long connectionId, int headerLength) {
+        return new TcpSender(connectionId, headerLength);
     }
 
-    private static final class TcpSender implements Sender {
-        
-        private final TcpManagerHeadersDecoder tcpHeaders;
-        private final MutableDirectBuffer sendBuffer;
+    public int flush() {
+        if (pendingSender != null) {
+            flushPending();
+        }
+        return (pendingSender != null) ? 1 : 0;
+    }
+
+    private boolean flushPending() {
+        TcpSender sender = pendingSender;
+        boolean wasBackPressured = writeFailed;
+
+        writeFailed = !responder.respond(sender.connectionId, sendBuffer, sender.sendBufferOffset,
+                pendingLimit - sender.sendBufferOffset);
+        if (!writeFailed) {
+            pendingSender = null;
+        }
+
+        if (writeFailed && !wasBackPressured) {
+            sender.block();
+            sender.observer.accept(sender);
+        }
+        else if (!writeFailed && wasBackPressured) {
+            notifyReleased();
+        }
+
+        return !writeFailed;
+    }
+
+    /*
+     * Observers may send again, so stop notifying if that fills the TCP manager once more
+     */
+    private void notifyReleased() {
+        while (!writeFailed && !blockedSenders.isEmpty()) {
+            TcpSender sender = blockedSenders.remove(blockedSenders.size() - 1);
+            sender.blocked = false;
+            sender.observer.accept(sender);
+        }
+    }
+
+    private final class TcpSender implements Sender {
+
+        private final long connectionId;
         private final int sendBufferOffset;
 
-        public TcpSender(TcpManagerHeadersDecoder tcpHeaders, MutableDirectBuffer sendBuffer) {
-            this.tcpHeaders = tcpHeaders;
+        private Consumer<Sender> observer;
+        private boolean blocked;
 
-            this.sendBuffer = sendBuffer;
-            this.sendBufferOffset = tcpHeaders.length();
+        public TcpSender(long connectionId, int headerLength) {
+            this.connectionId = connectionId;
+            this.sendBufferOffset = headerLength;
+            this.observer = (s) -> {};
         }
 
         public <T extends Flyweight> T wrap(T flyweight) {
-            flyweight.wrap(sendBuffer, sendBufferOffset);
+            int offset = sendBufferOffset;
+            if (pendingSender == this && sendBuffer.capacity() - pendingLimit >= maxFrameLength) {
+                offset = pendingLimit;
+            }
+            else if (pendingSender != null && !flushPending()) {
+                block();
+                return null;
+            }
+            flyweight.wrap(sendBuffer, offset);
             return flyweight;
         }
 
         public void send(int limit) {
-            tcpHeaders.respond(sendBuffer, sendBufferOffset, limit - sendBufferOffset);
+            pendingSender = this;
+            pendingLimit = limit;
+        }
+
+        public void send(int limit, DirectBuffer payload, int payloadOffset, int payloadLength) {
+            if (payloadLength > sendBuffer.capacity() - limit) {
+                throw new IllegalArgumentException();
+            }
+            sendBuffer.putBytes(limit, payload, payloadOffset, payloadLength);
+            send(limit + payloadLength);
+        }
+
+        public void flush() {
+            if (pendingSender != null) {
+                flushPending();
+            }
+        }
+
+        public int maxFrameLength() {
+            return maxFrameLength;
+        }
+
+        public boolean isBackPressured() {
+            if (writeFailed) {
+                block();
+            }
+            return writeFailed;
+        }
+
+        public void watch(Consumer<Sender> observer) {
+            this.observer = observer;
+        }
+
+        public void discard() {
+            if (blocked) {
+                blockedSenders.remove(this);
+                blocked = false;
+            }
+            if (pendingSender == this) {
+                pendingSender = null;
+                if (writeFailed) {
+                    writeFailed = false;
+                    notifyReleased();
+                }
+            }
+        }
+
+        private void block() {
+            if (!blocked) {
+                blocked = true;
+                blockedSenders.add(this);
+            }
         }
 
+        /*
+         * Unless closing immediately, pending frames are written first, if they still cannot be written they are dropped
+         */
         public void close(boolean immediately) {
-            throw new UnsupportedOperationException();
-            // TODO: tcpHeaders.closeConnection(id, immediately);
+            if (!immediately && pendingSender == this) {
+                flushPending();
+            }
+            discard();
+            responder.close(connectionId, immediately);
         }
     }
-}
\ No newline at end of file
+}
@@ -17,6 +17,7 @@ package org.kaazing.nuklei.amqp_1_0.session;
 
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Attach;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Begin;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.DecoderContext;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Detach;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Disposition;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.End;
@@ -41,32 +42,32 @@ public final class SessionHandler<S, L> {
         session.stateMachine.start(session);
     }
     
-    public void handle(Session<S, L> session, Frame frame) {
+    public void handle(Session<S, L> session, Frame frame, DecoderContext context) {
         switch (frame.getPerformative()) {
         case BEGIN:
-            Begin begin = Begin.LOCAL_REF.get().wrap(frame.buffer(), frame.bodyOffset());
+            Begin begin = context.begin.wrap(frame.buffer(), frame.bodyOffset());
             session.stateMachine.received(session, frame, begin);
             break;
         case FLOW:
-            Flow flow = Flow.LOCAL_REF.get().wrap(frame.buffer(), frame.bodyOffset());
+            Flow flow = context.flow.wrap(frame.buffer(), frame.bodyOffset());
             session.stateMachine.received(session, frame, flow);
             break;
         case DISPOSITION:
-            Disposition disposition = Disposition.LOCAL_REF.get().wrap(frame.buffer(), frame.bodyOffset());
+            Disposition disposition = context.disposition.wrap(frame.buffer(), frame.bodyOffset());
             session.stateMachine.received(session, frame, disposition);
             break;
         case END:
-            End end = End.LOCAL_REF.get().wrap(frame.buffer(), frame.bodyOffset());
+            End end = context.end.wrap(frame.buffer(), frame.bodyOffset());
             session.stateMachine.received(session, frame, end);
             break;
         case ATTACH:
-            handleLinkAttach(session, frame);
+            handleLinkAttach(session, frame, context);
             break;
         case TRANSFER:
-            handleLinkTransfer(session, frame);
+            handleLinkTransfer(session, frame, context);
             break;
         case DETACH:
-            handleLinkDetach(session, frame);
+            handleLinkDetach(session, frame, context);
             break;
         default:
             session.stateMachine.error(session);
@@ -74,8 +75,8 @@ public final class SessionHandler<S, L> {
         }
     }
 
-    private void handleLinkAttach(Session<S, L> session, Frame frame) {
-        Attach attach = Attach.LOCAL_REF.get().wrap(frame.buffer(), frame.bodyOffset());
+    private void handleLinkAttach(Session<S, L> session, Frame frame, DecoderContext context) {
+        Attach attach = context.attach.wrap(frame.buffer(), frame.bodyOffset());
         int newHandle = (int) attach.getHandle();
         Link<L> newLink = session.links.get(newHandle);
         if (newLink == null) {
@@ -83,30 +84,30 @@ public final class SessionHandler<S, L> {
             session.links.put(newHandle, newLink);
             linkHandler.init(newLink);
         }
-        linkHandler.handle(newLink, frame);
+        linkHandler.handle(newLink, frame, context);
     }
 
-    private void handleLinkTransfer(Session<S, L> session, Frame frame) {
-        Transfer transfer = Transfer.LOCAL_REF.get().wrap(frame.buffer(), frame.bodyOffset());
+    private void handleLinkTransfer(Session<S, L> session, Frame frame, DecoderContext context) {
+        Transfer transfer = context.transfer.wrap(frame.buffer(), frame.bodyOffset());
         int handle = (int) transfer.getHandle();
         Link<L> link = session.links.get(handle);
         if (link == null) {
             session.stateMachine.error(session);
         }
         else {
-            linkHandler.handle(link, frame);
+            linkHandler.handle(link, frame, context);
         }
     }
 
-    private void handleLinkDetach(Session<S, L> session, Frame frame) {
-        Detach detach = Detach.LOCAL_REF.get().wrap(frame.buffer(), frame.bodyOffset());
+    private void handleLinkDetach(Session<S, L> session, Frame frame, DecoderContext context) {
+        Detach detach = context.detach.wrap(frame.buffer(), frame.bodyOffset());
         int oldHandle = (int) detach.getHandle();
         Link<L> oldLink = session.links.remove(oldHandle);
         if (oldLink == null) {
             session.stateMachine.error(session);
         }
         else {
-            linkHandler.handle(oldLink, frame);
+            linkHandler.handle(oldLink, frame, context);
         }
     }
 }
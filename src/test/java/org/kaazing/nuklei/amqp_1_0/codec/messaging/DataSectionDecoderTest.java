@@ -0,0 +1,119 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.messaging;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static uk.co.real_logic.agrona.BitUtil.fromHex;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+public class DataSectionDecoderTest {
+
+    private static final String HEADER_HEX = "005370c00402415007";
+    private static final String APPLICATION_PROPERTIES_HEX = "005374c10702a1016ba10176";
+    private static final String DATA_HEX = "005375a003010203";
+    private static final String DATA_32_HEX = "00800000000000000075b000000002aabb";
+    private static final String DATA_SYMBOL_HEX = "00a310616d71703a646174613a62696e617279a00104";
+    private static final String EMPTY_DATA_HEX = "005375a000";
+    private static final String DESCRIBED_VALUE_HEX = "00537700a303666f6fa103626172";
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private int sectionCount;
+
+    private final DataSectionDecoder decoder = new DataSectionDecoder((buffer, offset, length, last) -> {
+        byte[] slice = new byte[length];
+        buffer.getBytes(offset, slice);
+        bytes.write(slice, 0, length);
+        if (last) {
+            sectionCount++;
+        }
+    });
+
+    @Test
+    public void shouldDecodeDataSectionsInOneSlice() {
+        byte[] message = fromHex(HEADER_HEX + APPLICATION_PROPERTIES_HEX + DATA_HEX + DATA_32_HEX + DATA_SYMBOL_HEX);
+
+        decoder.decode(new UnsafeBuffer(message), 0, message.length);
+
+        assertArrayEquals(fromHex("010203aabb04"), bytes.toByteArray());
+        assertEquals(3, sectionCount);
+        assertTrue(decoder.isSectionBoundary());
+    }
+
+    @Test
+    public void shouldDecodeDataSectionsAcrossSlices() {
+        byte[] message = fromHex(HEADER_HEX + DATA_HEX + EMPTY_DATA_HEX + DATA_32_HEX);
+
+        for (int sliceLength = 1; sliceLength <= message.length; sliceLength++) {
+            bytes.reset();
+            sectionCount = 0;
+            decoder.reset();
+
+            UnsafeBuffer buffer = new UnsafeBuffer(message);
+            for (int offset = 0; offset < message.length; offset += sliceLength) {
+                decoder.decode(buffer, offset, Math.min(sliceLength, message.length - offset));
+            }
+
+            assertArrayEquals(fromHex("010203aabb"), bytes.toByteArray());
+            assertEquals(3, sectionCount);
+            assertTrue(decoder.isSectionBoundary());
+        }
+    }
+
+    @Test
+    public void shouldSkipDescribedAmqpValueAcrossSlices() {
+        byte[] message = fromHex(DESCRIBED_VALUE_HEX + DATA_HEX);
+
+        for (int sliceLength = 1; sliceLength <= message.length; sliceLength++) {
+            bytes.reset();
+            sectionCount = 0;
+            decoder.reset();
+
+            UnsafeBuffer buffer = new UnsafeBuffer(message);
+            for (int offset = 0; offset < message.length; offset += sliceLength) {
+                decoder.decode(buffer, offset, Math.min(sliceLength, message.length - offset));
+            }
+
+            assertArrayEquals(fromHex("010203"), bytes.toByteArray());
+            assertEquals(1, sectionCount);
+            assertTrue(decoder.isSectionBoundary());
+        }
+    }
+
+    @Test
+    public void shouldNotBeAtSectionBoundaryWithinSection() {
+        byte[] message = fromHex(DATA_HEX);
+
+        decoder.decode(new UnsafeBuffer(message), 0, message.length - 1);
+
+        assertFalse(decoder.isSectionBoundary());
+        assertEquals(0, sectionCount);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotDecodeUndescribedSection() {
+        byte[] message = fromHex("a003010203");
+
+        decoder.decode(new UnsafeBuffer(message), 0, message.length);
+    }
+}
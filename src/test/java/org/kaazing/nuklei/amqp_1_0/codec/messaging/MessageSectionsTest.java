@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.messaging;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static uk.co.real_logic.agrona.BitUtil.fromHex;
+
+import java.util.Random;
+
+import org.junit.experimental.theories.DataPoint;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+@RunWith(Theories.class)
+public class MessageSectionsTest {
+
+    private static final int BUFFER_CAPACITY = 1024;
+
+    private static final String HEADER_HEX = "005370c00402415007";
+    private static final String PROPERTIES_HEX = "005373c00e034040a10971756575653a2f2f61";
+    private static final String APPLICATION_PROPERTIES_HEX = "005374c10702a1016ba10176";
+    private static final String DATA_HEX = "005375a003010203";
+    private static final String FOOTER_HEX = "005378c10502a3016b40";
+
+    @DataPoint
+    public static final int ZERO_OFFSET = 0;
+
+    @DataPoint
+    public static final int NON_ZERO_OFFSET = new Random().nextInt(BUFFER_CAPACITY - 512) + 1;
+
+    private final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[BUFFER_CAPACITY]);
+
+    @Theory
+    public void shouldIndexSections(int offset) {
+        byte[] message = fromHex(HEADER_HEX + PROPERTIES_HEX + APPLICATION_PROPERTIES_HEX + DATA_HEX + DATA_HEX + FOOTER_HEX);
+        buffer.putBytes(offset, message);
+
+        MessageSections sections = new MessageSections().wrap(buffer, offset, offset + message.length);
+
+        assertEquals(offset + 66, sections.limit(Section.FOOTER));
+        assertEquals(offset + 56, sections.offset(Section.FOOTER));
+        assertEquals(offset + 40, sections.offset(Section.DATA));
+        assertEquals(offset + 56, sections.limit(Section.DATA));
+        assertEquals(offset + 28, sections.offset(Section.APPLICATION_PROPERTIES));
+        assertEquals(offset + 9, sections.offset(Section.PROPERTIES));
+        assertEquals(offset, sections.offset(Section.HEADER));
+        assertFalse(sections.has(Section.DELIVERY_ANNOTATIONS));
+        assertFalse(sections.has(Section.AMQP_VALUE));
+        assertEquals(7, sections.header().getPriority());
+        assertEquals(2, sections.footer().count());
+    }
+
+    @Theory
+    public void shouldIndexOnlyAsFarAsRequested(int offset) {
+        byte[] message = fromHex(HEADER_HEX + PROPERTIES_HEX + "ffffffff");
+        buffer.putBytes(offset, message);
+
+        MessageSections sections = new MessageSections().wrap(buffer, offset, offset + message.length);
+
+        assertTrue(sections.properties().getTo().contentEquals("queue://a".getBytes(UTF_8)));
+        assertTrue(sections.header().getDurable());
+    }
+
+    @Theory
+    public void shouldNotIndexAbsentSections(int offset) {
+        byte[] message = fromHex(DATA_HEX);
+        buffer.putBytes(offset, message);
+
+        MessageSections sections = new MessageSections().wrap(buffer, offset, offset + message.length);
+
+        assertNull(sections.header());
+        assertNull(sections.properties());
+        assertNull(sections.applicationProperties());
+        assertNull(sections.footer());
+        assertEquals(offset, sections.offset(Section.DATA));
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.messaging;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.kaazing.nuklei.amqp_1_0.codec.util.FieldAccessors.newAccessor;
+import static uk.co.real_logic.agrona.BitUtil.fromHex;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.theories.DataPoint;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+import org.kaazing.nuklei.amqp_1_0.codec.types.MapType;
+import org.kaazing.nuklei.function.DirectBufferAccessor;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+@RunWith(Theories.class)
+public class MessageSelectorTest {
+
+    private static final int BUFFER_CAPACITY = 1024;
+
+    private static final DirectBufferAccessor<String> READ_UTF_8 = newAccessor(UTF_8);
+
+    private static final String HEADER_HEX = "005370c00402415007";
+    private static final String PROPERTIES_HEX = "005373c00e034040a10971756575653a2f2f61";
+    private static final String APPLICATION_PROPERTIES_HEX = "005374c11006a1016ba10176a1016e5405a1016241";
+    private static final String DATA_HEX = "005375a003010203";
+
+    @DataPoint
+    public static final int ZERO_OFFSET = 0;
+
+    @DataPoint
+    public static final int NON_ZERO_OFFSET = new Random().nextInt(BUFFER_CAPACITY - 512) + 1;
+
+    private final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[BUFFER_CAPACITY]);
+
+    @Theory
+    public void shouldMatchApplicationProperties(int offset) {
+        MessageSections sections = wrapMessage(offset);
+
+        assertTrue(MessageSelector.compile("k = 'v'").matches(sections));
+        assertTrue(MessageSelector.compile("n > 4 AND n <= 5").matches(sections));
+        assertTrue(MessageSelector.compile("n = 5.0").matches(sections));
+        assertTrue(MessageSelector.compile("b").matches(sections));
+        assertTrue(MessageSelector.compile("k IN ('u', 'v') OR n < 0").matches(sections));
+        assertTrue(MessageSelector.compile("n BETWEEN 1 AND 9 and not (k <> 'v')").matches(sections));
+        assertFalse(MessageSelector.compile("k = 'w'").matches(sections));
+        assertFalse(MessageSelector.compile("n NOT BETWEEN 1 AND 9").matches(sections));
+    }
+
+    @Theory
+    public void shouldTreatMissingPropertiesAsUnknown(int offset) {
+        MessageSections sections = wrapMessage(offset);
+
+        assertTrue(MessageSelector.compile("x IS NULL").matches(sections));
+        assertFalse(MessageSelector.compile("x IS NOT NULL").matches(sections));
+        assertFalse(MessageSelector.compile("x = 1").matches(sections));
+        assertFalse(MessageSelector.compile("NOT (x = 1)").matches(sections));
+        assertTrue(MessageSelector.compile("x = 1 OR k = 'v'").matches(sections));
+        assertFalse(MessageSelector.compile("k = 5").matches(sections));
+    }
+
+    @Theory
+    public void shouldMatchLike(int offset) {
+        MessageSections sections = wrapMessage(offset);
+
+        assertTrue(MessageSelector.compile("k LIKE 'v'").matches(sections));
+        assertTrue(MessageSelector.compile("k LIKE '%'").matches(sections));
+        assertTrue(MessageSelector.compile("k LIKE '_'").matches(sections));
+        assertFalse(MessageSelector.compile("k LIKE 'v_'").matches(sections));
+        assertTrue(MessageSelector.compile("k NOT LIKE 'w%'").matches(sections));
+    }
+
+    @Theory
+    public void shouldMatchHeaderAndProperties(int offset) {
+        MessageSections sections = wrapMessage(offset);
+
+        assertTrue(MessageSelector.compile("JMSPriority = 7").matches(sections));
+        assertTrue(MessageSelector.compile("JMSMessageID IS NULL").matches(sections));
+        assertTrue(MessageSelector.compile("JMSType IS NULL").matches(sections));
+        assertTrue(MessageSelector.compile("JMSDeliveryMode = 'PERSISTENT'").matches(sections));
+        assertTrue(MessageSelector.compile("JMSTimestamp = 0").matches(sections));
+    }
+
+    @Theory
+    public void shouldMatchDeliveryModeAndTimestamp(int offset) {
+        // @formatter:off
+        byte[] message = fromHex("005373c0130a40404040404040404083" + "00000000000003e8" +
+                                 DATA_HEX);
+        // @formatter:on
+        buffer.putBytes(offset, message);
+
+        MessageSections sections = new MessageSections().wrap(buffer, offset, offset + message.length);
+
+        assertTrue(MessageSelector.compile("JMSDeliveryMode = 'NON_PERSISTENT'").matches(sections));
+        assertTrue(MessageSelector.compile("JMSTimestamp = 1000").matches(sections));
+        assertTrue(MessageSelector.compile("JMSTimestamp BETWEEN 1 AND 1000").matches(sections));
+    }
+
+    @Theory
+    public void shouldCompareULongAboveLongRange(int offset) {
+        // @formatter:off
+        byte[] message = fromHex("005374c10d02a10175" + "80ffffffffffffffff" +
+                                 DATA_HEX);
+        // @formatter:on
+        buffer.putBytes(offset, message);
+
+        MessageSections sections = new MessageSections().wrap(buffer, offset, offset + message.length);
+
+        assertTrue(MessageSelector.compile("u > 0").matches(sections));
+        assertTrue(MessageSelector.compile("u > 9223372036854775807").matches(sections));
+        assertTrue(MessageSelector.compile("u > 1.0E19").matches(sections));
+        assertFalse(MessageSelector.compile("u = -1").matches(sections));
+        assertFalse(MessageSelector.compile("u < 0").matches(sections));
+    }
+
+    @Theory
+    public void shouldMatchIdentifiersRegardlessOfDefaultLocale(int offset) {
+        MessageSections sections = wrapMessage(offset);
+
+        Locale locale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            assertTrue(MessageSelector.compile("JMSPriority = 7").matches(sections));
+            assertTrue(MessageSelector.compile("JMSMessageID is null").matches(sections));
+        }
+        finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    @Theory
+    public void shouldDefaultPriorityWithoutHeader(int offset) {
+        byte[] message = fromHex(DATA_HEX);
+        buffer.putBytes(offset, message);
+
+        MessageSections sections = new MessageSections().wrap(buffer, offset, offset + message.length);
+
+        assertTrue(MessageSelector.compile("JMSPriority = 4").matches(sections));
+        assertFalse(MessageSelector.compile("k = 'v'").matches(sections));
+    }
+
+    @Theory
+    public void shouldGetSelectorFromFilterSet(int offset) {
+        // @formatter:off
+        byte[] filterSet = fromHex("c12e02" +
+                                   "a30873656c6563746f72" +
+                                   "00" + "80" + "0000468c00000004" + "a117" +
+                                   "636f6c6f72203d202772656427" + "20414e44206e203e2031");
+        // @formatter:on
+        buffer.putBytes(offset, filterSet);
+
+        MapType map = new MapType().wrap(buffer, offset);
+        String selector = MessageSelector.getSelector(map, READ_UTF_8);
+
+        assertEquals("color = 'red' AND n > 1", selector);
+    }
+
+    @Theory
+    public void shouldNotGetSelectorFromFilterSetWithoutSelector(int offset) {
+        buffer.putBytes(offset, fromHex("c10100"));
+
+        MapType map = new MapType().wrap(buffer, offset);
+
+        assertNull(MessageSelector.getSelector(map, READ_UTF_8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCompileIncompleteSelector() {
+        MessageSelector.compile("k = ");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCompileUnsupportedIdentifier() {
+        MessageSelector.compile("JMSDestination = 'queue://a'");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCompileNonAsciiEscape() {
+        MessageSelector.compile("k LIKE 'v\u00e9_' ESCAPE '\u00e9'");
+    }
+
+    private MessageSections wrapMessage(int offset) {
+        byte[] message = fromHex(HEADER_HEX + PROPERTIES_HEX + APPLICATION_PROPERTIES_HEX + DATA_HEX);
+        buffer.putBytes(offset, message);
+        return new MessageSections().wrap(buffer, offset, offset + message.length);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.messaging;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.kaazing.nuklei.amqp_1_0.codec.util.FieldAccessors.newAccessor;
+import static uk.co.real_logic.agrona.BitUtil.fromHex;
+
+import java.util.Random;
+
+import org.junit.experimental.theories.DataPoint;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Frame;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Transfer;
+import org.kaazing.nuklei.function.DirectBufferAccessor;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+@RunWith(Theories.class)
+public class SectionTest {
+
+    private static final int BUFFER_CAPACITY = 1024;
+    private static final DirectBufferAccessor<String> READ_UTF_8 = newAccessor(UTF_8);
+
+    private static final String HEADER_HEX = "005370c00402415007";
+    private static final String PROPERTIES_HEX = "005373c00e034040a10971756575653a2f2f61";
+    private static final String APPLICATION_PROPERTIES_HEX = "005374c10702a1016ba10176";
+    private static final String DATA_HEX = "005375a003010203";
+    private static final String MESSAGE_HEX = HEADER_HEX + PROPERTIES_HEX + APPLICATION_PROPERTIES_HEX + DATA_HEX;
+
+    @DataPoint
+    public static final int ZERO_OFFSET = 0;
+
+    @DataPoint
+    public static final int NON_ZERO_OFFSET = new Random().nextInt(BUFFER_CAPACITY - 512) + 1;
+
+    private final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[BUFFER_CAPACITY]);
+
+    @Theory
+    public void shouldDecodeSectionsInPlace(int offset) {
+        buffer.putBytes(offset, fromHex(MESSAGE_HEX));
+
+        Section.Described section = new Section.Described();
+
+        section.wrap(buffer, offset);
+        assertEquals(Section.HEADER, section.getSection());
+        MessageHeader header = section.getHeader();
+        assertTrue(header.getDurable());
+        assertEquals(7, header.getPriority());
+        assertFalse(header.hasTtl());
+        assertEquals(0L, header.getDeliveryCount());
+
+        section.wrap(buffer, section.limit());
+        assertEquals(Section.PROPERTIES, section.getSection());
+        Properties properties = section.getProperties();
+        assertNull(properties.getMessageId());
+        assertNull(properties.getUserId(READ_UTF_8));
+        assertTrue(properties.getTo().contentEquals("queue://a".getBytes(UTF_8)));
+        assertNull(properties.getSubject());
+        assertEquals(0L, properties.getCreationTime());
+
+        section.wrap(buffer, section.limit());
+        assertEquals(Section.APPLICATION_PROPERTIES, section.getSection());
+        ApplicationProperties applicationProperties = section.getApplicationProperties();
+        assertEquals(2, applicationProperties.count());
+        assertEquals(section.valueOffset() + 6, applicationProperties.valueOffset("k".getBytes(UTF_8)));
+
+        section.wrap(buffer, section.limit());
+        assertEquals(Section.DATA, section.getSection());
+        assertEquals("\u0001\u0002\u0003", section.getData().get(READ_UTF_8));
+        assertEquals(offset + MESSAGE_HEX.length() / 2, section.limit());
+    }
+
+    @Theory
+    public void shouldDecodeSymbolicSection(int offset) {
+        // @formatter:off
+        String symbolicDataHex = "00a310" + "616d71703a646174613a62696e617279" + "a003010203"; // amqp:data:binary
+        // @formatter:on
+        buffer.putBytes(offset, fromHex(symbolicDataHex));
+
+        Section.Described section = new Section.Described();
+
+        section.wrap(buffer, offset);
+        assertEquals(Section.DATA, section.getSection());
+        assertEquals("\u0001\u0002\u0003", section.getData().get(READ_UTF_8));
+        assertEquals(offset + symbolicDataHex.length() / 2, section.limit());
+    }
+
+    @Theory
+    public void shouldNotResolveUnknownSymbolicSection(int offset) {
+        buffer.putBytes(offset, fromHex("00a30a" + "616d71703a6f70656e3a" + "45")); // amqp:open:
+
+        Section.Described section = new Section.Described();
+
+        section.wrap(buffer, offset);
+        assertNull(section.getSection());
+    }
+
+    @Theory
+    public void shouldDecodeTransferPayload(int offset) {
+        Frame frame = Frame.LOCAL_REF.get();
+        frame.wrap(buffer, offset)
+             .setDataOffset(2)
+             .setType(0)
+             .setChannel(0)
+             .beginTransfer()
+                 .handle(0)
+                 .deliveryId(0)
+             .end();
+
+        int payloadOffset = frame.payloadOffset();
+        buffer.putBytes(payloadOffset, fromHex(DATA_HEX));
+        frame.setLength(payloadOffset + DATA_HEX.length() / 2 - offset);
+
+        Transfer transfer = Transfer.LOCAL_REF.get().wrap(buffer, frame.bodyOffset());
+
+        assertEquals(payloadOffset, transfer.payloadOffset());
+        assertEquals(DATA_HEX.length() / 2, frame.payloadLength());
+
+        Section.Described section = new Section.Described().wrap(buffer, payloadOffset);
+        assertEquals(Section.DATA, section.getSection());
+        assertEquals(payloadOffset + frame.payloadLength(), section.limit());
+    }
+}
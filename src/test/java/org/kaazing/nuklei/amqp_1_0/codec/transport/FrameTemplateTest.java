@@ -0,0 +1,146 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.transport;
+
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.theories.DataPoint;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+import org.kaazing.nuklei.amqp_1_0.codec.messaging.Performative;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+@RunWith(Theories.class)
+public class FrameTemplateTest {
+
+    private static final int BUFFER_CAPACITY = 1024;
+
+    private static final int SLOT_NEXT_INCOMING_ID = 0;
+    private static final int SLOT_DELIVERY_COUNT = 1;
+    private static final int SLOT_LINK_CREDIT = 2;
+
+    private static final int SLOT_HANDLE = 0;
+    private static final int SLOT_DELIVERY_ID = 1;
+
+    @DataPoint
+    public static final int ZERO_OFFSET = 0;
+
+    @DataPoint
+    public static final int NON_ZERO_OFFSET = new Random().nextInt(BUFFER_CAPACITY - 512) + 1;
+
+    private final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[BUFFER_CAPACITY]);
+
+    @Theory
+    public void shouldWriteAndPatchTemplate(int offset) {
+        FrameTemplate template = newFlowTemplate();
+
+        int limit = template.write(buffer, offset);
+        template.patch(buffer, offset, SLOT_NEXT_INCOMING_ID, 7);
+        template.patch(buffer, offset, SLOT_DELIVERY_COUNT, 0x12345678L);
+        template.patch(buffer, offset, SLOT_LINK_CREDIT, 100);
+
+        Frame frame = new Frame();
+        frame.wrap(buffer, offset);
+
+        assertEquals(offset + template.length(), limit);
+        assertEquals(template.length(), frame.getLength());
+        assertEquals(Performative.FLOW, frame.getPerformative());
+        assertEquals(1, frame.getChannel());
+
+        Flow flow = new Flow();
+        flow.wrap(buffer, frame.bodyOffset());
+
+        assertEquals(7, flow.getNextIncomingId());
+        assertEquals(1024, flow.getIncomingWindow());
+        assertEquals(0, flow.getNextOutgoingId());
+        assertEquals(1024, flow.getOutgoingWindow());
+        assertEquals(0, flow.getHandle());
+        assertEquals(0x12345678L, flow.getDeliveryCount());
+        assertEquals(100, flow.getLinkCredit());
+    }
+
+    @Theory
+    public void shouldPatchTemplateWiderThanList8(int offset) {
+        MutableDirectBuffer state = new UnsafeBuffer(new byte[300]);
+        state.putByte(0, (byte) 0xb0);
+        state.putInt(1, 295, BIG_ENDIAN);
+
+        FrameTemplate template = new FrameTemplate(512, 2);
+        Transfer.Builder transfer = template.beginTransfer(1);
+        transfer.handle(0);
+        template.mark(SLOT_HANDLE);
+        transfer.deliveryId(0);
+        template.mark(SLOT_DELIVERY_ID);
+        transfer.deliveryState(state, 0, state.capacity());
+        template.end();
+
+        template.write(buffer, offset);
+        template.patch(buffer, offset, SLOT_HANDLE, 3);
+        template.patch(buffer, offset, SLOT_DELIVERY_ID, 0x12345678L);
+
+        Frame frame = new Frame();
+        frame.wrap(buffer, offset);
+
+        assertEquals(template.length(), frame.getLength());
+        assertEquals(Performative.TRANSFER, frame.getPerformative());
+
+        Transfer decoded = new Transfer();
+        decoded.wrap(buffer, frame.bodyOffset());
+
+        assertEquals(3, decoded.getHandle());
+        assertEquals(0x12345678L, decoded.getDeliveryId());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotMarkNonUIntField() {
+        FrameTemplate template = new FrameTemplate(64, 1);
+        template.beginFlow(0)
+                .nextIncomingId(0)
+                .incomingWindow(0)
+                .nextOutgoingId(0)
+                .outgoingWindow(0)
+                .handle(0)
+                .deliveryCount(0)
+                .linkCredit(0)
+                .available(0)
+                .drain(false);
+        template.mark(0);
+    }
+
+    private static FrameTemplate newFlowTemplate() {
+        FrameTemplate template = new FrameTemplate(64, 3);
+        Flow.Builder flow = template.beginFlow(1);
+        flow.nextIncomingId(0);
+        template.mark(SLOT_NEXT_INCOMING_ID);
+        flow.incomingWindow(1024)
+            .nextOutgoingId(0)
+            .outgoingWindow(1024)
+            .handle(0)
+            .deliveryCount(0);
+        template.mark(SLOT_DELIVERY_COUNT);
+        flow.linkCredit(0);
+        template.mark(SLOT_LINK_CREDIT);
+        template.end();
+        return template;
+    }
+}
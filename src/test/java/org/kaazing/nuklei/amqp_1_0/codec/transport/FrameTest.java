@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.transport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static uk.co.real_logic.agrona.BitUtil.fromHex;
+
+import java.util.Random;
+
+import org.junit.experimental.theories.DataPoint;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+import org.kaazing.nuklei.amqp_1_0.codec.messaging.Performative;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+@RunWith(Theories.class)
+public class FrameTest {
+
+    private static final int BUFFER_CAPACITY = 1024;
+
+    @DataPoint
+    public static final int ZERO_OFFSET = 0;
+
+    @DataPoint
+    public static final int NON_ZERO_OFFSET = new Random().nextInt(BUFFER_CAPACITY - 512) + 1;
+
+    private final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[BUFFER_CAPACITY]);
+
+    @Theory
+    public void shouldDecodeSmallULongPerformative(int offset) {
+        buffer.putBytes(offset, fromHex("0000001002000000" + "005314" + "c003015201"));
+
+        Frame frame = new Frame().wrap(buffer, offset);
+
+        assertSame(Performative.TRANSFER, frame.getPerformative());
+        assertEquals(offset + 11, frame.bodyOffset());
+    }
+
+    @Theory
+    public void shouldDecodeULongPerformative(int offset) {
+        buffer.putBytes(offset, fromHex("0000001502000000" + "00800000000000000011" + "c003015201"));
+
+        Frame frame = new Frame().wrap(buffer, offset);
+
+        assertSame(Performative.BEGIN, frame.getPerformative());
+        assertEquals(offset + 18, frame.bodyOffset());
+    }
+
+    @Theory
+    public void shouldDecodeSymbolicPerformative(int offset) {
+        // @formatter:off
+        buffer.putBytes(offset, fromHex("0000002202000000" +
+                                        "00a312" + "616d71703a7472616e736665723a6c697374" +
+                                        "c003015201"));
+        // @formatter:on
+
+        Frame frame = new Frame().wrap(buffer, offset);
+        Transfer transfer = new Transfer().wrap(buffer, frame.bodyOffset());
+
+        assertSame(Performative.TRANSFER, frame.getPerformative());
+        assertEquals(offset + 29, frame.bodyOffset());
+        assertEquals(0x01L, transfer.getHandle());
+        assertEquals(offset + 34, frame.limit());
+    }
+
+    @Theory
+    public void shouldNotDecodeUnknownSymbolicPerformative(int offset) {
+        buffer.putBytes(offset, fromHex("0000000f02000000" + "00a303616263" + "45"));
+
+        Frame frame = new Frame().wrap(buffer, offset);
+
+        assertNull(frame.getPerformative());
+    }
+
+    @Theory
+    public void shouldResolvePerformativeAgainAfterWrap(int offset) {
+        buffer.putBytes(offset, fromHex("0000001002000000" + "005314" + "c003015201"));
+        Frame frame = new Frame().wrap(buffer, offset);
+        assertSame(Performative.TRANSFER, frame.getPerformative());
+
+        buffer.putBytes(offset, fromHex("0000001002000000" + "005313" + "c003015201"));
+        frame.wrap(buffer, offset);
+
+        assertSame(Performative.FLOW, frame.getPerformative());
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.transport;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static uk.co.real_logic.agrona.BitUtil.fromHex;
+
+import java.util.Random;
+
+import org.junit.experimental.theories.DataPoint;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+@RunWith(Theories.class)
+public class FrameValidatorTest {
+
+    private static final int BUFFER_CAPACITY = 1024;
+
+    @DataPoint
+    public static final int ZERO_OFFSET = 0;
+
+    @DataPoint
+    public static final int NON_ZERO_OFFSET = new Random().nextInt(BUFFER_CAPACITY - 512) + 1;
+
+    private final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[BUFFER_CAPACITY]);
+
+    @Theory
+    public void shouldAcceptPerformative(int offset) {
+        assertTrue(isValid(offset, "0000001002000000" + "005314" + "c003015201"));
+    }
+
+    @Theory
+    public void shouldAcceptPerformativeWithPayload(int offset) {
+        assertTrue(isValid(offset, "0000001402000000" + "005314" + "c003015201" + "00537541"));
+    }
+
+    @Theory
+    public void shouldAcceptEmptyFrame(int offset) {
+        assertTrue(isValid(offset, "0000000802000000"));
+    }
+
+    @Theory
+    public void shouldAcceptSymbolicPerformative(int offset) {
+        // @formatter:off
+        assertTrue(isValid(offset, "0000002202000000" +
+                                   "00a312" + "616d71703a7472616e736665723a6c697374" +
+                                   "c003015201"));
+        // @formatter:on
+    }
+
+    @Theory
+    public void shouldAcceptNestedArray(int offset) {
+        assertTrue(isValid(offset, "0000001502000000" + "005314" + "c00801" + "e00503500102" + "03"));
+    }
+
+    @Theory
+    public void shouldRejectFrameLengthBeyondLimit(int offset) {
+        assertFalse(isValid(offset, "0000002002000000" + "005314" + "c003015201"));
+    }
+
+    @Theory
+    public void shouldRejectFrameLengthBelowHeader(int offset) {
+        assertFalse(isValid(offset, "0000000402000000"));
+    }
+
+    @Theory
+    public void shouldRejectExtendedHeader(int offset) {
+        assertFalse(isValid(offset, "0000001403000000" + "00000000" + "005314" + "c003015201"));
+    }
+
+    @Theory
+    public void shouldRejectListLengthBeyondFrame(int offset) {
+        assertFalse(isValid(offset, "0000001002000000" + "005314" + "c009015201"));
+    }
+
+    @Theory
+    public void shouldRejectListCountBeyondLength(int offset) {
+        assertFalse(isValid(offset, "0000001002000000" + "005314" + "c003025201"));
+    }
+
+    @Theory
+    public void shouldRejectUnknownConstructor(int offset) {
+        assertFalse(isValid(offset, "0000001002000000" + "005314" + "c003010101"));
+    }
+
+    @Theory
+    public void shouldRejectTruncatedDescriptor(int offset) {
+        assertFalse(isValid(offset, "0000000a02000000" + "0080"));
+    }
+
+    @Theory
+    public void shouldRejectUndescribedPerformative(int offset) {
+        assertFalse(isValid(offset, "0000000d02000000" + "c003015201"));
+    }
+
+    @Theory
+    public void shouldRejectUnknownPerformative(int offset) {
+        assertFalse(isValid(offset, "0000000c02000000" + "005330" + "45"));
+    }
+
+    @Theory
+    public void shouldRejectArrayCountBeyondLength(int offset) {
+        assertFalse(isValid(offset, "0000001502000000" + "005314" + "c00801" + "e00504500102" + "03"));
+    }
+
+    @Theory
+    public void shouldAcceptMaximumDeliveryTag(int offset) {
+        assertTrue(isValid(offset, "0000003402000000" + "005314" + "c02703" + "5201" + "5200" + "a020" + repeat("aa", 32)));
+    }
+
+    @Theory
+    public void shouldRejectDeliveryTagBeyondMaximum(int offset) {
+        assertFalse(isValid(offset, "0000003502000000" + "005314" + "c02803" + "5201" + "5200" + "a021" + repeat("aa", 33)));
+    }
+
+    private static String repeat(String hex, int count) {
+        StringBuilder repeated = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            repeated.append(hex);
+        }
+        return repeated.toString();
+    }
+
+    private boolean isValid(int offset, String hex) {
+        byte[] bytes = fromHex(hex);
+        buffer.putBytes(offset, bytes);
+
+        Frame frame = Frame.LOCAL_REF.get().wrap(buffer, offset);
+        return FrameValidator.isValid(frame, offset + bytes.length);
+    }
+}
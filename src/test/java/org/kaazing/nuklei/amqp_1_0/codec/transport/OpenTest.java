@@ -17,7 +17,9 @@ package org.kaazing.nuklei.amqp_1_0.codec.transport;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.kaazing.nuklei.amqp_1_0.codec.util.FieldAccessors.newAccessor;
 import static org.kaazing.nuklei.amqp_1_0.codec.util.FieldMutators.newMutator;
 import static uk.co.real_logic.agrona.BitUtil.toHex;
@@ -101,4 +103,90 @@ public class OpenTest {
         assertEquals(65536, open.getMaxFrameSize());
         assertEquals(255, open.getChannelMax());
     }    
+
+    @Theory
+    public void shouldEncodeCompact(int offset) {
+        Open open = new Open();
+        
+        // @formatter:off
+        open.wrap(buffer, offset)
+            .maxLength(0x100)
+            .setContainerId(WRITE_UTF_8, "clientID")
+            .setHostname(null)
+            .compact();
+        // @formatter:on
+
+        assertEquals(offset + 13, open.limit());
+        assertEquals("c00b01a108636c69656e744944",
+                     toHex(buffer.byteArray(), offset, 13));
+        assertEquals("clientID", open.getContainerId(READ_UTF_8));
+    }    
+
+    @Theory
+    public void shouldEncodeCompactWhenAllFieldsNull(int offset) {
+        Open open = new Open();
+        
+        // @formatter:off
+        open.wrap(buffer, offset)
+            .maxLength(255)
+            .setContainerId(null)
+            .compact();
+        // @formatter:on
+
+        assertEquals(offset + 1, open.limit());
+        assertEquals(0x45, buffer.getByte(offset));
+        assertEquals(0, open.count());
+    }    
+
+    @Theory
+    public void shouldLimitMaxFrameSizeInPlace(int offset) {
+        Open open = new Open();
+        
+        // @formatter:off
+        open.wrap(buffer, offset)
+            .maxLength(255)
+            .setContainerId(WRITE_UTF_8, "clientID")
+            .setHostname(null)
+            .setMaxFrameSize(65536)
+            .setChannelMax(255);
+        // @formatter:on
+
+        assertTrue(open.limitMaxFrameSize(4096));
+        assertEquals(offset + 22, open.limit());
+        assertEquals(4096, open.getMaxFrameSize());
+        assertEquals(255, open.getChannelMax());
+    }    
+
+    @Theory
+    public void shouldAppendLimitedMaxFrameSize(int offset) {
+        Open open = new Open();
+        
+        // @formatter:off
+        open.wrap(buffer, offset)
+            .maxLength(255)
+            .setContainerId(WRITE_UTF_8, "clientID")
+            .setHostname(null);
+        // @formatter:on
+
+        assertTrue(open.limitMaxFrameSize(4096));
+        assertEquals(3, open.count());
+        assertEquals(4096, open.getMaxFrameSize());
+    }    
+
+    @Theory
+    public void shouldNotLimitOmittedMaxFrameSizeFollowedByFields(int offset) {
+        Open open = new Open();
+        
+        // @formatter:off
+        open.wrap(buffer, offset)
+            .maxLength(255)
+            .setContainerId(WRITE_UTF_8, "clientID")
+            .setHostname(null)
+            .setMaxFrameSize(0)
+            .setChannelMax(255);
+        // @formatter:on
+        buffer.putByte(open.limit() - 4, (byte) 0x40);
+
+        assertFalse(open.limitMaxFrameSize(4096));
+    }    
 }
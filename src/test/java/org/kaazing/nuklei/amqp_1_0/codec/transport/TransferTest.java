@@ -0,0 +1,228 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.transport;
+
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.kaazing.nuklei.amqp_1_0.codec.util.FieldAccessors.newAccessor;
+import static org.kaazing.nuklei.amqp_1_0.codec.util.FieldMutators.newMutator;
+import static uk.co.real_logic.agrona.BitUtil.fromHex;
+import static uk.co.real_logic.agrona.BitUtil.toHex;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.theories.DataPoint;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+import org.kaazing.nuklei.function.DirectBufferAccessor;
+import org.kaazing.nuklei.function.MutableDirectBufferMutator;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+@RunWith(Theories.class)
+public class TransferTest {
+
+    private static final int BUFFER_CAPACITY = 1024;
+    private static final DirectBufferAccessor<String> READ_UTF_8 = newAccessor(UTF_8);
+    private static final MutableDirectBufferMutator<String> WRITE_UTF_8 = newMutator(UTF_8);
+
+    @DataPoint
+    public static final int ZERO_OFFSET = 0;
+
+    @DataPoint
+    public static final int NON_ZERO_OFFSET = new Random().nextInt(BUFFER_CAPACITY - 512) + 1;
+
+    private final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[BUFFER_CAPACITY]);
+
+    @Theory
+    public void shouldEncode(int offset) {
+        Transfer transfer = new Transfer();
+
+        // @formatter:off
+        transfer.wrap(buffer, offset)
+                .maxLength(255)
+                .setHandle(1)
+                .setDeliveryId(0x1234)
+                .setDeliveryTag(WRITE_UTF_8, "tag")
+                .setMessageFormat(0)
+                .setSettled(false)
+                .setMore(true);
+        // @formatter:on
+
+        assertEquals(offset + 18, transfer.limit());
+        assertEquals("c0100652017000001234a003746167434241",
+                     toHex(buffer.byteArray(), offset, 18));
+    }
+
+    @Theory
+    public void shouldDecodeInAnyOrder(int offset) {
+        buffer.putBytes(offset, fromHex("c0100652017000001234a003746167434241"));
+
+        Transfer transfer = new Transfer();
+        transfer.wrap(buffer, offset);
+
+        assertEquals(true, transfer.getMore());
+        assertEquals(false, transfer.getSettled());
+        assertEquals(0, transfer.getMessageFormat());
+        assertEquals("tag", transfer.getDeliveryTag(READ_UTF_8));
+        assertEquals(0x1234, transfer.getDeliveryId());
+        assertEquals(1, transfer.getHandle());
+        assertEquals(true, transfer.getMore());
+    }
+
+    @Theory
+    public void shouldEncodeAndDecodeAfterRewrap(int offset) {
+        Transfer transfer = new Transfer();
+
+        // @formatter:off
+        transfer.wrap(buffer, offset)
+                .maxLength(255)
+                .setHandle(0x100)
+                .setDeliveryId(1)
+                .setDeliveryTag(WRITE_UTF_8, "tag")
+                .setMessageFormat(0)
+                .setSettled(true);
+        // @formatter:on
+
+        assertEquals(true, transfer.getSettled());
+
+        transfer.wrap(buffer, offset);
+
+        assertEquals(5, transfer.count());
+        assertEquals(0x100, transfer.getHandle());
+        assertEquals(1, transfer.getDeliveryId());
+        assertEquals("tag", transfer.getDeliveryTag(READ_UTF_8));
+        assertEquals(0, transfer.getMessageFormat());
+        assertEquals(true, transfer.getSettled());
+    }
+
+    @Theory
+    public void shouldReencodeFieldAndTruncateFollowing(int offset) {
+        Transfer transfer = new Transfer();
+
+        // @formatter:off
+        transfer.wrap(buffer, offset)
+                .maxLength(255)
+                .setHandle(1)
+                .setDeliveryId(2)
+                .setDeliveryTag(WRITE_UTF_8, "tag")
+                .setDeliveryId(0x12345678L)
+                .setDeliveryTag(WRITE_UTF_8, "longer-tag");
+        // @formatter:on
+
+        transfer.wrap(buffer, offset);
+
+        assertEquals(3, transfer.count());
+        assertEquals(1, transfer.getHandle());
+        assertEquals(0x12345678L, transfer.getDeliveryId());
+        assertEquals("longer-tag", transfer.getDeliveryTag(READ_UTF_8));
+    }
+
+    @Theory
+    public void shouldEncodeWithBuilder(int offset) {
+        Frame frame = new Frame();
+        MutableDirectBuffer tag = new UnsafeBuffer(fromHex("746167"));
+
+        // @formatter:off
+        int limit = frame.wrap(buffer, offset)
+                         .setDataOffset(2)
+                         .setType(0)
+                         .setChannel(0)
+                         .beginTransfer()
+                             .handle(1)
+                             .deliveryId(0x1234)
+                             .deliveryTag(tag, 0, 3)
+                             .messageFormat(0)
+                             .settled(false)
+                             .more(true)
+                         .end();
+        // @formatter:on
+
+        assertEquals(offset + 29, limit);
+        assertEquals(29, frame.getLength());
+        assertEquals("0000001d02000000005314c0100652017000001234a003746167434241",
+                     toHex(buffer.byteArray(), offset, 29));
+    }
+
+    @Theory
+    public void shouldEncodeBeyond255BytesWithBuilder(int offset) {
+        Frame frame = new Frame();
+        MutableDirectBuffer state = new UnsafeBuffer(new byte[305]);
+        state.putByte(0, (byte) 0xb0);
+        state.putInt(1, 300, BIG_ENDIAN);
+
+        // @formatter:off
+        int limit = frame.wrap(buffer, offset)
+                         .setDataOffset(2)
+                         .setType(0)
+                         .setChannel(0)
+                         .beginTransfer()
+                             .handle(1)
+                             .deliveryState(state, 0, state.capacity())
+                             .batchable(true)
+                         .end();
+        // @formatter:on
+
+        assertEquals(offset + 336, limit);
+        assertEquals(336, frame.getLength());
+        assertEquals((byte) 0xd0, buffer.getByte(frame.bodyOffset()));
+
+        Transfer transfer = new Transfer();
+        transfer.wrap(buffer, frame.bodyOffset());
+
+        assertEquals(11, transfer.count());
+        assertEquals(1, transfer.getHandle());
+        assertEquals(true, transfer.getBatchable());
+        assertEquals(limit, transfer.limit());
+    }
+
+    @Theory
+    public void shouldEncodeSkippedFieldsAsNullWithBuilder(int offset) {
+        Transfer.Builder builder = new Transfer.Builder();
+
+        // @formatter:off
+        int limit = builder.wrap(buffer, offset)
+                           .begin(255)
+                           .handle(1)
+                           .settled(true)
+                           .end();
+        // @formatter:on
+
+        assertEquals(offset + 9, limit);
+        assertEquals("c00705520140404041", toHex(buffer.byteArray(), offset, 9));
+
+        Transfer transfer = new Transfer();
+        transfer.wrap(buffer, offset);
+
+        assertEquals(5, transfer.count());
+        assertEquals(1, transfer.getHandle());
+        assertEquals(true, transfer.getSettled());
+    }
+
+    @Theory
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotEncodeOutOfOrderWithBuilder(int offset) {
+        Transfer.Builder builder = new Transfer.Builder();
+        builder.wrap(buffer, offset)
+               .begin(255)
+               .deliveryId(1)
+               .handle(1);
+    }
+}
@@ -16,11 +16,16 @@
 package org.kaazing.nuklei.amqp_1_0.codec.types;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.kaazing.nuklei.Flyweight.uint8Get;
 import static org.kaazing.nuklei.FlyweightBE.int32Get;
+import static uk.co.real_logic.agrona.BitUtil.fromHex;
 
 import java.util.Random;
+import java.util.UUID;
 
+import org.junit.Test;
 import org.junit.experimental.theories.DataPoint;
 import org.junit.experimental.theories.Theories;
 import org.junit.experimental.theories.Theory;
@@ -67,4 +72,86 @@ public class ArrayTypeTest {
         assertEquals(0x00, int32Get(buffer, offset + 5));
         assertEquals(offset + 9, arrayType.limit());
     }
+
+    @Theory
+    public void shouldDecodeFixedWidthElements(int offset) {
+        buffer.putBytes(offset, fromHex("e00a027000000001ffffffff"));
+
+        ArrayType arrayType = new ArrayType();
+        arrayType.wrap(buffer, offset);
+
+        assertEquals(Type.Kind.UINT, arrayType.elementKind());
+        assertEquals(2, arrayType.count());
+        assertEquals(1L, arrayType.getLong(0));
+        assertEquals(0xffffffffL, arrayType.getLong(1));
+        assertEquals(-1, arrayType.getInt(1));
+        assertEquals(offset + 12, arrayType.limit());
+    }
+
+    @Theory
+    public void shouldDecodeSmallIntElements(int offset) {
+        buffer.putBytes(offset, fromHex("e005035401ff7f"));
+
+        ArrayType arrayType = new ArrayType();
+        arrayType.wrap(buffer, offset);
+
+        assertEquals(1, arrayType.getInt(0));
+        assertEquals(-1, arrayType.getInt(1));
+        assertEquals(127, arrayType.getInt(2));
+    }
+
+    @Theory
+    public void shouldDecodeUuidElements(int offset) {
+        buffer.putBytes(offset, fromHex("e022029800112233445566778899aabbccddeeffffeeddccbbaa99887766554433221100"));
+
+        ArrayType arrayType = new ArrayType();
+        arrayType.wrap(buffer, offset);
+
+        assertEquals(UUID.fromString("00112233-4455-6677-8899-aabbccddeeff"), arrayType.getUuid(0));
+        assertEquals(0xffeeddccbbaa9988L, arrayType.getUuidMostSignificantBits(1));
+        assertEquals(0x7766554433221100L, arrayType.getUuidLeastSignificantBits(1));
+    }
+
+    @Theory
+    public void shouldIterateVariableWidthElements(int offset) {
+        buffer.putBytes(offset, fromHex("e00d02a3056e65766572046d6f7665"));
+
+        SymbolTable table = new SymbolTable(2)
+            .register("never", 0)
+            .register("move", 1);
+
+        ArrayType arrayType = new ArrayType();
+        arrayType.wrap(buffer, offset);
+
+        ArrayType.Cursor cursor = arrayType.cursor();
+        assertTrue(cursor.next());
+        assertEquals(0, cursor.index());
+        assertEquals(offset + 5, cursor.valueOffset());
+        assertEquals(5, cursor.valueLength());
+        assertEquals(0, cursor.getId(table));
+        assertTrue(cursor.next());
+        assertEquals(1, cursor.getId(table));
+        assertFalse(cursor.next());
+        assertEquals(arrayType.limit(), cursor.limit());
+    }
+
+    @Theory
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotDecodeVariableWidthElementsByIndex(int offset) {
+        buffer.putBytes(offset, fromHex("e00d02a3056e65766572046d6f7665"));
+
+        ArrayType arrayType = new ArrayType();
+        arrayType.wrap(buffer, offset);
+        arrayType.getLong(0);
+    }
+
+    @Theory
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldNotDecodeElementBeyondCount(int offset) {
+        buffer.putBytes(offset, fromHex("e00a027000000001ffffffff"));
+
+        ArrayType arrayType = new ArrayType();
+        arrayType.wrap(buffer, offset);
+        arrayType.getLong(2);
+    }
 }
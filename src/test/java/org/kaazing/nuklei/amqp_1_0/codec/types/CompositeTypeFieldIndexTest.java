@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.codec.types;
+
+import static java.lang.reflect.Modifier.isStatic;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+
+import org.junit.Test;
+import org.kaazing.nuklei.amqp_1_0.codec.messaging.MessageHeader;
+import org.kaazing.nuklei.amqp_1_0.codec.messaging.Properties;
+import org.kaazing.nuklei.amqp_1_0.codec.messaging.Source;
+import org.kaazing.nuklei.amqp_1_0.codec.messaging.Target;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Attach;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Begin;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Close;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Detach;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Disposition;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.End;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Flow;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Open;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Transfer;
+
+/*
+ * Field ordinals are declared by hand, so check that each composite numbers its fields in declaration order
+ */
+public class CompositeTypeFieldIndexTest {
+
+    private static final Class<?>[] COMPOSITES = {
+        Open.class, Begin.class, Attach.class, Flow.class, Transfer.class, Disposition.class, Detach.class,
+        End.class, Close.class, MessageHeader.class, Properties.class, Source.class, Target.class
+    };
+
+    @Test
+    public void shouldNumberFieldsInDeclarationOrder() throws Exception {
+        for (Class<?> composite : COMPOSITES) {
+            int expected = 0;
+            for (Field field : composite.getDeclaredFields()) {
+                if (isStatic(field.getModifiers()) && field.getName().startsWith("INDEX_")) {
+                    field.setAccessible(true);
+                    assertEquals(composite.getSimpleName() + "." + field.getName(), expected++, field.getInt(null));
+                }
+            }
+            assertTrue(composite.getSimpleName(), expected > 0);
+        }
+    }
+}
@@ -20,6 +20,7 @@ import static java.nio.ByteOrder.BIG_ENDIAN;
 import static org.junit.Assert.assertEquals;
 import static org.kaazing.nuklei.Flyweight.uint8Get;
 import static org.kaazing.nuklei.FlyweightBE.int32Get;
+import static org.kaazing.nuklei.FlyweightBE.int64Get;
 import static org.kaazing.nuklei.amqp_1_0.codec.types.Decimal128Type.SIZEOF_DECIMAL128;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -111,4 +112,38 @@ public class Decimal128TypeTest {
         verify(observer).accept(decimal128Type);
     }
     
+    @Theory
+    public void shouldEncodeUnscaled(int offset) {
+        Decimal128Type decimal128Type = new Decimal128Type();
+        decimal128Type.wrap(buffer, offset);
+
+        decimal128Type.set(1L, 0);
+
+        assertEquals(0x3040000000000000L, int64Get(buffer, offset + 1));
+        assertEquals(0x0000000000000001L, int64Get(buffer, offset + 9));
+        assertEquals(offset + 17, decimal128Type.limit());
+    }
+
+    @Theory
+    public void shouldEncodeThenDecodeUnscaled(int offset) {
+        Decimal128Type decimal128Type = new Decimal128Type();
+        decimal128Type.wrap(buffer, offset);
+
+        decimal128Type.set(-12345678L, -2);
+        assertEquals(-12345678L, decimal128Type.getUnscaledValue());
+        assertEquals(-2, decimal128Type.getExponent());
+        assertEquals(new BigDecimal("-123456.78"), decimal128Type.get());
+
+        decimal128Type.set(new BigDecimal("1234567890123456789012345678901234E-10"));
+        assertEquals(new BigDecimal("1234567890123456789012345678901234E-10"), decimal128Type.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotDecodeUnscaledBeyondLong() {
+        Decimal128Type decimal128Type = new Decimal128Type();
+        decimal128Type.wrap(buffer, 0);
+        decimal128Type.set(new BigDecimal("1234567890123456789012345678901234"));
+
+        decimal128Type.getUnscaledValue();
+    }
 }
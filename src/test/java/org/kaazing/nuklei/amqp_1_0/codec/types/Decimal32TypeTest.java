@@ -111,4 +111,41 @@ public class Decimal32TypeTest {
         verify(observer).accept(decimal32Type);
     }
     
+    @Theory
+    public void shouldEncodeUnscaled(int offset) {
+        Decimal32Type decimal32Type = new Decimal32Type();
+        decimal32Type.wrap(buffer, offset);
+
+        decimal32Type.set(1L, 0);
+        assertEquals(0x32800001, int32Get(buffer, offset + 1));
+
+        decimal32Type.set(1234567L, -3);
+        assertEquals(0x3112d687, int32Get(buffer, offset + 1));
+
+        decimal32Type.set(9999999L, 0);
+        assertEquals(0x6cb8967f, int32Get(buffer, offset + 1));
+        assertEquals(offset + 5, decimal32Type.limit());
+    }
+
+    @Theory
+    public void shouldEncodeThenDecodeUnscaled(int offset) {
+        Decimal32Type decimal32Type = new Decimal32Type();
+        decimal32Type.wrap(buffer, offset);
+
+        decimal32Type.set(-9999999L, -7);
+        assertEquals(-9999999L, decimal32Type.getUnscaledValue());
+        assertEquals(-7, decimal32Type.getExponent());
+        assertEquals(new BigDecimal("-0.9999999"), decimal32Type.get());
+
+        decimal32Type.set(new BigDecimal("123.45"));
+        assertEquals(12345L, decimal32Type.getUnscaledValue());
+        assertEquals(-2, decimal32Type.getExponent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotEncodeUnscaledOutOfRange() {
+        Decimal32Type decimal32Type = new Decimal32Type();
+        decimal32Type.wrap(buffer, 0);
+        decimal32Type.set(12345678L, 0);
+    }
 }
@@ -111,4 +111,31 @@ public class Decimal64TypeTest {
         verify(observer).accept(decimal64Type);
     }
     
+    @Theory
+    public void shouldEncodeUnscaled(int offset) {
+        Decimal64Type decimal64Type = new Decimal64Type();
+        decimal64Type.wrap(buffer, offset);
+
+        decimal64Type.set(1L, 0);
+        assertEquals(0x31c0000000000001L, int64Get(buffer, offset + 1));
+
+        decimal64Type.set(-12345678L, -2);
+        assertEquals(0xb180000000bc614eL, int64Get(buffer, offset + 1));
+        assertEquals(offset + 9, decimal64Type.limit());
+    }
+
+    @Theory
+    public void shouldEncodeThenDecodeUnscaled(int offset) {
+        Decimal64Type decimal64Type = new Decimal64Type();
+        decimal64Type.wrap(buffer, offset);
+
+        decimal64Type.set(9999999999999999L, 369);
+        assertEquals(9999999999999999L, decimal64Type.getUnscaledValue());
+        assertEquals(369, decimal64Type.getExponent());
+
+        decimal64Type.set(new BigDecimal("-123456.78"));
+        assertEquals(-12345678L, decimal64Type.getUnscaledValue());
+        assertEquals(-2, decimal64Type.getExponent());
+        assertEquals(new BigDecimal("-123456.78"), decimal64Type.get());
+    }
 }
@@ -23,6 +23,7 @@ import static org.junit.Assert.assertSame;
 import static org.kaazing.nuklei.amqp_1_0.codec.util.FieldMutators.newMutator;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static uk.co.real_logic.agrona.BitUtil.fromHex;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -84,6 +85,17 @@ public class DynamicTypeTest {
         assertEquals(arrayType.limit(), dynamicType.limit());
     }
     
+    @Theory
+    public void shouldDecodeDynamicAsArray1WithElements(int offset) {
+        buffer.putBytes(offset, fromHex("e00402520102"));
+
+        DynamicType dynamicType = new DynamicType();
+        dynamicType.wrap(buffer, offset);
+
+        assertSame(Kind.ARRAY, dynamicType.kind());
+        assertEquals(offset + 6, dynamicType.limit());
+    }
+
     @Theory
     public void shouldDecodeDynamicAsBinary1(int offset) {
         BinaryType binaryType = new BinaryType();
@@ -301,6 +313,17 @@ public class DynamicTypeTest {
         assertEquals(listType.limit(), dynamicType.limit());
     }
 
+    @Theory
+    public void shouldDecodeDynamicAsList8WithElements(int offset) {
+        buffer.putBytes(offset, fromHex("d0000000070000000241a100"));
+
+        DynamicType dynamicType = new DynamicType();
+        dynamicType.wrap(buffer, offset);
+
+        assertSame(Kind.LIST, dynamicType.kind());
+        assertEquals(offset + 12, dynamicType.limit());
+    }
+
     @Theory
     public void shouldDecodeDynamicAsLong1(int offset) {
         LongType longType = new LongType();
@@ -592,4 +615,55 @@ public class DynamicTypeTest {
         verify(observer).accept(nullType);
     }
     
+
+    @Theory
+    public void shouldSkipFixedAndShortVariableWidthValues(int offset) {
+        // @formatter:off
+        byte[] values = fromHex("a303" + "6b6579" +
+                                "41" +
+                                "a303" + "6e756d" +
+                                "5201" +
+                                "a10568656c6c6f" +
+                                "40" +
+                                "80" + "0102030405060708" +
+                                "a000");
+        // @formatter:on
+        buffer.putBytes(offset, values);
+
+        assertEquals(offset + 5, DynamicType.skip(buffer, offset, 1));
+        assertEquals(offset + 6, DynamicType.skip(buffer, offset, 2));
+        assertEquals(offset + 21, DynamicType.skip(buffer, offset, 6));
+        assertEquals(offset + values.length, DynamicType.skip(buffer, offset, 8));
+    }
+
+    @Theory
+    public void shouldSkipDescribedAndLongVariableWidthValues(int offset) {
+        // @formatter:off
+        byte[] values = fromHex("005370" + "c0020140" +
+                                "b100000002" + "6869" +
+                                "00a303" + "666f6f" + "005341" + "43");
+        // @formatter:on
+        buffer.putBytes(offset, values);
+
+        assertEquals(offset + 7, DynamicType.skip(buffer, offset, 1));
+        assertEquals(offset + 14, DynamicType.skip(buffer, offset, 2));
+        assertEquals(offset + values.length, DynamicType.skip(buffer, offset, 3));
+    }
+
+    @Test
+    public void shouldSkipValuesAtEndOfBuffer() {
+        byte[] values = fromHex("a1026869" + "41" + "5201");
+        MutableDirectBuffer buffer = new UnsafeBuffer(values);
+
+        assertEquals(values.length, DynamicType.skip(buffer, 0, 3));
+        assertEquals(values.length, DynamicType.skip(buffer, 4, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotSkipUnknownFormatCode() {
+        buffer.putBytes(0, fromHex("41" + "01" + "000000000000"));
+
+        DynamicType.skip(buffer, 0, 2);
+    }
+
 }
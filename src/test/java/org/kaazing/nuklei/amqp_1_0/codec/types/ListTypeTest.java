@@ -20,6 +20,8 @@ import static org.junit.Assert.assertEquals;
 import static org.kaazing.nuklei.Flyweight.uint8Get;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static uk.co.real_logic.agrona.BitUtil.fromHex;
+import static uk.co.real_logic.agrona.BitUtil.toHex;
 
 import java.util.Random;
 import java.util.function.Consumer;
@@ -156,6 +158,34 @@ public class ListTypeTest {
         assertEquals(offset + 9, listType.limit());
     }
     
+    @Theory
+    public void shouldCompact8To1(int offset) {
+        ListType listType = new ListType();
+        listType.wrap(buffer, offset);
+        listType.maxLength(0x100);
+        listType.clear();
+        buffer.putBytes(offset + 9, fromHex("520141"));
+        listType.limit(2, offset + 12);
+        listType.compact();
+        
+        assertEquals("c00402520141", toHex(buffer.byteArray(), offset, 6));
+        assertEquals(0x02, listType.count());
+        assertEquals(offset + 6, listType.limit());
+    }
+    
+    @Theory
+    public void shouldCompact1To0(int offset) {
+        ListType listType = new ListType();
+        listType.wrap(buffer, offset);
+        listType.maxLength(0xff);
+        listType.clear();
+        listType.compact();
+        
+        assertEquals(0x45, uint8Get(buffer, offset));
+        assertEquals(0x00, listType.count());
+        assertEquals(offset + 1, listType.limit());
+    }
+    
     @Theory
     @Test(expected = Exception.class)
     public void shouldNotDecode(int offset) {
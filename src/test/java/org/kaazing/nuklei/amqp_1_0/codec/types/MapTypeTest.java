@@ -16,10 +16,12 @@
 package org.kaazing.nuklei.amqp_1_0.codec.types;
 
 import static java.nio.ByteOrder.BIG_ENDIAN;
+import static java.nio.charset.StandardCharsets.US_ASCII;
 import static org.junit.Assert.assertEquals;
 import static org.kaazing.nuklei.Flyweight.uint8Get;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static uk.co.real_logic.agrona.BitUtil.fromHex;
 
 import java.util.Random;
 import java.util.function.Consumer;
@@ -38,6 +40,7 @@ import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
 public class MapTypeTest {
 
     private static final int BUFFER_CAPACITY = 512;
+    private static final String MAP_HEX = "c12106a301615201a10262637000000002a30e782d6f70742d6a6d732d646573745001";
     
     @DataPoint
     public static final int ZERO_OFFSET = 0;
@@ -132,6 +135,63 @@ public class MapTypeTest {
         assertEquals(0, mapType.count());
     }
 
+    @Theory
+    public void shouldFindValueOffsetByKey(int offset) {
+        buffer.putBytes(offset, fromHex(MAP_HEX));
+
+        MapType mapType = new MapType();
+        mapType.wrap(buffer, offset);
+
+        assertEquals(offset + 6, mapType.valueOffset("a".getBytes(US_ASCII)));
+        assertEquals(offset + 12, mapType.valueOffset("bc".getBytes(US_ASCII)));
+        assertEquals(offset + 33, mapType.valueOffset("x-opt-jms-dest".getBytes(US_ASCII)));
+        assertEquals(-1, mapType.valueOffset("b".getBytes(US_ASCII)));
+    }
+
+    @Theory
+    public void shouldFindValueOffsetByKeyWithIndex(int offset) {
+        buffer.putBytes(offset, fromHex(MAP_HEX));
+
+        MapType mapType = new MapType();
+        mapType.keyIndex(new MapType.KeyIndex(8));
+        mapType.wrap(buffer, offset);
+
+        assertEquals(offset + 33, mapType.valueOffset("x-opt-jms-dest".getBytes(US_ASCII)));
+        assertEquals(offset + 12, mapType.valueOffset("bc".getBytes(US_ASCII)));
+        assertEquals(offset + 6, mapType.valueOffset("a".getBytes(US_ASCII)));
+        assertEquals(-1, mapType.valueOffset("x-opt-jms-desk".getBytes(US_ASCII)));
+    }
+
+    @Theory
+    public void shouldFindValueOffsetByKeyWhenIndexTooSmall(int offset) {
+        buffer.putBytes(offset, fromHex(MAP_HEX));
+
+        MapType mapType = new MapType();
+        mapType.keyIndex(new MapType.KeyIndex(1));
+        mapType.wrap(buffer, offset);
+
+        assertEquals(offset + 33, mapType.valueOffset("x-opt-jms-dest".getBytes(US_ASCII)));
+        assertEquals(-1, mapType.valueOffset("c".getBytes(US_ASCII)));
+    }
+
+    @Theory
+    public void shouldIndexAgainAfterWrapWhenIndexWasTooSmall(int offset) {
+        buffer.putBytes(offset, fromHex(MAP_HEX));
+
+        MapType mapType = new MapType();
+        mapType.keyIndex(new MapType.KeyIndex(1));
+        mapType.wrap(buffer, offset);
+
+        assertEquals(offset + 33, mapType.valueOffset("x-opt-jms-dest".getBytes(US_ASCII)));
+        assertEquals(offset + 12, mapType.valueOffset("bc".getBytes(US_ASCII)));
+
+        buffer.putBytes(offset, fromHex("c10502a3016341"));
+        mapType.wrap(buffer, offset);
+
+        assertEquals(offset + 6, mapType.valueOffset("c".getBytes(US_ASCII)));
+        assertEquals(-1, mapType.valueOffset("a".getBytes(US_ASCII)));
+    }
+
     @Theory
     @SuppressWarnings("unchecked")
     public void shouldNotifyChanged(int offset) {
@@ -18,6 +18,9 @@ package org.kaazing.nuklei.amqp_1_0.codec.types;
 import static java.nio.ByteOrder.BIG_ENDIAN;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.kaazing.nuklei.Flyweight.uint8Get;
 import static org.kaazing.nuklei.FlyweightBE.int32Get;
 import static org.kaazing.nuklei.amqp_1_0.codec.util.FieldAccessors.newAccessor;
@@ -137,6 +140,72 @@ public class StringTypeTest {
         assertEquals(string, stringType.get(READ_UTF_8).toString());
     }
     
+    @Theory
+    public void shouldDecodeAsCharSequence(int offset) {
+        StringType stringType = new StringType();
+        stringType.wrap(buffer, offset);
+        stringType.set(WRITE_UTF_8, "queue://a");
+        
+        CharSequence chars = stringType.asCharSequence();
+        assertEquals(9, chars.length());
+        assertEquals('q', chars.charAt(0));
+        assertEquals("://", chars.subSequence(5, 8).toString());
+        assertEquals("queue://a", chars.toString());
+    }
+    
+    @Theory
+    public void shouldDecodeAsCharSequenceOneCharPerByte(int offset) {
+        StringType stringType = new StringType();
+        stringType.wrap(buffer, offset);
+        stringType.set(WRITE_UTF_8, "caf\u00e9");
+        
+        CharSequence chars = stringType.asCharSequence();
+        assertEquals(5, chars.length());
+        assertEquals((char) 0xc3, chars.charAt(3));
+        assertEquals((char) 0xa9, chars.charAt(4));
+        assertEquals("caf\u00c3\u00a9", chars.toString());
+    }
+    
+    @Theory
+    public void shouldCompareContent(int offset) {
+        StringType stringType = new StringType();
+        stringType.wrap(buffer, offset);
+        stringType.set(WRITE_UTF_8, "queue://a");
+        
+        MutableDirectBuffer otherBuffer = new UnsafeBuffer(new byte[BUFFER_CAPACITY]);
+        otherBuffer.putByte(offset, (byte) 0xb1);
+        otherBuffer.putInt(offset + 1, 9, BIG_ENDIAN);
+        otherBuffer.putBytes(offset + 5, "queue://a".getBytes(UTF_8));
+        StringType otherType = new StringType();
+        otherType.wrap(otherBuffer, offset);
+        
+        assertTrue(stringType.contentEquals("queue://a".getBytes(UTF_8)));
+        assertFalse(stringType.contentEquals("queue://".getBytes(UTF_8)));
+        assertTrue(stringType.contentEquals(otherType));
+        assertEquals(stringType.contentHashCode(), otherType.contentHashCode());
+        assertTrue(stringType.startsWith("queue://".getBytes(UTF_8)));
+        assertFalse(stringType.startsWith("topic://".getBytes(UTF_8)));
+        assertFalse(stringType.startsWith("queue://ab".getBytes(UTF_8)));
+        
+        otherType.set(WRITE_UTF_8, "queue");
+        
+        assertFalse(stringType.contentEquals(otherType));
+        assertTrue(stringType.startsWith(otherType));
+        assertFalse(otherType.startsWith(stringType));
+    }
+    
+    @Theory
+    public void shouldNotCompareContentWhenNull(int offset) {
+        StringType stringType = new StringType();
+        stringType.wrap(buffer, offset);
+        stringType.set((Void) null);
+        
+        assertNull(stringType.asCharSequence());
+        assertFalse(stringType.contentEquals(new byte[0]));
+        assertFalse(stringType.startsWith(new byte[0]));
+        assertEquals(0, stringType.contentHashCode());
+    }
+    
     @Theory
     @Test(expected = Exception.class)
     public void shouldNotDecode(int offset) {
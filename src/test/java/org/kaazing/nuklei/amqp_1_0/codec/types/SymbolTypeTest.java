@@ -137,6 +137,49 @@ public class SymbolTypeTest {
         assertEquals(string, symbolType.get(READ_UTF_8).toString());
     }
     
+    @Theory
+    public void shouldDecodeId(int offset) {
+        SymbolTable table = new SymbolTable(3)
+            .register("shared", 0)
+            .register("global", 1)
+            .register("link-detach", 2);
+
+        SymbolType symbolType = new SymbolType();
+        symbolType.wrap(buffer, offset);
+        symbolType.set(WRITE_UTF_8, "global");
+
+        assertEquals(1, symbolType.getId(table));
+
+        symbolType.set(WRITE_UTF_8, "link-detach");
+
+        assertEquals(2, symbolType.getId(table));
+    }
+
+    @Theory
+    public void shouldNotDecodeIdWhenNotRegistered(int offset) {
+        SymbolTable table = new SymbolTable(2)
+            .register("move", 0)
+            .register("copy", 1);
+
+        SymbolType symbolType = new SymbolType();
+        symbolType.wrap(buffer, offset);
+        symbolType.set(WRITE_UTF_8, "mov");
+
+        assertEquals(SymbolTable.NOT_FOUND, symbolType.getId(table));
+
+        symbolType.set(WRITE_UTF_8, "moved");
+
+        assertEquals(SymbolTable.NOT_FOUND, symbolType.getId(table));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotRegisterBeyondCapacity() {
+        SymbolTable table = new SymbolTable(1);
+        for (int i=0; i < 8; i++) {
+            table.register("symbol-" + i, i);
+        }
+    }
+
     @Theory
     @Test(expected = Exception.class)
     public void shouldNotDecode(int offset) {
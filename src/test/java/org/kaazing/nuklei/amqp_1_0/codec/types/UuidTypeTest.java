@@ -105,4 +105,16 @@ public class UuidTypeTest {
         
         verify(observer).accept(uuidType);
     }
+
+    @Theory
+    public void shouldEncodeThenDecodeBits(int offset) {
+        UuidType uuidType = new UuidType();
+        uuidType.wrap(buffer, offset);
+        uuidType.set(0xf81d4fae7dec11d0L, 0xa76500a0c91e6bf6L);
+
+        assertEquals("f81d4fae7dec11d0a76500a0c91e6bf6", toHex(buffer.byteArray(), offset + 1, 16));
+        assertEquals(0xf81d4fae7dec11d0L, uuidType.getMostSignificantBits());
+        assertEquals(0xa76500a0c91e6bf6L, uuidType.getLeastSignificantBits());
+        assertEquals(fromString("f81d4fae-7dec-11d0-a765-00a0c91e6bf6"), uuidType.get());
+    }
 }
@@ -15,15 +15,18 @@
  */
 package org.kaazing.nuklei.amqp_1_0.connection;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 import static org.kaazing.nuklei.amqp_1_0.codec.transport.Header.AMQP_PROTOCOL;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.util.function.Consumer;
 
 import org.junit.Test;
+import org.kaazing.nuklei.amqp_1_0.codec.definitions.ErrorCondition;
 import org.kaazing.nuklei.amqp_1_0.codec.messaging.Performative;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Close;
 import org.kaazing.nuklei.amqp_1_0.codec.transport.Frame;
@@ -1983,5 +1986,82 @@ public class ConnectionStateMachineTest {
         verify(connectionHooks.whenError).accept(connection);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldTransitionFromOpenedToDiscardingWhenDecodeError() {
+        connectionHooks.whenError = mock(Consumer.class);
+        connection.state = ConnectionState.OPENED;
+
+        stateMachine.error(connection, ErrorCondition.DECODE_ERROR);
+
+        assertSame(ConnectionState.DISCARDING, connection.state);
+        assertSame(ErrorCondition.DECODE_ERROR, connection.errorCondition);
+
+        verify(connectionHooks.whenError).accept(connection);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldNotifyBackPressureAppliedWithoutTransition() {
+        connectionHooks.whenBackPressureApplied = mock(Consumer.class);
+        connectionHooks.whenBackPressureReleased = mock(Consumer.class);
+        connection.state = ConnectionState.OPENED;
+        when(connection.sender.isBackPressured()).thenReturn(true);
+
+        stateMachine.backPressureChanged(connection);
+
+        assertSame(ConnectionState.OPENED, connection.state);
+
+        verify(connectionHooks.whenBackPressureApplied).accept(connection);
+        verify(connectionHooks.whenBackPressureReleased, never()).accept(connection);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldNotifyBackPressureReleasedWithoutTransition() {
+        connectionHooks.whenBackPressureApplied = mock(Consumer.class);
+        connectionHooks.whenBackPressureReleased = mock(Consumer.class);
+        connection.state = ConnectionState.OPENED;
+        when(connection.sender.isBackPressured()).thenReturn(false);
+
+        stateMachine.backPressureChanged(connection);
+
+        assertSame(ConnectionState.OPENED, connection.state);
+
+        verify(connectionHooks.whenBackPressureReleased).accept(connection);
+        verify(connectionHooks.whenBackPressureApplied, never()).accept(connection);
+    }
+
+    @Test
+    public void shouldRecordMaxFrameSizesWhenOpenExchanged() {
+        connection.state = ConnectionState.HEADER_EXCHANGED;
+
+        assertEquals(Open.MIN_MAX_FRAME_SIZE, connection.localMaxFrameSize);
+        assertEquals(Open.MIN_MAX_FRAME_SIZE, connection.remoteMaxFrameSize);
+
+        frame.setChannel(0x00)
+             .setDataOffset(0x02)
+             .setType(0x00)
+             .setPerformative(Performative.OPEN);
+        open.wrap(frame.buffer(), frame.bodyOffset())
+            .maxLength(255)
+            .setContainerId(null)
+            .setHostname(null)
+            .setMaxFrameSize(0x4000L);
+        frame.bodyChanged();
+
+        stateMachine.received(connection, frame, open);
+
+        open.wrap(frame.buffer(), frame.bodyOffset())
+            .maxLength(255)
+            .setContainerId(null);
+        frame.bodyChanged();
+
+        stateMachine.sent(connection, frame, open);
+
+        assertSame(ConnectionState.OPENED, connection.state);
+        assertEquals(0x4000L, connection.remoteMaxFrameSize);
+        assertEquals(Open.DEFAULT_MAX_FRAME_SIZE, connection.localMaxFrameSize);
+    }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+public class ReassemblyBufferPoolTest {
+
+    private final ReassemblyBufferPool pool = new ReassemblyBufferPool(512, 4096, 1024L);
+
+    @Test
+    public void shouldAcquireSmallestSizeClass() {
+        assertEquals(512, pool.acquire(1).capacity());
+        assertEquals(512, pool.acquire(512).capacity());
+        assertEquals(1024, pool.acquire(513).capacity());
+        assertEquals(4096, pool.acquire(4096).capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcquireBeyondMaxCapacity() {
+        pool.acquire(4097);
+    }
+
+    @Test
+    public void shouldReuseReleasedBuffer() {
+        MutableDirectBuffer buffer = pool.acquire(512);
+        pool.release(buffer);
+
+        assertEquals(1, pool.available(512));
+        assertSame(buffer, pool.acquire(512));
+        assertEquals(0, pool.available(512));
+    }
+
+    @Test
+    public void shouldNotRetainBeyondMaxRetainedBytes() {
+        MutableDirectBuffer first = pool.acquire(512);
+        MutableDirectBuffer second = pool.acquire(512);
+        MutableDirectBuffer third = pool.acquire(512);
+        pool.release(first);
+        pool.release(second);
+        pool.release(third);
+
+        assertEquals(2, pool.available(512));
+        assertEquals(1024L, pool.retainedBytes());
+    }
+
+    @Test
+    public void shouldNotRetainLargerBufferBeyondMaxRetainedBytes() {
+        MutableDirectBuffer buffer = pool.acquire(2048);
+        pool.release(buffer);
+
+        assertEquals(0, pool.available(2048));
+        assertEquals(0L, pool.retainedBytes());
+    }
+
+    @Test
+    public void shouldShrinkReleasingLargerBuffer() {
+        MutableDirectBuffer buffer = pool.acquire(1024);
+
+        MutableDirectBuffer shrunk = pool.shrink(buffer);
+
+        assertEquals(512, shrunk.capacity());
+        assertEquals(1, pool.available(1024));
+        assertSame(shrunk, pool.shrink(shrunk));
+    }
+
+    @Test
+    public void shouldGrowPreservingContents() {
+        MutableDirectBuffer buffer = pool.acquire(512);
+        buffer.putLong(0, 0x0102030405060708L);
+        buffer.putLong(504, 0x1112131415161718L);
+
+        MutableDirectBuffer grown = pool.grow(buffer, 2000);
+
+        assertNotSame(buffer, grown);
+        assertEquals(2048, grown.capacity());
+        assertEquals(0x0102030405060708L, grown.getLong(0));
+        assertEquals(0x1112131415161718L, grown.getLong(504));
+        assertEquals(1, pool.available(512));
+    }
+
+    @Test
+    public void shouldNotGrowWhenLargeEnough() {
+        MutableDirectBuffer buffer = pool.acquire(1024);
+
+        assertSame(buffer, pool.grow(buffer, 1000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotReleaseForeignBuffer() {
+        pool.release(new UnsafeBuffer(new byte[100]));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.link;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Frame;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Transfer;
+import org.kaazing.nuklei.amqp_1_0.sender.Sender;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+public class DeliveryAssemblerTest {
+
+    private final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[256]);
+    private final Frame frame = Frame.LOCAL_REF.get();
+    private final Transfer transfer = Transfer.LOCAL_REF.get();
+
+    private final ChunkPool pool = new ChunkPool(4, 4);
+    private final DeliveryAssembler assembler = new DeliveryAssembler(pool);
+
+    @Test
+    public void shouldAssembleDeliveryAcrossTransfers() {
+        assertTrue(assembler.assemble(frame, wrapTransfer(true, false, "abc")));
+        assertNull(assembler.completed());
+        assertTrue(assembler.isAssembling());
+
+        assertTrue(assembler.assemble(frame, wrapTransfer(true, false, "defgh")));
+        assertNull(assembler.completed());
+
+        assertTrue(assembler.assemble(frame, wrapTransfer(false, false, "ij")));
+        Delivery delivery = assembler.completed();
+
+        assertFalse(assembler.isAssembling());
+        assertEquals(0x1234, delivery.deliveryId());
+        assertEquals(10, delivery.length());
+        assertEquals(3, delivery.chunkCount());
+        assertEquals(2, delivery.chunkLength(2));
+        assertEquals('e', delivery.getByte(4));
+
+        byte[] payload = new byte[10];
+        delivery.getBytes(0, new UnsafeBuffer(payload), 0, payload.length);
+        assertArrayEquals("abcdefghij".getBytes(), payload);
+        assertEquals(1, pool.available());
+
+        assembler.settle(delivery);
+
+        assertEquals(4, pool.available());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotSettleDeliveryTwice() {
+        assertTrue(assembler.assemble(frame, wrapTransfer(false, false, "abc")));
+        Delivery delivery = assembler.completed();
+        assembler.settle(delivery);
+
+        assembler.settle(delivery);
+    }
+
+    @Test
+    public void shouldDiscardAbortedDelivery() {
+        assertTrue(assembler.assemble(frame, wrapTransfer(true, false, "abcdef")));
+        assertEquals(2, pool.available());
+
+        assertTrue(assembler.assemble(frame, wrapTransfer(true, true, "")));
+
+        assertNull(assembler.completed());
+        assertFalse(assembler.isAssembling());
+        assertEquals(4, pool.available());
+    }
+
+    @Test
+    public void shouldDiscardDeliveryWhenPoolExhausted() {
+        assertFalse(assembler.assemble(frame, wrapTransfer(true, false, "abcdefghijklmnopq")));
+
+        assertNull(assembler.completed());
+        assertFalse(assembler.isAssembling());
+        assertEquals(4, pool.available());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldNotifyDeliveryReceivedWhenAttached() {
+        LinkHooks<Void> linkHooks = new LinkHooks<>();
+        LinkStateMachine<Void> stateMachine = new LinkStateMachine<>(linkHooks);
+        Link<Void> link = new Link<>(stateMachine, mock(Sender.class));
+        link.state = LinkState.ATTACHED;
+        link.assembler = assembler;
+        linkHooks.whenDeliveryReceived = mock(BiConsumer.class);
+
+        stateMachine.received(link, frame, wrapTransfer(false, false, "abc"));
+
+        assertSame(LinkState.ATTACHED, link.state);
+        verify(linkHooks.whenDeliveryReceived).accept(link, assembler.completed());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldErrorWhenPoolExhausted() {
+        LinkHooks<Void> linkHooks = new LinkHooks<>();
+        LinkStateMachine<Void> stateMachine = new LinkStateMachine<>(linkHooks);
+        Link<Void> link = new Link<>(stateMachine, mock(Sender.class));
+        link.state = LinkState.ATTACHED;
+        link.assembler = assembler;
+        linkHooks.whenError = mock(Consumer.class);
+
+        stateMachine.received(link, frame, wrapTransfer(false, false, "abcdefghijklmnopq"));
+
+        assertSame(LinkState.DISCARDING, link.state);
+        verify(linkHooks.whenError).accept(link);
+    }
+
+    private Transfer wrapTransfer(boolean more, boolean aborted, String payload) {
+        byte[] bytes = payload.getBytes();
+
+        // @formatter:off
+        int limit = frame.wrap(buffer, 0)
+                         .setDataOffset(2)
+                         .setType(0)
+                         .setChannel(0)
+                         .beginTransfer()
+                             .handle(1)
+                             .deliveryId(0x1234)
+                             .messageFormat(0)
+                             .settled(false)
+                             .more(more)
+                             .aborted(aborted)
+                         .end();
+        // @formatter:on
+
+        buffer.putBytes(limit, bytes);
+        frame.setLength(limit + bytes.length);
+
+        return transfer.wrap(buffer, frame.bodyOffset());
+    }
+}
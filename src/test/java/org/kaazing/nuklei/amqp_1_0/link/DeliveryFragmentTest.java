@@ -0,0 +1,119 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.link;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Frame;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Transfer;
+import org.kaazing.nuklei.amqp_1_0.sender.Sender;
+
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+public class DeliveryFragmentTest {
+
+    private final MutableDirectBuffer buffer = new UnsafeBuffer(new byte[256]);
+    private final Frame frame = Frame.LOCAL_REF.get();
+    private final Transfer transfer = Transfer.LOCAL_REF.get();
+
+    private final LinkHooks<Void> linkHooks = new LinkHooks<>();
+    private final LinkStateMachine<Void> stateMachine = new LinkStateMachine<>(linkHooks);
+    private final Link<Void> link = new Link<>(stateMachine, mock(Sender.class));
+
+    private final StringBuilder markers = new StringBuilder();
+    private final StringBuilder payload = new StringBuilder();
+
+    @Test
+    public void shouldStreamFragmentsWithMarkers() {
+        link.state = LinkState.ATTACHED;
+        linkHooks.whenDeliveryFragmentReceived = (l, fragment) -> {
+            assertEquals(0x1234, fragment.deliveryId());
+            assertArrayEquals("tag".getBytes(), fragment.getDeliveryTag((b, o, n) -> {
+                byte[] tag = new byte[n];
+                b.getBytes(o, tag);
+                return tag;
+            }));
+            markers.append(fragment.isFirst() ? 'F' : '-').append(fragment.isLast() ? 'L' : '-')
+                   .append(fragment.isAborted() ? 'A' : '-').append(' ');
+            byte[] slice = new byte[fragment.payloadLength()];
+            fragment.payloadBuffer().getBytes(fragment.payloadOffset(), slice);
+            payload.append(new String(slice));
+        };
+
+        stateMachine.received(link, frame, wrapTransfer(true, true, false, "ab"));
+        stateMachine.received(link, frame, wrapTransfer(false, true, false, "cd"));
+        stateMachine.received(link, frame, wrapTransfer(false, false, false, "ef"));
+        stateMachine.received(link, frame, wrapTransfer(true, true, false, "gh"));
+        stateMachine.received(link, frame, wrapTransfer(false, true, true, ""));
+        stateMachine.received(link, frame, wrapTransfer(true, false, false, "ij"));
+
+        assertEquals("F-- --- -L- F-- -LA FL- ", markers.toString());
+        assertEquals("abcdefghij", payload.toString());
+    }
+
+    @Test
+    public void shouldNotStreamFragmentsWhenNotAttached() {
+        link.state = LinkState.DETACHED;
+        linkHooks.whenDeliveryFragmentReceived = (l, fragment) -> markers.append('X');
+
+        stateMachine.received(link, frame, wrapTransfer(true, false, false, "ab"));
+
+        assertEquals("", markers.toString());
+    }
+
+    @Test
+    public void shouldStartNewDeliveryAfterDetach() {
+        link.state = LinkState.ATTACHED;
+        stateMachine.received(link, frame, wrapTransfer(true, true, false, "ab"));
+
+        link.fragment.reset();
+        link.fragment.wrap(frame, wrapTransfer(true, false, false, "cd"));
+
+        assertTrue(link.fragment.isFirst());
+        assertTrue(link.fragment.isLast());
+    }
+
+    private Transfer wrapTransfer(boolean first, boolean more, boolean aborted, String payload) {
+        byte[] bytes = payload.getBytes();
+        UnsafeBuffer tag = new UnsafeBuffer("tag".getBytes());
+
+        // @formatter:off
+        Transfer.Builder builder = frame.wrap(buffer, 0)
+                                        .setDataOffset(2)
+                                        .setType(0)
+                                        .setChannel(0)
+                                        .beginTransfer()
+                                            .handle(1);
+        if (first) {
+            builder.deliveryId(0x1234)
+                   .deliveryTag(tag, 0, tag.capacity());
+        }
+        int limit = builder.more(more)
+                           .aborted(aborted)
+                           .end();
+        // @formatter:on
+
+        buffer.putBytes(limit, bytes);
+        frame.setLength(limit + bytes.length);
+
+        return transfer.wrap(buffer, frame.bodyOffset());
+    }
+}
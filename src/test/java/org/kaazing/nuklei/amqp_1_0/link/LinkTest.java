@@ -0,0 +1,397 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.link;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+import org.kaazing.nuklei.Flyweight;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Frame;
+import org.kaazing.nuklei.amqp_1_0.codec.transport.Transfer;
+import org.kaazing.nuklei.amqp_1_0.function.FrameConsumer;
+import org.kaazing.nuklei.amqp_1_0.sender.BufferedTcpSenderFactory;
+import org.kaazing.nuklei.amqp_1_0.sender.Sender;
+import org.kaazing.nuklei.amqp_1_0.sender.TcpResponder;
+
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+public class LinkTest {
+
+    private final MutableDirectBuffer sourceBuffer = new UnsafeBuffer(new byte[256]);
+    private final MutableDirectBuffer targetBuffer = new UnsafeBuffer(new byte[256]);
+    private final Frame frame = Frame.LOCAL_REF.get();
+    private final Transfer transfer = Transfer.LOCAL_REF.get();
+
+    private final LinkHooks<Void> linkHooks = new LinkHooks<>();
+    private final LinkStateMachine<Void> stateMachine = new LinkStateMachine<>(linkHooks);
+    private final Sender sender = mock(Sender.class);
+    private final Link<Void> link = new Link<>(stateMachine, sender);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldForwardFragmentPayloadAfterTransfer() {
+        linkHooks.whenTransferSent = mock(FrameConsumer.class);
+        link.state = LinkState.ATTACHED;
+        when(sender.maxFrameLength()).thenReturn(512);
+
+        DeliveryFragment fragment = new DeliveryFragment();
+        int payloadOffset = wrapSourceTransfer("payload");
+        fragment.wrap(frame, transfer);
+
+        // @formatter:off
+        int limit = frame.wrap(targetBuffer, 0)
+                         .setDataOffset(2)
+                         .setType(0)
+                         .setChannel(1)
+                         .beginTransfer()
+                             .handle(2)
+                             .deliveryId(0x10)
+                         .end();
+        // @formatter:on
+        transfer.wrap(targetBuffer, frame.bodyOffset());
+
+        assertTrue(link.forward(frame, transfer, fragment, 512L));
+
+        assertEquals(limit + "payload".length(), frame.getLength());
+        assertSame(LinkState.ATTACHED, link.state);
+
+        verify(sender).send(limit, sourceBuffer, payloadOffset, "payload".length());
+        verify(linkHooks.whenTransferSent).accept(link, frame, transfer);
+    }
+
+    @Test
+    public void shouldForwardTransferToTargetConnection() {
+        List<Long> connectionIds = new ArrayList<>();
+        MutableDirectBuffer written = new UnsafeBuffer(new byte[256]);
+        BufferedTcpSenderFactory senderFactory = new BufferedTcpSenderFactory(new RecordingResponder(connectionIds, written),
+                1024, 512);
+        Link<Void> source = new Link<>(stateMachine, senderFactory.newSender(1L, 0));
+        Link<Void> target = new Link<>(stateMachine, senderFactory.newSender(2L, 0));
+        target.state = LinkState.ATTACHED;
+
+        wrapSourceTransfer("payload");
+        source.fragment.wrap(frame, transfer);
+
+        // @formatter:off
+        target.sender.wrap(frame)
+                     .setDataOffset(2)
+                     .setType(0)
+                     .setChannel(1)
+                     .beginTransfer()
+                         .handle(2)
+                         .deliveryId(0x10)
+                     .end();
+        // @formatter:on
+        transfer.wrap(frame.buffer(), frame.bodyOffset());
+
+        assertTrue(target.forward(frame, transfer, source.fragment, 512L));
+        senderFactory.flush();
+
+        assertEquals(1, connectionIds.size());
+        assertEquals(2L, (long) connectionIds.get(0));
+
+        frame.wrap(written, 0);
+        transfer.wrap(written, frame.bodyOffset());
+        byte[] payload = new byte[frame.payloadLength()];
+        written.getBytes(frame.payloadOffset(), payload);
+
+        assertEquals(2L, transfer.getHandle());
+        assertEquals(0x10L, transfer.getDeliveryId());
+        assertEquals("payload", new String(payload));
+    }
+
+    @Test
+    public void shouldNotForwardFragmentLargerThanMaxFrameSize() {
+        List<Long> connectionIds = new ArrayList<>();
+        MutableDirectBuffer written = new UnsafeBuffer(new byte[256]);
+        BufferedTcpSenderFactory senderFactory = new BufferedTcpSenderFactory(new RecordingResponder(connectionIds, written),
+                1024, 512);
+        Link<Void> source = new Link<>(stateMachine, senderFactory.newSender(1L, 0));
+        Link<Void> target = new Link<>(stateMachine, senderFactory.newSender(2L, 0));
+        target.state = LinkState.ATTACHED;
+
+        wrapSourceTransfer(new String(new byte[100]));
+        source.fragment.wrap(frame, transfer);
+
+        // @formatter:off
+        target.sender.wrap(frame)
+                     .setDataOffset(2)
+                     .setType(0)
+                     .setChannel(1)
+                     .beginTransfer()
+                         .handle(2)
+                         .deliveryId(0x10)
+                     .end();
+        // @formatter:on
+        transfer.wrap(frame.buffer(), frame.bodyOffset());
+
+        assertFalse(target.forward(frame, transfer, source.fragment, 64L));
+        senderFactory.flush();
+
+        assertTrue(connectionIds.isEmpty());
+    }
+
+    @Test
+    public void shouldFragmentPayloadToMaxFrameSize() {
+        RecordingSender sender = new RecordingSender(new UnsafeBuffer(new byte[1024]), 512);
+        Link<Void> link = new Link<>(stateMachine, sender);
+        link.state = LinkState.ATTACHED;
+
+        byte[] payload = new byte[100];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) i;
+        }
+        UnsafeBuffer tag = new UnsafeBuffer("tag".getBytes());
+
+        link.send(1, 2L, 0x10L, tag, 0, tag.capacity(), false, new UnsafeBuffer(payload), 0, payload.length, 64L);
+
+        byte[] received = new byte[payload.length];
+        int receivedLength = 0;
+        int frames = 0;
+        for (int offset = 0; offset < sender.limit; offset += (int) frame.getLength()) {
+            frame.wrap(sender.buffer, offset);
+            transfer.wrap(sender.buffer, frame.bodyOffset());
+
+            assertTrue(frame.getLength() <= 64L);
+            assertEquals(1, frame.getChannel());
+            assertEquals(2L, transfer.getHandle());
+            assertEquals(frames == 0, transfer.hasDeliveryId());
+
+            sender.buffer.getBytes(frame.payloadOffset(), received, receivedLength, frame.payloadLength());
+            receivedLength += frame.payloadLength();
+            frames++;
+
+            assertEquals(receivedLength != payload.length, transfer.getMore());
+        }
+
+        assertEquals(3, frames);
+        assertArrayEquals(payload, received);
+    }
+
+    @Test
+    public void shouldSendEmptyPayloadAsSingleTransfer() {
+        RecordingSender sender = new RecordingSender(new UnsafeBuffer(new byte[1024]), 512);
+        Link<Void> link = new Link<>(stateMachine, sender);
+        link.state = LinkState.ATTACHED;
+        UnsafeBuffer tag = new UnsafeBuffer("tag".getBytes());
+
+        link.send(0, 1L, 0L, tag, 0, tag.capacity(), true, tag, 0, 0, 512L);
+
+        frame.wrap(sender.buffer, 0);
+        transfer.wrap(sender.buffer, frame.bodyOffset());
+
+        assertEquals(sender.limit, frame.getLength());
+        assertEquals(0, frame.payloadLength());
+        assertTrue(transfer.getSettled());
+        assertFalse(transfer.getMore());
+    }
+
+    @Test
+    public void shouldNotStartDeliveryWhenBackPressured() {
+        RecordingSender sender = new RecordingSender(new UnsafeBuffer(new byte[1024]), 512);
+        Link<Void> link = new Link<>(stateMachine, sender);
+        UnsafeBuffer tag = new UnsafeBuffer("tag".getBytes());
+        sender.writable = 0;
+
+        assertEquals(Link.NOT_SENT, link.send(0, 1L, 0L, tag, 0, tag.capacity(), true, tag, 0, 0, 512L));
+        assertEquals(0, sender.limit);
+    }
+
+    @Test
+    public void shouldResumeDeliveryWhenBackPressureReleased() {
+        RecordingSender sender = new RecordingSender(new UnsafeBuffer(new byte[1024]), 512);
+        Link<Void> link = new Link<>(stateMachine, sender);
+        link.state = LinkState.ATTACHED;
+
+        byte[] payload = new byte[100];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) i;
+        }
+        UnsafeBuffer payloadBuffer = new UnsafeBuffer(payload);
+        UnsafeBuffer tag = new UnsafeBuffer("tag".getBytes());
+        sender.writable = 1;
+
+        int sentLength = link.send(1, 2L, 0x10L, tag, 0, tag.capacity(), false, payloadBuffer, 0, payload.length, 64L);
+
+        assertTrue(sentLength > 0 && sentLength < payload.length);
+
+        sender.writable = Integer.MAX_VALUE;
+
+        assertEquals(payload.length - sentLength, link.resume(1, 2L, payloadBuffer, sentLength, payload.length - sentLength, 64L));
+
+        byte[] received = new byte[payload.length];
+        int receivedLength = 0;
+        for (int offset = 0; offset < sender.limit; offset += (int) frame.getLength()) {
+            frame.wrap(sender.buffer, offset);
+            transfer.wrap(sender.buffer, frame.bodyOffset());
+            sender.buffer.getBytes(frame.payloadOffset(), received, receivedLength, frame.payloadLength());
+            receivedLength += frame.payloadLength();
+
+            assertEquals(receivedLength != payload.length, transfer.getMore());
+        }
+
+        assertArrayEquals(payload, received);
+    }
+
+    @Test
+    public void shouldAbortOpenDelivery() {
+        RecordingSender sender = new RecordingSender(new UnsafeBuffer(new byte[1024]), 512);
+        Link<Void> link = new Link<>(stateMachine, sender);
+        link.state = LinkState.ATTACHED;
+        UnsafeBuffer payload = new UnsafeBuffer(new byte[100]);
+        UnsafeBuffer tag = new UnsafeBuffer("tag".getBytes());
+        sender.writable = 1;
+
+        link.send(1, 2L, 0x10L, tag, 0, tag.capacity(), false, payload, 0, payload.capacity(), 64L);
+
+        frame.wrap(sender.buffer, 0);
+        int abortOffset = (int) frame.getLength();
+        sender.writable = Integer.MAX_VALUE;
+
+        assertTrue(link.abort(1, 2L));
+
+        frame.wrap(sender.buffer, abortOffset);
+        transfer.wrap(sender.buffer, frame.bodyOffset());
+
+        assertEquals(sender.limit, abortOffset + frame.getLength());
+        assertEquals(2L, transfer.getHandle());
+        assertTrue(transfer.getAborted());
+        assertFalse(transfer.getMore());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotAbortWithoutOpenDelivery() {
+        link.abort(1, 2L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotFragmentWhenMaxFrameSizeTooSmall() {
+        RecordingSender sender = new RecordingSender(new UnsafeBuffer(new byte[1024]), 512);
+        Link<Void> link = new Link<>(stateMachine, sender);
+        UnsafeBuffer tag = new UnsafeBuffer("tag".getBytes());
+
+        link.send(0, 1L, 0L, tag, 0, tag.capacity(), true, tag, 0, tag.capacity(), 8L);
+    }
+
+    private int wrapSourceTransfer(String payload) {
+        byte[] bytes = payload.getBytes();
+
+        // @formatter:off
+        int limit = frame.wrap(sourceBuffer, 0)
+                         .setDataOffset(2)
+                         .setType(0)
+                         .setChannel(0)
+                         .beginTransfer()
+                             .handle(1)
+                             .deliveryId(0x1234)
+                         .end();
+        // @formatter:on
+
+        sourceBuffer.putBytes(limit, bytes);
+        frame.setLength(limit + bytes.length);
+        transfer.wrap(sourceBuffer, frame.bodyOffset());
+
+        return limit;
+    }
+
+    /*
+     * Records the connection id of each write, keeping the last written bytes
+     */
+    private static final class RecordingResponder implements TcpResponder {
+
+        private final List<Long> connectionIds;
+        private final MutableDirectBuffer written;
+
+        RecordingResponder(List<Long> connectionIds, MutableDirectBuffer written) {
+            this.connectionIds = connectionIds;
+            this.written = written;
+        }
+
+        public boolean respond(long connectionId, DirectBuffer buffer, int offset, int length) {
+            connectionIds.add(connectionId);
+            written.putBytes(0, buffer, offset, length);
+            return true;
+        }
+
+        public void close(long connectionId, boolean immediately) {
+        }
+    }
+
+    /*
+     * Encodes frames back to back, as a batching sender would
+     */
+    private static final class RecordingSender implements Sender {
+
+        private final MutableDirectBuffer buffer;
+        private final int maxFrameLength;
+
+        private int limit;
+        private int writable = Integer.MAX_VALUE;
+
+        RecordingSender(MutableDirectBuffer buffer, int maxFrameLength) {
+            this.buffer = buffer;
+            this.maxFrameLength = maxFrameLength;
+        }
+
+        public <T extends Flyweight> T wrap(T flyweight) {
+            flyweight.wrap(buffer, limit);
+            return flyweight;
+        }
+
+        public void send(int limit) {
+            this.limit = limit;
+            writable--;
+        }
+
+        public void send(int limit, DirectBuffer payload, int payloadOffset, int payloadLength) {
+            buffer.putBytes(limit, payload, payloadOffset, payloadLength);
+            send(limit + payloadLength);
+        }
+
+        public void flush() {
+        }
+
+        public int maxFrameLength() {
+            return maxFrameLength;
+        }
+
+        public boolean isBackPressured() {
+            return writable <= 0;
+        }
+
+        public void watch(Consumer<Sender> observer) {
+        }
+
+        public void discard() {
+        }
+
+        public void close(boolean immediately) {
+        }
+    }
+}
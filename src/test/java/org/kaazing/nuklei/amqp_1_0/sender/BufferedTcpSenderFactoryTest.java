@@ -0,0 +1,156 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.sender;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.kaazing.nuklei.amqp_1_0.codec.types.UIntType;
+
+import uk.co.real_logic.agrona.DirectBuffer;
+
+public class BufferedTcpSenderFactoryTest {
+
+    private final List<Long> connectionIds = new ArrayList<>();
+    private final List<Integer> lengths = new ArrayList<>();
+    private boolean writable = true;
+
+    private final List<Long> closedIds = new ArrayList<>();
+
+    private final TcpResponder responder = new TcpResponder() {
+
+        public boolean respond(long connectionId, DirectBuffer buffer, int offset, int length) {
+            if (writable) {
+                connectionIds.add(connectionId);
+                lengths.add(length);
+            }
+            return writable;
+        }
+
+        public void close(long connectionId, boolean immediately) {
+            closedIds.add(connectionId);
+        }
+    };
+
+    private final BufferedTcpSenderFactory senderFactory = new BufferedTcpSenderFactory(responder, 64, 16);
+
+    @Test
+    public void shouldWriteEachSenderByItsConnectionId() {
+        Sender first = senderFactory.newSender(1L, 0);
+        Sender second = senderFactory.newSender(2L, 0);
+
+        send(second, 0x01);
+        send(first, 0x02);
+        send(second, 0x03);
+
+        assertEquals(0, senderFactory.flush());
+        assertEquals(2, connectionIds.size());
+        assertTrue(connectionIds.contains(1L));
+        assertTrue(connectionIds.contains(2L));
+        assertEquals(2, (int) lengths.get(connectionIds.indexOf(1L)));
+        assertEquals(4, (int) lengths.get(connectionIds.indexOf(2L)));
+    }
+
+    @Test
+    public void shouldOnlyWriteSendersWithUnwrittenFrames() {
+        Sender first = senderFactory.newSender(1L, 0);
+        senderFactory.newSender(2L, 0);
+
+        send(first, 0x01);
+        senderFactory.flush();
+        senderFactory.flush();
+
+        assertEquals(1, connectionIds.size());
+        assertEquals(1L, (long) connectionIds.get(0));
+    }
+
+    @Test
+    public void shouldRetainFramesUntilWritable() {
+        Sender sender = senderFactory.newSender(1L, 0);
+
+        send(sender, 0x01);
+        writable = false;
+
+        assertEquals(1, senderFactory.flush());
+        assertTrue(sender.isBackPressured());
+
+        writable = true;
+
+        assertEquals(0, senderFactory.flush());
+        assertFalse(sender.isBackPressured());
+        assertEquals(1, connectionIds.size());
+    }
+
+    @Test
+    public void shouldNotWrapWhenFullAndUnwritable() {
+        Sender sender = senderFactory.newSender(1L, 0);
+        writable = false;
+
+        for (int i = 0; i < 10; i++) {
+            send(sender, 0x100);
+        }
+
+        assertTrue(sender.isBackPressured());
+        assertNull(sender.wrap(new UIntType()));
+    }
+
+    @Test
+    public void shouldListSenderOnceWhenObserverSendsOnRelease() {
+        Sender sender = senderFactory.newSender(1L, 0);
+        sender.watch((s) -> {
+            if (!s.isBackPressured()) {
+                send(s, 0x02);
+            }
+        });
+
+        send(sender, 0x01);
+        writable = false;
+        senderFactory.flush();
+        writable = true;
+
+        assertEquals(1, senderFactory.flush());
+        assertEquals(0, senderFactory.flush());
+        assertEquals(0, senderFactory.flush());
+        assertEquals(2, connectionIds.size());
+        assertEquals(2, (int) lengths.get(0));
+        assertEquals(2, (int) lengths.get(1));
+    }
+
+    @Test
+    public void shouldWriteBufferedFramesBeforeClose() {
+        Sender sender = senderFactory.newSender(1L, 0);
+
+        send(sender, 0x01);
+        sender.close(false);
+
+        assertEquals(0, senderFactory.flush());
+        assertEquals(1, connectionIds.size());
+        assertEquals(1, closedIds.size());
+        assertEquals(1L, (long) closedIds.get(0));
+    }
+
+    private static void send(Sender sender, long value) {
+        UIntType uint = sender.wrap(new UIntType());
+        uint.set(value);
+        sender.send(uint.limit());
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2014 Kaazing Corporation, All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.nuklei.amqp_1_0.sender;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.kaazing.nuklei.amqp_1_0.codec.types.UIntType;
+
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+public class TcpSenderFactoryTest {
+
+    private final List<Long> connectionIds = new ArrayList<>();
+    private final List<Integer> lengths = new ArrayList<>();
+    private boolean writable = true;
+
+    private final List<Long> closedIds = new ArrayList<>();
+
+    private final TcpResponder responder = new TcpResponder() {
+
+        public boolean respond(long connectionId, DirectBuffer buffer, int offset, int length) {
+            if (writable) {
+                connectionIds.add(connectionId);
+                lengths.add(length);
+            }
+            return writable;
+        }
+
+        public void close(long connectionId, boolean immediately) {
+            closedIds.add(connectionId);
+        }
+    };
+
+    private final TcpSenderFactory senderFactory =
+            new TcpSenderFactory(responder, new UnsafeBuffer(ByteBuffer.allocateDirect(64)), 16);
+
+    @Test
+    public void shouldBatchFramesForOneConnection() {
+        Sender sender = senderFactory.newSender(1L, 0);
+
+        send(sender, 0x01);
+        send(sender, 0x02);
+
+        assertEquals(0, senderFactory.flush());
+        assertEquals(1, connectionIds.size());
+        assertEquals(1L, (long) connectionIds.get(0));
+        assertEquals(4, (int) lengths.get(0));
+    }
+
+    @Test
+    public void shouldWritePendingFramesByTheirConnectionId() {
+        Sender first = senderFactory.newSender(1L, 0);
+        Sender second = senderFactory.newSender(2L, 0);
+
+        send(first, 0x01);
+        send(second, 0x02);
+        senderFactory.flush();
+
+        assertEquals(2, connectionIds.size());
+        assertEquals(1L, (long) connectionIds.get(0));
+        assertEquals(2L, (long) connectionIds.get(1));
+    }
+
+    @Test
+    public void shouldRetainPendingFramesUntilWritable() {
+        Sender first = senderFactory.newSender(1L, 0);
+        Sender second = senderFactory.newSender(2L, 0);
+
+        send(first, 0x01);
+        writable = false;
+
+        assertEquals(1, senderFactory.flush());
+        assertTrue(second.isBackPressured());
+        assertNull(second.wrap(new UIntType()));
+
+        writable = true;
+
+        assertEquals(0, senderFactory.flush());
+        assertFalse(second.isBackPressured());
+        assertEquals(1L, (long) connectionIds.get(0));
+    }
+
+    @Test
+    public void shouldNotifyEverySenderRefusedWhileBackPressured() {
+        Sender first = senderFactory.newSender(1L, 0);
+        Sender second = senderFactory.newSender(2L, 0);
+        List<Sender> notified = new ArrayList<>();
+        first.watch(notified::add);
+        second.watch(notified::add);
+
+        send(first, 0x01);
+        writable = false;
+        senderFactory.flush();
+
+        assertNull(second.wrap(new UIntType()));
+        notified.clear();
+
+        writable = true;
+        senderFactory.flush();
+
+        assertEquals(2, notified.size());
+        assertTrue(notified.contains(first));
+        assertTrue(notified.contains(second));
+        assertFalse(second.isBackPressured());
+        assertNotNull(second.wrap(new UIntType()));
+    }
+
+    @Test
+    public void shouldDiscardPendingFrames() {
+        Sender sender = senderFactory.newSender(1L, 0);
+
+        send(sender, 0x01);
+        sender.discard();
+
+        assertEquals(0, senderFactory.flush());
+        assertTrue(connectionIds.isEmpty());
+    }
+
+    private static void send(Sender sender, long value) {
+        UIntType uint = sender.wrap(new UIntType());
+        uint.set(value);
+        sender.send(uint.limit());
+    }
+}